@@ -22,10 +22,12 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
 import org.apache.commons.io.FileUtils;
 import org.zeroturnaround.exec.ProcessExecutor;
+import org.zeroturnaround.exec.ProcessResult;
 
 /**
  * Replacement for maven-verifier supporting execution of any command. The Verifier executes a command and can then check for presence of files or checking the log content.
@@ -109,6 +111,79 @@ public abstract class Verifier {
     }
   }
 
+  /**
+   * Verifies that the given file does not exist.
+   *
+   * @param fileName The name of the file to check.
+   * @throws VerifierException If the file exists.
+   */
+  public void assertFileNotPresent(String fileName) throws VerifierException {
+    File expectedDirectory = new File(baseDirectory);
+    if (new File(expectedDirectory, fileName).exists()) {
+      throw new VerifierException(String.format("Unexpected file '%s' found in directory %s.", fileName, expectedDirectory));
+    }
+  }
+
+  /**
+   * Verifies that the given directory exists and is empty.
+   *
+   * @param directoryName The name of the directory to check.
+   * @throws VerifierException If the directory does not exist or contains files.
+   */
+  public void assertDirectoryEmpty(String directoryName) throws VerifierException {
+    assertFilePresent(directoryName);
+    String[] files = new File(baseDirectory, directoryName).list();
+    if (files == null || files.length > 0) {
+      throw new VerifierException(String.format("Expected directory '%s' to be empty but found %s.", directoryName, files == null ? "a file" : Arrays.toString(files)));
+    }
+  }
+
+  /**
+   * Verifies that the given files have the same content. Different line endings are ignored.
+   *
+   * @param expectedFileName The name of the file with the expected content.
+   * @param actualFileName The name of the file to check.
+   * @throws VerifierException If a file does not exist or the content differs.
+   */
+  public void assertFilesEqual(String expectedFileName, String actualFileName) throws VerifierException {
+    assertFilePresent(expectedFileName);
+    assertFilePresent(actualFileName);
+    File expectedFile = new File(baseDirectory, expectedFileName);
+    File actualFile = new File(baseDirectory, actualFileName);
+    try {
+      if (!FileUtils.contentEqualsIgnoreEOL(expectedFile, actualFile, StandardCharsets.UTF_8.name())) {
+        logFileContent(expectedFileName);
+        logFileContent(actualFileName);
+        throw new VerifierException(String.format("Content of '%s' differs from '%s' in directory %s.", actualFileName, expectedFileName, baseDirectory));
+      }
+    } catch (IOException e) {
+      throw new VerifierException(String.format("Could not compare '%s' and '%s'", expectedFileName, actualFileName), e);
+    }
+  }
+
+  /**
+   * Executes the given command in a directory of the working directory, e.g. for creating the expected output of a tool.
+   *
+   * @param directory The directory relative to the working directory.
+   * @param command The command and its arguments.
+   * @throws VerifierException If the command could not be executed or finished with an exit code other than 0.
+   */
+  public void executeCommand(String directory, String... command) throws VerifierException {
+    String commandLine = String.join(" ", command);
+    try {
+      ProcessResult result = new ProcessExecutor(command).directory(new File(baseDirectory, directory)).readOutput(true).execute();
+      if (result.getExitValue() != 0) {
+        System.err.println(result.outputUTF8());
+        throw new VerifierException(String.format("Execution of '%s' finished with exit code %s", commandLine, result.getExitValue()));
+      }
+    } catch (IOException | TimeoutException e) {
+      throw new VerifierException(String.format("Could not execute '%s'", commandLine), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new VerifierException(String.format("Could not execute '%s'", commandLine), e);
+    }
+  }
+
   private void logFileContent(String fileName) throws VerifierException {
     File logFile = new File(baseDirectory, fileName);
     if (!logFile.exists()) {
@@ -130,6 +205,24 @@ public abstract class Verifier {
    * @throws VerifierException If the log does not contain the text.
    */
   public void assertLogContainsText(String text) throws VerifierException {
+    if (!logContainsText(text)) {
+      throw new VerifierException(String.format("Text '%s' not found in log %s", text, new File(baseDirectory, LOG_FILENAME).getAbsolutePath()));
+    }
+  }
+
+  /**
+   * Verifies that the log does not contain the given text.
+   *
+   * @param text The text to check.
+   * @throws VerifierException If the log contains the text.
+   */
+  public void assertLogNotContainsText(String text) throws VerifierException {
+    if (logContainsText(text)) {
+      throw new VerifierException(String.format("Text '%s' found in log %s", text, new File(baseDirectory, LOG_FILENAME).getAbsolutePath()));
+    }
+  }
+
+  private boolean logContainsText(String text) throws VerifierException {
     File logFile = new File(baseDirectory, LOG_FILENAME);
     List<String> lines = null;
     try {
@@ -137,16 +230,12 @@ public abstract class Verifier {
     } catch (IOException e) {
       throw new VerifierException(String.format("Could not read log file %s", logFile.getAbsolutePath()), e);
     }
-    boolean result = false;
     for (String line : lines) {
       if (line.contains(text)) {
-        result = true;
-        break;
+        return true;
       }
     }
-    if (!result) {
-      throw new VerifierException(String.format("Text '%s' not found in log %s", text, logFile.getAbsolutePath()));
-    }
+    return false;
   }
 
   /**
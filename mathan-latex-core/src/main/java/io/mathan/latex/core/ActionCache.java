@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Cache for the results of the steps preparing auxiliary files for LaTeX ({@link Step#STEP_BIBTEX bibtex}, {@link Step#STEP_BIBER biber}, {@link Step#STEP_MAKEINDEX makeindex} and {@link
+ * Step#STEP_MAKEINDEXNOMENCL makeindexnomencl}). The output of these steps only depends on the definition of the step, the version of the TeX distribution and a known set of input files. So the
+ * output files and the log file of the step can be stored in the cache and restored later instead of executing the step again.
+ *
+ * <p>Each entry of the cache is a directory named after the key of the action containing the output files named by their extension. An entry is written to a temporary directory first and moved to
+ * its final location afterwards, so a cache directory can be shared by concurrent builds.</p>
+ */
+public class ActionCache {
+
+  /**
+   * The default location of the cache relative to the basedir of the project.
+   */
+  public static final String DEFAULT_DIRECTORY = "target/mathan-cache";
+
+  private static final Map<String, Action> ACTIONS = new HashMap<>();
+
+  static {
+    ACTIONS.put(Step.STEP_BIBTEX.getId(), new Action(Constants.FORMAT_AUX, null, new String[]{Constants.FORMAT_BBL}));
+    ACTIONS.put(Step.STEP_BIBER.getId(), new Action(Constants.FORMAT_BCF, null, new String[]{Constants.FORMAT_BBL}));
+    ACTIONS.put(Step.STEP_MAKEINDEX.getId(), new Action(Constants.FORMAT_IDX, new String[]{Constants.FORMAT_IST}, new String[]{"ind"}));
+    ACTIONS.put(Step.STEP_MAKEINDEXNOMENCL.getId(), new Action(Constants.FORMAT_NLO, new String[]{Constants.FORMAT_IST}, new String[]{Constants.FORMAT_NLS}));
+  }
+
+  private final File directory;
+  private final String toolchainVersion;
+  private final List<File> dependencyDirectories;
+  private final String texBin;
+
+  /**
+   * Creates a cache stored in the given directory.
+   *
+   * @param directory The directory of the cache.
+   * @param toolchainVersion The version of the TeX distribution used for the build.
+   * @param dependencyDirectories The directories of the dependencies mounted by the search paths of TeX.
+   * @param texBin The bin directory of the TeX distribution.
+   */
+  public ActionCache(File directory, String toolchainVersion, List<File> dependencyDirectories, String texBin) {
+    this.directory = directory;
+    this.toolchainVersion = toolchainVersion;
+    this.dependencyDirectories = dependencyDirectories;
+    this.texBin = texBin;
+  }
+
+  /**
+   * Checks if the results of the given step can be cached. Only steps with a known set of input and output files are cached.
+   *
+   * @param step The step.
+   * @return <code>True</code> if the step can be cached.
+   */
+  public static boolean isCacheable(Step step) {
+    return ACTIONS.containsKey(step.getId());
+  }
+
+  /**
+   * Computes the key of the action executing the given step in the working directory. The key is the hash of the definition of the step, the executor, the version of the TeX distribution and the
+   * content of all input files of the step, so the output of another executor (e.g. makeindex in-process) is not restored. For bibtex and biber the {@link BibliographyFingerprint fingerprint} of the
+   * bibliography is used instead of the content of the .aux or .bcf file.
+   *
+   * @param step The step.
+   * @param executor The executor of the step.
+   * @param workingDirectory The working directory.
+   * @param baseName The name of the LaTeX source document without extension.
+   * @return The key or <code>null</code> if the main input file of the step does not exist.
+   * @throws IOException If an input file could not be read.
+   */
+  public String key(Step step, StepExecutor executor, File workingDirectory, String baseName) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    sb.append(toolchainVersion).append('\n');
+    sb.append(executor.getClass().getName()).append('\n');
+    if (BibliographyFingerprint.isSupported(step)) {
+      String fingerprint = BibliographyFingerprint.create(step, workingDirectory, baseName, dependencyDirectories, texBin);
+      if (fingerprint == null) {
+        return null;
+      }
+      sb.append(fingerprint);
+    } else {
+      Action action = ACTIONS.get(step.getId());
+      File input = new File(workingDirectory, baseName + "." + action.input);
+      if (!input.exists()) {
+        return null;
+      }
+      Map<String, String> inputs = new TreeMap<>();
+      inputs.put(input.getName(), Utils.sha256(input));
+      Collection<File> files = FileUtils.listFiles(workingDirectory, action.additionalInputs, true);
+      for (File file : files) {
+        inputs.put(workingDirectory.toPath().relativize(file.toPath()).toString().replace('\\', '/'), Utils.sha256(file));
+      }
+      sb.append(step).append('\n');
+      inputs.forEach((name, hash) -> sb.append(name).append('=').append(hash).append('\n'));
+    }
+    return Utils.sha256(sb.toString());
+  }
+
+  /**
+   * Restores the output files and the log file of the action with the given key to the working directory.
+   *
+   * @param key The key of the action.
+   * @param step The step.
+   * @param workingDirectory The working directory.
+   * @param baseName The name of the LaTeX source document without extension.
+   * @return <code>True</code> if the cache contained the action, <code>false</code> otherwise.
+   * @throws IOException If the files could not be restored.
+   */
+  public boolean restore(String key, Step step, File workingDirectory, String baseName) throws IOException {
+    File entry = new File(directory, key);
+    if (!entry.isDirectory()) {
+      return false;
+    }
+    for (String extension : extensions(step)) {
+      File cached = new File(entry, extension);
+      if (cached.exists()) {
+        Files.copy(cached.toPath(), new File(workingDirectory, baseName + "." + extension).toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Stores the output files and the log file of the action with the given key in the cache. If the cache already contains the action, the cache is not changed.
+   *
+   * @param key The key of the action.
+   * @param step The step.
+   * @param workingDirectory The working directory.
+   * @param baseName The name of the LaTeX source document without extension.
+   * @throws IOException If the files could not be stored.
+   */
+  public void store(String key, Step step, File workingDirectory, String baseName) throws IOException {
+    File entry = new File(directory, key);
+    if (entry.isDirectory()) {
+      return;
+    }
+    File temp = new File(directory, key + "." + UUID.randomUUID() + ".tmp");
+    FileUtils.forceMkdir(temp);
+    try {
+      for (String extension : extensions(step)) {
+        File output = new File(workingDirectory, baseName + "." + extension);
+        if (output.exists()) {
+          Files.copy(output.toPath(), new File(temp, extension).toPath());
+        }
+      }
+      try {
+        move(temp, entry);
+      } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+        // another build stored the same action concurrently
+      }
+    } finally {
+      if (temp.exists()) {
+        FileUtils.deleteDirectory(temp);
+      }
+    }
+  }
+
+  private static void move(File source, File target) throws IOException {
+    try {
+      Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source.toPath(), target.toPath());
+    }
+  }
+
+  private static String[] extensions(Step step) {
+    String[] outputs = ACTIONS.get(step.getId()).outputs;
+    if (step.getLogExtension() == null) {
+      return outputs;
+    }
+    String[] extensions = Arrays.copyOf(outputs, outputs.length + 1);
+    extensions[outputs.length] = step.getLogExtension();
+    return extensions;
+  }
+
+  /**
+   * The input and output files of a cacheable step.
+   */
+  private static class Action {
+
+    private final String input;
+    private final String[] additionalInputs;
+    private final String[] outputs;
+
+    Action(String input, String[] additionalInputs, String[] outputs) {
+      this.input = input;
+      this.additionalInputs = additionalInputs;
+      this.outputs = outputs;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The log aggregating the log files of all steps executed (mathan-latex-mojo.log). The log files of the steps are copied as bytes without decoding them, so the content is never changed by a charset
+ * conversion. Each step is a section of the log starting with a header.
+ *
+ * <p>For each section a line is appended to an index file (mathan-latex-mojo.log.idx) containing the number of the step, the id of the step, the offset of the section within the log and the length of
+ * the section separated by tabs. So a single section can be read without reading the whole log.</p>
+ *
+ * <p>If the log is compressed (mathan-latex-mojo.log.gz) each section is written as a separate gzip member. The offset and length in the index refer to the compressed file then, so a single section
+ * can still be decompressed on its own.</p>
+ */
+public class AggregatedLog implements Closeable {
+
+  /**
+   * The name of the aggregated log.
+   */
+  public static final String LOG_NAME = "mathan-latex-mojo.log";
+
+  private static final String SEPARATOR = "##################################################\n";
+
+  private final FileChannel log;
+  private final FileChannel index;
+  private final boolean compress;
+
+  /**
+   * Opens the aggregated log in the given working directory. If the log already exists, new sections are appended.
+   *
+   * @param workingDirectory The working directory.
+   * @param compress Flag indicating if the log should be compressed.
+   * @throws IOException If the log could not be opened.
+   */
+  public AggregatedLog(File workingDirectory, boolean compress) throws IOException {
+    String name = compress ? LOG_NAME + ".gz" : LOG_NAME;
+    this.compress = compress;
+    this.log = FileChannel.open(new File(workingDirectory, name).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    this.index = FileChannel.open(new File(workingDirectory, name + ".idx").toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  /**
+   * Appends a section for the given step to the log. The section consists of a header and the content of the log file of the step (if it exists).
+   *
+   * @param number The number of the step in the build.
+   * @param count The number of all steps in the build.
+   * @param step The step.
+   * @param stepLog The log file of the step or <code>null</code> if the step does not create a log file.
+   * @throws IOException If the section could not be written.
+   */
+  public void append(int number, int count, Step step, File stepLog) throws IOException {
+    long offset = log.size();
+    byte[] header = (SEPARATOR + String.format("# Step %s/%s %s\n", number, count, step.getId()) + SEPARATOR).getBytes(StandardCharsets.US_ASCII);
+    boolean hasLog = stepLog != null && stepLog.exists();
+    if (compress) {
+      try (GZIPOutputStream out = new GZIPOutputStream(new NonClosingOutputStream(Channels.newOutputStream(log)))) {
+        out.write(header);
+        if (hasLog) {
+          Files.copy(stepLog.toPath(), out);
+        }
+      }
+    } else {
+      write(log, header);
+      if (hasLog) {
+        try (FileChannel in = FileChannel.open(stepLog.toPath(), StandardOpenOption.READ)) {
+          long position = 0;
+          long size = in.size();
+          while (position < size) {
+            position += in.transferTo(position, size - position, log);
+          }
+        }
+      }
+    }
+    long length = log.size() - offset;
+    write(index, String.format("%s\t%s\t%s\t%s\n", number, step.getId(), offset, length).getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      log.close();
+    } finally {
+      index.close();
+    }
+  }
+
+  private static void write(FileChannel channel, byte[] bytes) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Prevents the log channel from being closed when a gzip member is finished.
+   */
+  private static class NonClosingOutputStream extends FilterOutputStream {
+
+    NonClosingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+    }
+  }
+}
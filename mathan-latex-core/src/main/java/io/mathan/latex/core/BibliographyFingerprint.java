@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Fingerprint of the inputs relevant for the bibliography created by {@link Step#STEP_BIBTEX bibtex} or {@link Step#STEP_BIBER biber}. The .aux file written by LaTeX changes with every change of
+ * the document (e.g. labels and page numbers), but the bibliography only depends on the cited keys, the bibliography style and the bibliography databases. So if the fingerprint did not change, the
+ * existing .bbl file can be used without executing the step again.
+ *
+ * <p>For bibtex the cited keys, the databases and the styles are extracted from the .aux file (including the .aux files of included documents). The .bib and .bst files referenced are part of the
+ * fingerprint. For biber the .bcf file only contains the cited keys, the data sources and the options of biblatex, so the whole file is part of the fingerprint
+ * together with the .bib files referenced as data source.</p>
+ *
+ * <p>The .bib and .bst files are found like bibtex and biber do: in the working directory, in the mounted dependencies and with kpsewhich in the search path of the user and the TeX distribution. If a
+ * file cannot be found, no fingerprint is created, so the step is neither skipped nor restored from a cache.</p>
+ */
+public class BibliographyFingerprint {
+
+  private BibliographyFingerprint() {
+  }
+
+  /**
+   * Checks if a fingerprint can be created for the given step.
+   *
+   * @param step The step.
+   * @return <code>True</code> if the step is either bibtex or biber.
+   */
+  public static boolean isSupported(Step step) {
+    return Step.STEP_BIBTEX.getId().equals(step.getId()) || Step.STEP_BIBER.getId().equals(step.getId());
+  }
+
+  /**
+   * Creates the fingerprint of the inputs of the given step.
+   *
+   * @param step The step (bibtex or biber).
+   * @param workingDirectory The working directory.
+   * @param baseName The name of the LaTeX source document without extension.
+   * @param dependencyDirectories The directories of the dependencies mounted by the search paths of TeX.
+   * @param texBin The bin directory of the TeX distribution containing kpsewhich.
+   * @return The fingerprint or <code>null</code> if the .aux or .bcf file does not exist or a .bib or .bst file cannot be found.
+   * @throws IOException If an input file could not be read.
+   */
+  public static String create(Step step, File workingDirectory, String baseName, List<File> dependencyDirectories, String texBin) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    sb.append(step).append('\n');
+    if (Step.STEP_BIBER.getId().equals(step.getId())) {
+      File bcf = new File(workingDirectory, baseName + "." + Constants.FORMAT_BCF);
+      BibliographyInputs inputs = BibliographyInputs.fromBcf(bcf);
+      if (inputs == null) {
+        return null;
+      }
+      sb.append(bcf.getName()).append('=').append(Utils.sha256(bcf)).append('\n');
+      for (String database : inputs.getDatabases()) {
+        if (!appendFile(sb, database, workingDirectory, dependencyDirectories, texBin)) {
+          return null;
+        }
+      }
+    } else {
+      BibliographyInputs inputs = BibliographyInputs.fromAux(workingDirectory, new File(workingDirectory, baseName + "." + Constants.FORMAT_AUX));
+      if (inputs == null) {
+        return null;
+      }
+      sb.append("citations=").append(String.join(",", inputs.getCitations())).append('\n');
+      for (String file : Stream.concat(inputs.getDatabases().stream(), inputs.getStyles().stream()).collect(Collectors.toList())) {
+        if (!appendFile(sb, file, workingDirectory, dependencyDirectories, texBin)) {
+          return null;
+        }
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Appends the hash of the given file to the fingerprint.
+   *
+   * @return <code>False</code> if the file cannot be found.
+   */
+  private static boolean appendFile(StringBuilder sb, String name, File workingDirectory, List<File> dependencyDirectories, String texBin) throws IOException {
+    File file = BibliographyInputs.find(name, workingDirectory, dependencyDirectories);
+    if (file == null) {
+      file = Utils.findFile(texBin, name);
+    }
+    if (file == null) {
+      return false;
+    }
+    sb.append(name).append('=').append(Utils.sha256(file)).append('\n');
+    return true;
+  }
+}
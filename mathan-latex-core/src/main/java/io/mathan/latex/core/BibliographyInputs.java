@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * The inputs of the bibliography written by LaTeX for {@link Step#STEP_BIBTEX bibtex} (.aux file) or {@link Step#STEP_BIBER biber} (.bcf file): the cited keys, the bibliography databases and the
+ * bibliography styles.
+ */
+final class BibliographyInputs {
+
+  private static final String CITATION = "\\citation{";
+  private static final String BIBDATA = "\\bibdata{";
+  private static final String BIBSTYLE = "\\bibstyle{";
+  private static final String INPUT = "\\@input{";
+
+  /**
+   * The key used to cite all entries of the databases (<code>\nocite{*}</code>).
+   */
+  static final String ALL = "*";
+
+  private final List<String> citations = new ArrayList<>();
+  private final Set<String> databases = new TreeSet<>();
+  private final Set<String> styles = new TreeSet<>();
+
+  private BibliographyInputs() {
+  }
+
+  /**
+   * Returns the cited keys in the order of their occurrence.
+   */
+  List<String> getCitations() {
+    return citations;
+  }
+
+  /**
+   * Returns the names of the databases (.bib files) relative to the working directory.
+   */
+  Set<String> getDatabases() {
+    return databases;
+  }
+
+  /**
+   * Returns the names of the bibliography styles (.bst files). Only available for bibtex.
+   */
+  Set<String> getStyles() {
+    return styles;
+  }
+
+  /**
+   * Reads the .aux file written for bibtex including the .aux files of documents included with <code>\include</code>.
+   *
+   * @param workingDirectory The working directory.
+   * @param aux The .aux file.
+   * @return The inputs or <code>null</code> if the .aux file does not exist.
+   * @throws IOException If the file could not be read.
+   */
+  static BibliographyInputs fromAux(File workingDirectory, File aux) throws IOException {
+    if (!aux.exists()) {
+      return null;
+    }
+    BibliographyInputs inputs = new BibliographyInputs();
+    inputs.readAux(workingDirectory, aux, new HashSet<>());
+    return inputs;
+  }
+
+  /**
+   * Reads the .bcf file written by biblatex for biber. Only data sources of type file in the bibtex format are returned as databases.
+   *
+   * @param bcf The .bcf file.
+   * @return The inputs or <code>null</code> if the .bcf file does not exist.
+   * @throws IOException If the file could not be read or parsed.
+   */
+  static BibliographyInputs fromBcf(File bcf) throws IOException {
+    if (!bcf.exists()) {
+      return null;
+    }
+    BibliographyInputs inputs = new BibliographyInputs();
+    Document document = parse(bcf);
+    NodeList dataSources = document.getElementsByTagNameNS("*", "datasource");
+    for (int i = 0; i < dataSources.getLength(); i++) {
+      Element dataSource = (Element) dataSources.item(i);
+      if (isBibtexFile(dataSource)) {
+        inputs.databases.add(dataSource.getTextContent().trim());
+      }
+    }
+    NodeList citeKeys = document.getElementsByTagNameNS("*", "citekey");
+    for (int i = 0; i < citeKeys.getLength(); i++) {
+      inputs.citations.add(citeKeys.item(i).getTextContent().trim());
+    }
+    return inputs;
+  }
+
+  /**
+   * Checks if the given data source of a .bcf file is a file in bibtex format.
+   */
+  static boolean isBibtexFile(Element dataSource) {
+    String type = dataSource.getAttribute("type");
+    String datatype = dataSource.getAttribute("datatype");
+    return (type.isEmpty() || "file".equals(type)) && (datatype.isEmpty() || "bibtex".equals(datatype));
+  }
+
+  /**
+   * Parses the given .bcf file. External entities are not resolved.
+   */
+  static Document parse(File bcf) throws IOException {
+    try {
+      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+      factory.setNamespaceAware(true);
+      factory.setExpandEntityReferences(false);
+      factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+      return factory.newDocumentBuilder().parse(bcf);
+    } catch (ParserConfigurationException | SAXException e) {
+      throw new IOException(String.format("Could not parse %s", bcf.getName()), e);
+    }
+  }
+
+  private void readAux(File workingDirectory, File aux, Set<File> visited) throws IOException {
+    if (!aux.exists() || !visited.add(aux.getCanonicalFile())) {
+      return;
+    }
+    // the encoding of the .aux file is unknown, so every byte is mapped to a single character
+    List<String> lines = Files.readAllLines(aux.toPath(), StandardCharsets.ISO_8859_1);
+    for (String line : lines) {
+      if (line.startsWith(CITATION)) {
+        split(argument(line, CITATION), citations);
+      } else if (line.startsWith(BIBDATA)) {
+        for (String database : split(argument(line, BIBDATA), new ArrayList<>())) {
+          databases.add(withExtension(database, Constants.FORMAT_BIB));
+        }
+      } else if (line.startsWith(BIBSTYLE)) {
+        for (String style : split(argument(line, BIBSTYLE), new ArrayList<>())) {
+          styles.add(withExtension(style, Constants.FORMAT_BST));
+        }
+      } else if (line.startsWith(INPUT)) {
+        readAux(workingDirectory, new File(workingDirectory, argument(line, INPUT)), visited);
+      }
+    }
+  }
+
+  private static String argument(String line, String command) {
+    int end = line.lastIndexOf('}');
+    return end < command.length() ? line.substring(command.length()) : line.substring(command.length(), end);
+  }
+
+  private static List<String> split(String argument, List<String> names) {
+    for (String name : argument.split(",")) {
+      if (!name.trim().isEmpty()) {
+        names.add(name.trim());
+      }
+    }
+    return names;
+  }
+
+  /**
+   * Finds the given database or style like kpathsea does with the search path of the build: in the working directory and in the directories of the dependencies and their subdirectories.
+   *
+   * @param name The name of the file, e.g. refs.bib.
+   * @param workingDirectory The working directory.
+   * @param dependencyDirectories The directories of the dependencies mounted by the search paths of TeX.
+   * @return The file or <code>null</code> if it is neither part of the working directory nor of the dependencies.
+   * @throws IOException If a dependency directory could not be searched.
+   */
+  static File find(String name, File workingDirectory, List<File> dependencyDirectories) throws IOException {
+    File file = new File(name).isAbsolute() ? new File(name) : new File(workingDirectory, name);
+    if (file.isFile()) {
+      return file;
+    }
+    for (File dependencyDirectory : dependencyDirectories) {
+      // the dependencies are searched recursively (dependency//)
+      try (Stream<Path> files = Files.walk(dependencyDirectory.toPath())) {
+        Optional<Path> found = files.filter(path -> path.endsWith(name) && Files.isRegularFile(path)).sorted().findFirst();
+        if (found.isPresent()) {
+          return found.get().toFile();
+        }
+      }
+    }
+    return null;
+  }
+
+  private static String withExtension(String name, String extension) {
+    return name.endsWith("." + extension) ? name : name + "." + extension;
+  }
+}
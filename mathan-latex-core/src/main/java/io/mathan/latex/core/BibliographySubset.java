@@ -0,0 +1,313 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import org.apache.commons.io.FileUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Extracts the cited entries of the bibliography databases (.bib files) into reduced databases, so that {@link Step#STEP_BIBTEX bibtex} and {@link Step#STEP_BIBER biber} only have to parse the
+ * entries actually used by the document. Entries referenced by cited entries (<code>crossref</code>, <code>xref</code>, <code>xdata</code>, <code>entryset</code> and <code>related</code>) are
+ * extracted as well as all <code>@string</code> and <code>@preamble</code> definitions.
+ *
+ * <p>The databases are read as a stream twice: once for collecting the references between the entries and once for writing the entries required. Entries are written unchanged in the order of the
+ * original database. The reduced databases are written to the directory {@value #DIRECTORY} of the working directory and are reused as long as the cited keys and the databases do not change.
+ * Databases of the {@link MathanLatexConfiguration#isMountDependencies() mounted dependencies} are found like kpathsea does, in the dependency directories and their subdirectories.</p>
+ *
+ * <p>bibtex finds the reduced databases using the environment variable BIBINPUTS. For biber a copy of the .bcf file referencing the reduced databases as data sources is written to the directory
+ * {@value #DIRECTORY}, the .bcf file written by LaTeX is not changed. biber reads the copy and writes the .bbl and .blg files to the working directory, see {@link #getStep(Step)}.</p>
+ */
+public class BibliographySubset {
+
+  /**
+   * The directory containing the reduced databases relative to the working directory.
+   */
+  public static final String DIRECTORY = "mathan-bib";
+
+  private static final String HASH_FILE = ".citations";
+
+  private static final Pattern REFERENCE = Pattern.compile("(?i)[,\\s](?:crossref|xref|xdata|entryset|related)\\s*=\\s*[{\"]([^}\"]*)[}\"]");
+  private static final Pattern IDS = Pattern.compile("(?i)[,\\s]ids\\s*=\\s*[{\"]([^}\"]*)[}\"]");
+
+  private BibliographySubset() {
+  }
+
+  /**
+   * Checks if the databases can be reduced for the given step.
+   *
+   * @param step The step.
+   * @return <code>True</code> if the step is either bibtex or biber.
+   */
+  public static boolean isSupported(Step step) {
+    return BibliographyFingerprint.isSupported(step);
+  }
+
+  /**
+   * Extracts the cited entries of the databases referenced by the .aux file (bibtex) or the .bcf file (biber). For biber a copy of the .bcf file referencing the reduced databases is written.
+   *
+   * @param step The step (bibtex or biber).
+   * @param workingDirectory The working directory.
+   * @param baseName The name of the LaTeX source document without extension.
+   * @param dependencyDirectories The directories of the dependencies mounted by the search paths of TeX.
+   * @return The directory containing the reduced databases or <code>null</code> if the databases cannot be reduced, e.g. because all entries are cited with <code>\nocite{*}</code>.
+   * @throws IOException If a database could not be read or written.
+   */
+  public static File extract(Step step, File workingDirectory, String baseName, List<File> dependencyDirectories) throws IOException {
+    boolean biber = Step.STEP_BIBER.getId().equals(step.getId());
+    File bcf = new File(workingDirectory, baseName + "." + Constants.FORMAT_BCF);
+    BibliographyInputs inputs = biber ? BibliographyInputs.fromBcf(bcf) : BibliographyInputs.fromAux(workingDirectory, new File(workingDirectory, baseName + "." + Constants.FORMAT_AUX));
+    if (inputs == null || inputs.getCitations().isEmpty() || inputs.getCitations().contains(BibliographyInputs.ALL)) {
+      return null;
+    }
+    Map<String, File> databases = new LinkedHashMap<>();
+    for (String database : inputs.getDatabases()) {
+      // databases provided by the TeX distribution or already reduced are not reduced
+      if (!new File(database).isAbsolute() && !database.contains("..") && !database.startsWith(DIRECTORY + "/")) {
+        File file = BibliographyInputs.find(database, workingDirectory, dependencyDirectories);
+        if (file != null) {
+          databases.put(database, file);
+        }
+      }
+    }
+    if (databases.isEmpty()) {
+      return null;
+    }
+    File directory = new File(workingDirectory, DIRECTORY);
+    String hash = hash(inputs.getCitations(), databases);
+    File hashFile = new File(directory, HASH_FILE);
+    if (!hashFile.exists() || !hash.equals(new String(Files.readAllBytes(hashFile.toPath()), StandardCharsets.US_ASCII))) {
+      FileUtils.deleteDirectory(directory);
+      write(directory, databases, inputs.getCitations());
+      Files.write(hashFile.toPath(), hash.getBytes(StandardCharsets.US_ASCII));
+    }
+    if (biber) {
+      updateDataSources(bcf, new File(directory, bcf.getName()), databases.keySet());
+    }
+    return directory;
+  }
+
+  /**
+   * Returns the step executing biber with the copy of the .bcf file {@link #extract(Step, File, String, List) extracted} to the directory {@value #DIRECTORY}. The .bbl and the .blg file are still
+   * written to the working directory. bibtex finds the reduced databases with BIBINPUTS, so the step is not changed.
+   *
+   * @param step The step (bibtex or biber).
+   * @return The step to execute, for biber a copy of the step.
+   */
+  public static Step getStep(Step step) {
+    if (!Step.STEP_BIBER.getId().equals(step.getId()) || step.getArguments() == null || !step.getArguments().contains("%base")) {
+      return step;
+    }
+    Step copy = new Step(step);
+    copy.setArguments(step.getArguments().replace("%base", "--output-file %base." + Constants.FORMAT_BBL + " --logfile %base " + DIRECTORY + "/%base"));
+    return copy;
+  }
+
+  /**
+   * Computes the hash of the citations and the databases used to decide if existing reduced databases can be reused.
+   */
+  private static String hash(List<String> citations, Map<String, File> databases) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    for (String citation : new TreeSet<>(citations)) {
+      sb.append(citation).append('\n');
+    }
+    for (Map.Entry<String, File> database : databases.entrySet()) {
+      sb.append(database.getKey()).append('=').append(Utils.sha256(database.getValue())).append('\n');
+    }
+    return Utils.sha256(sb.toString());
+  }
+
+  private static void write(File directory, Map<String, File> databases, List<String> citations) throws IOException {
+    // bibtex ignores the case of keys, so keys are compared in lower case
+    Map<String, Set<String>> references = new HashMap<>();
+    Map<String, String> aliases = new HashMap<>();
+    for (File database : databases.values()) {
+      scan(database, (type, key, text) -> {
+        if (key != null) {
+          collect(REFERENCE, text, key, references);
+          Set<String> ids = new HashSet<>();
+          collect(IDS, text, ids);
+          ids.forEach(id -> aliases.put(id, key));
+        }
+      });
+    }
+    Set<String> required = new HashSet<>();
+    Deque<String> keys = new ArrayDeque<>();
+    citations.forEach(citation -> keys.add(citation.toLowerCase(Locale.ROOT)));
+    while (!keys.isEmpty()) {
+      String key = keys.poll();
+      key = aliases.getOrDefault(key, key);
+      if (required.add(key)) {
+        keys.addAll(references.getOrDefault(key, new HashSet<>()));
+      }
+    }
+    for (Map.Entry<String, File> database : databases.entrySet()) {
+      File reduced = new File(directory, database.getKey());
+      FileUtils.forceMkdirParent(reduced);
+      try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reduced), StandardCharsets.ISO_8859_1))) {
+        IOException[] error = new IOException[1];
+        scan(database.getValue(), (type, key, text) -> {
+          if (error[0] == null && (key == null || required.contains(key))) {
+            try {
+              out.write(text);
+              out.write("\n\n");
+            } catch (IOException e) {
+              error[0] = e;
+            }
+          }
+        });
+        if (error[0] != null) {
+          throw error[0];
+        }
+      }
+    }
+  }
+
+  private static void collect(Pattern pattern, String text, String key, Map<String, Set<String>> references) {
+    Set<String> keys = new HashSet<>();
+    collect(pattern, text, keys);
+    if (!keys.isEmpty()) {
+      references.computeIfAbsent(key, k -> new HashSet<>()).addAll(keys);
+    }
+  }
+
+  private static void collect(Pattern pattern, String text, Set<String> keys) {
+    Matcher matcher = pattern.matcher(text);
+    while (matcher.find()) {
+      for (String reference : matcher.group(1).split(",")) {
+        if (!reference.trim().isEmpty()) {
+          keys.add(reference.trim().toLowerCase(Locale.ROOT));
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the entries of the given database. Text outside of entries and <code>@comment</code> entries are ignored. The key passed to the consumer is in lower case and is <code>null</code> for
+   * <code>@string</code> and <code>@preamble</code> definitions. The file is read as ISO-8859-1, so each byte is mapped to a single character and written unchanged.
+   */
+  private static void scan(File database, EntryConsumer consumer) throws IOException {
+    try (Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(database), StandardCharsets.ISO_8859_1))) {
+      int c = in.read();
+      while (c != -1) {
+        if (c != '@') {
+          c = in.read();
+          continue;
+        }
+        StringBuilder entry = new StringBuilder("@");
+        StringBuilder type = new StringBuilder();
+        while ((c = in.read()) != -1 && (Character.isLetterOrDigit(c) || Character.isWhitespace(c))) {
+          entry.append((char) c);
+          if (!Character.isWhitespace(c)) {
+            type.append((char) c);
+          }
+        }
+        if (c != '{' && c != '(') {
+          // not an entry, continue with the current character
+          continue;
+        }
+        char open = (char) c;
+        entry.append(open);
+        int depth = 0;
+        boolean quoted = false;
+        while ((c = in.read()) != -1) {
+          entry.append((char) c);
+          if (c == '"' && depth == 0) {
+            quoted = !quoted;
+          } else if (c == '{') {
+            depth++;
+          } else if (c == '}') {
+            if (open == '{' && depth == 0) {
+              break;
+            }
+            depth--;
+          } else if (c == ')' && open == '(' && depth == 0 && !quoted) {
+            break;
+          }
+        }
+        c = in.read();
+        String entryType = type.toString().toLowerCase(Locale.ROOT);
+        if ("comment".equals(entryType)) {
+          continue;
+        }
+        String text = entry.toString();
+        String key = null;
+        if (!"string".equals(entryType) && !"preamble".equals(entryType)) {
+          int start = text.indexOf(open) + 1;
+          int end = text.indexOf(',', start);
+          key = (end < 0 ? text.substring(start) : text.substring(start, end)).trim().toLowerCase(Locale.ROOT);
+        }
+        consumer.accept(entryType, key, text);
+      }
+    }
+  }
+
+  /**
+   * Writes a copy of the .bcf file with the data sources changed to the reduced databases.
+   */
+  private static void updateDataSources(File bcf, File copy, Set<String> databases) throws IOException {
+    Document document = BibliographyInputs.parse(bcf);
+    NodeList dataSources = document.getElementsByTagNameNS("*", "datasource");
+    for (int i = 0; i < dataSources.getLength(); i++) {
+      Element dataSource = (Element) dataSources.item(i);
+      String database = dataSource.getTextContent().trim();
+      if (BibliographyInputs.isBibtexFile(dataSource) && databases.contains(database)) {
+        dataSource.setTextContent(DIRECTORY + "/" + database);
+      }
+    }
+    try {
+      TransformerFactory.newInstance().newTransformer().transform(new DOMSource(document), new StreamResult(copy));
+    } catch (TransformerException e) {
+      throw new IOException(String.format("Could not write %s", copy.getAbsolutePath()), e);
+    }
+  }
+
+  private interface EntryConsumer {
+
+    void accept(String type, String key, String text);
+  }
+}
@@ -17,6 +17,7 @@
 package io.mathan.latex.core;
 
 import java.io.File;
+import java.util.List;
 import org.zeroturnaround.exec.stream.LogOutputStream;
 
 /**
@@ -59,6 +60,14 @@ public interface Build {
    */
   void setArtifact(File artifact);
 
+  /**
+   * Attaches the given artifact to the build in addition to the {@link #setArtifact(File) artifact} of the build.
+   *
+   * @param artifact The artifact to attach.
+   * @param type The type of the artifact, i.e. its output format.
+   */
+  void attachArtifact(File artifact, String type);
+
   /**
    * Resolves required dependencies for the project.
    *
@@ -66,6 +75,14 @@ public interface Build {
    */
   void resolveDependencies(File workingDirectory) throws LatexExecutionException;
 
+  /**
+   * Resolves required dependencies for the project and extracts them into the given cache instead of the working directory.
+   *
+   * @param cache The cache for the extracted dependencies.
+   * @return The directories of the cache containing the extracted dependencies.
+   */
+  List<File> resolveDependencies(DependencyCache cache) throws LatexExecutionException;
+
   /**
    * Returns a LogOutputStream for debug output to use for executions by the build system.
    */
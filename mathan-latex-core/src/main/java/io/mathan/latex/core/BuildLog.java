@@ -33,4 +33,6 @@ public interface BuildLog {
 
   void warn(String message, Exception ex);
 
+  boolean isDebugEnabled();
+
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+/**
+ * The {@link MathanLatexConfiguration#getProfile() profile} of a build. A profile changes the arguments of the LaTeX steps and decides if a LaTeX pass can be skipped once the auxiliary files
+ * converged.
+ *
+ * <ul>
+ * <li>dev: for previews of authors. Source specials are not written, graphics are included in draft mode (unless {@link ImageProxies image proxies} are used), pdflatex does not compress the PDF and a
+ * LaTeX pass is skipped if the auxiliary files did not change since the previous pass.</li>
+ * <li>ci: for verifying builds. Neither SyncTeX data nor source specials are written, all passes are executed.</li>
+ * <li>release: the arguments of the steps are not changed, all passes are executed.</li>
+ * </ul>
+ *
+ * <p>Only the LaTeX steps with their default arguments are changed. A step whose arguments are overridden with the configuration <code>steps</code> is executed as configured. Independent of the
+ * profile, the file recorder of TeX is enabled for these steps if the document is {@link MathanLatexConfiguration#isScanDocument() scanned}, so the {@link DocumentGraph graph} of the next build
+ * contains the files read by TeX.</p>
+ */
+enum BuildProfile {
+
+  DEV("dev", false, true, true, true),
+  CI("ci", true, true, false, false),
+  RELEASE("release", false, false, false, false);
+
+  /**
+   * The default arguments of the LaTeX steps which may be changed by a profile.
+   */
+  private static final Map<String, String> LATEX_ARGUMENTS = new HashMap<>();
+
+  private static final String SYNCTEX = "-synctex=1";
+  private static final String RECORDER = "-recorder";
+  private static final String SOURCE_SPECIALS = "--src-specials";
+  private static final String DRAFT_GRAPHICS = "\\PassOptionsToPackage{draft}{graphicx}";
+  private static final String NO_COMPRESSION = "\\pdfcompresslevel=0\\pdfobjcompresslevel=0";
+
+  static {
+    for (Step step : Arrays.asList(Step.STEP_LATEX, Step.STEP_PDFLATEX, Step.STEP_XELATEX, Step.STEP_LULATEX)) {
+      LATEX_ARGUMENTS.put(step.getId(), step.getArguments());
+    }
+  }
+
+  private final String id;
+  private final boolean noSynctex;
+  private final boolean noSourceSpecials;
+  private final boolean draft;
+  private final boolean skipConvergedPasses;
+
+  BuildProfile(String id, boolean noSynctex, boolean noSourceSpecials, boolean draft, boolean skipConvergedPasses) {
+    this.id = id;
+    this.noSynctex = noSynctex;
+    this.noSourceSpecials = noSourceSpecials;
+    this.draft = draft;
+    this.skipConvergedPasses = skipConvergedPasses;
+  }
+
+  /**
+   * Returns the profile with the given id.
+   *
+   * @param id The id of the profile, e.g. dev. If not set, the release profile is used.
+   * @return The profile.
+   * @throws LatexExecutionException If the profile is unknown.
+   */
+  static BuildProfile fromId(String id) throws LatexExecutionException {
+    if (id == null) {
+      return RELEASE;
+    }
+    for (BuildProfile profile : values()) {
+      if (profile.id.equals(id)) {
+        return profile;
+      }
+    }
+    throw new LatexExecutionException(String.format("Invalid profile '%s' specified. Supported values are: dev, ci, release.", id));
+  }
+
+  /**
+   * Checks if this profile creates draft documents for previews.
+   *
+   * @return <code>True</code> for draft documents.
+   */
+  boolean isDraft() {
+    return draft;
+  }
+
+  /**
+   * Checks if a LaTeX pass is skipped if the auxiliary files did not change since the previous pass.
+   *
+   * @return <code>True</code> if converged passes are skipped.
+   */
+  boolean isSkipConvergedPasses() {
+    return skipConvergedPasses;
+  }
+
+  /**
+   * Changes the arguments of the given step for this profile. The step is only changed if it is a LaTeX step with its default arguments.
+   *
+   * @param step The copy of the step used by the build.
+   * @param preamble Additional LaTeX code executed before the document is read (e.g. <code>&#92;includeonly</code>) or an empty string.
+   * @param imageProxies <code>True</code> if the images are replaced by {@link ImageProxies proxies}. The graphics are not included in draft mode then.
+   * @param recorder <code>True</code> if the files read by TeX are written to the .fls file.
+   */
+  void configure(Step step, String preamble, boolean imageProxies, boolean recorder) {
+    String arguments = LATEX_ARGUMENTS.get(step.getId());
+    if (arguments == null || !arguments.equals(step.getArguments())) {
+      return;
+    }
+    if (noSynctex) {
+      arguments = arguments.replace(SYNCTEX + " ", "");
+    }
+    if (noSourceSpecials) {
+      arguments = arguments.replace(SOURCE_SPECIALS + " ", "");
+    }
+    if (recorder) {
+      arguments = RECORDER + " " + arguments;
+    }
+    if (draft) {
+      preamble = (imageProxies ? "" : DRAFT_GRAPHICS) + (Step.STEP_PDFLATEX.getId().equals(step.getId()) ? NO_COMPRESSION : "") + preamble;
+    }
+    if (!preamble.isEmpty()) {
+      // the document is read by \input after the preamble, the job name is still the base name of the document
+      arguments = arguments.replaceAll("%(input|base)$", Matcher.quoteReplacement("\"" + preamble + "\\input{%base}\""));
+    }
+    step.setArguments(arguments);
+  }
+}
@@ -40,11 +40,53 @@ public class Constants {
   public static final String FORMAT_IST = "ist";
   public static final String FORMAT_GLO = "glo";
   public static final String FORMAT_EPS = "eps";
+  public static final String FORMAT_SVG = "svg";
   public static final String FORMAT_AUX = "aux";
   public static final String FORMAT_BBL = "bbl";
   public static final String FORMAT_BCF = "bcf";
   public static final String FORMAT_NLO = "nlo";
   public static final String FORMAT_NLS = "nls";
+  public static final String FORMAT_FLS = "fls";
+
+  /**
+   * Environment variable defining the search path for bibliography databases.
+   */
+  public static final String BIBINPUTS = "BIBINPUTS";
+
+  /**
+   * Environment variable defining the search path for LaTeX source files, classes and packages.
+   */
+  public static final String TEXINPUTS = "TEXINPUTS";
+
+  /**
+   * Environment variable defining the search path for bibliography styles.
+   */
+  public static final String BSTINPUTS = "BSTINPUTS";
+
+  /**
+   * Environment variable defining the search path for index styles.
+   */
+  public static final String INDEXSTYLE = "INDEXSTYLE";
+
+  /**
+   * Environment variable defining the directories containing a filename database (ls-R).
+   */
+  public static final String TEXMFDBS = "TEXMFDBS";
+
+  /**
+   * Environment variable defining the directory for files written by the TeX distribution for the user, e.g. the font database of luaotfload.
+   */
+  public static final String TEXMFVAR = "TEXMFVAR";
+
+  /**
+   * Environment variable defining the directories searched for a writable cache by luaotfload and the LuaTeX cache.
+   */
+  public static final String TEXMFCACHE = "TEXMFCACHE";
+
+  /**
+   * Environment variable defining the directory the PAR archive of biber is unpacked to.
+   */
+  public static final String PAR_GLOBAL_TEMP = "PAR_GLOBAL_TEMP";
 
   public static final String[] RESOURCES_DEFAULT_EXTENSTIONS = {
       Constants.FORMAT_TEX, Constants.FORMAT_CLS, Constants.FORMAT_CLO, Constants.FORMAT_STY,
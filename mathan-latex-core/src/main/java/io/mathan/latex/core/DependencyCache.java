@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Cache for the extracted contents of dependencies. If {@link MathanLatexConfiguration#isMountDependencies() mountDependencies} is enabled, the dependencies are not copied into the working
+ * directory for each build. Each dependency is extracted once into a directory of this cache instead, which is passed to TeX using TEXINPUTS, BIBINPUTS, BSTINPUTS and INDEXSTYLE.
+ *
+ * <p>Each entry of the cache is a directory named after the key of the dependency. The key is the hash of the location, size and modification time of the archive and the filter for the included
+ * resources, so a changed snapshot dependency is extracted again. An entry is extracted to a temporary directory first and moved to its final location afterwards, so a cache directory can be
+ * shared by concurrent builds. Each entry contains a filename database (ls-R), so kpathsea does not need to search the directories of the entry.</p>
+ */
+public class DependencyCache {
+
+  /**
+   * The default location of the cache relative to the basedir of the project.
+   */
+  public static final String DEFAULT_DIRECTORY = "target/mathan-dependencies";
+
+  /**
+   * The name of the filename database of kpathsea.
+   */
+  private static final String DATABASE = "ls-R";
+
+  private static final String DATABASE_HEADER = "% ls-R -- filename database for kpathsea; do not change this line.";
+
+  private final File directory;
+
+  /**
+   * Creates a cache stored in the given directory.
+   *
+   * @param directory The directory of the cache.
+   */
+  public DependencyCache(File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Returns the directory containing the extracted content of the given archive. If the cache does not contain the archive, it is extracted with the given extractor first.
+   *
+   * @param archive The archive of the dependency.
+   * @param filter The filter for the resources included by the extractor, e.g. the include and exclude patterns.
+   * @param extractor The extractor writing the included resources of the archive to a directory.
+   * @return The directory containing the extracted content.
+   * @throws LatexExecutionException If the archive could not be extracted.
+   */
+  public File get(File archive, String filter, Extractor extractor) throws LatexExecutionException {
+    File temp = null;
+    try {
+      File entry = new File(directory, key(archive, filter));
+      if (entry.isDirectory()) {
+        return entry;
+      }
+      temp = new File(directory, entry.getName() + "." + UUID.randomUUID() + ".tmp");
+      FileUtils.forceMkdir(temp);
+      extractor.extract(archive, temp);
+      writeDatabase(temp);
+      try {
+        move(temp, entry);
+      } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+        // another build extracted the same dependency concurrently
+      }
+      return entry;
+    } catch (IOException e) {
+      throw new LatexExecutionException(String.format("Could not extract artifact %s", archive.getName()), e);
+    } finally {
+      if (temp != null) {
+        FileUtils.deleteQuietly(temp);
+      }
+    }
+  }
+
+  private static String key(File archive, String filter) throws IOException {
+    return Utils.sha256(archive.getCanonicalPath() + '\n' + archive.length() + '\n' + archive.lastModified() + '\n' + filter);
+  }
+
+  /**
+   * Writes the filename database for the given directory in the format of mktexlsr.
+   */
+  private static void writeDatabase(File directory) throws IOException {
+    List<String> lines = new ArrayList<>();
+    lines.add(DATABASE_HEADER);
+    appendDirectory(directory, ".", lines);
+    Files.write(new File(directory, DATABASE).toPath(), lines, StandardCharsets.UTF_8);
+  }
+
+  private static void appendDirectory(File directory, String path, List<String> lines) throws IOException {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      throw new IOException("Could not list directory " + directory.getAbsolutePath());
+    }
+    Arrays.sort(files, Comparator.comparing(File::getName));
+    lines.add(path + ":");
+    for (File file : files) {
+      lines.add(file.getName());
+    }
+    lines.add("");
+    for (File file : files) {
+      if (file.isDirectory()) {
+        appendDirectory(file, path + "/" + file.getName(), lines);
+      }
+    }
+  }
+
+  private static void move(File source, File target) throws IOException {
+    try {
+      Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source.toPath(), target.toPath());
+    }
+  }
+
+  /**
+   * Extracts the resources of an archive included by the build.
+   */
+  @FunctionalInterface
+  public interface Extractor {
+
+    /**
+     * Extracts the included resources of the given archive to the given directory.
+     *
+     * @param archive The archive.
+     * @param directory The directory to extract the resources to.
+     * @throws LatexExecutionException If the archive could not be extracted.
+     */
+    void extract(File archive, File directory) throws LatexExecutionException;
+  }
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The graph of the files within the source directory referenced by a LaTeX source document. The main document is scanned recursively for <code>\input</code>, <code>\include</code>,
+ * <code>\includegraphics</code>, <code>\bibliography</code>, <code>\addbibresource</code>, <code>&#92;usepackage</code> and <code>\documentclass</code> of local packages and classes,
+ * <code>\lstinputlisting</code>, <code>\inputminted</code>, <code>&#92;usetikzlibrary</code> of local libraries and similar commands. Files imported with <code>\import</code>,
+ * <code>\subimport</code>, <code>\inputfrom</code>, <code>\includefrom</code> and their variants resolve their references relative to the directory they are imported from, like the import package
+ * does. Any other argument naming an existing file of the source directory (e.g. a data file of pgfplots) is a reference as well. If the file recorder of TeX (<code>-recorder</code>) wrote a .fls
+ * file in a previous build, the files read by TeX are added too.
+ *
+ * <p>A reference which cannot be resolved statically (e.g. <code>\input{\chapterdir/intro}</code>) makes the graph {@link #isComplete() incomplete}. In this case all files of the source
+ * directory have to be used. As commands of packages unknown to the scanner may read files as well, an unknown command whose argument names a .tex file without its extension (e.g.
+ * <code>\loadchapter{intro}</code> for intro.tex) makes the graph incomplete too, unless the file is already part of the graph.</p>
+ */
+public class DocumentGraph {
+
+  private static final Pattern COMMAND = Pattern.compile("\\\\([a-zA-Z]+)\\*?\\s*(?:\\[[^\\]]*\\]\\s*)*\\{");
+  private static final Pattern INPUT_WITHOUT_BRACES = Pattern.compile("\\\\input\\s+([^\\s{}\\\\%]+)");
+  private static final Pattern ARGUMENT = Pattern.compile("\\{([^{}\\\\#%]+)\\}");
+  private static final Pattern GRAPHICS_PATH = Pattern.compile("\\{([^{}]*)\\}");
+
+  private static final List<String> INPUT_COMMANDS = Arrays.asList("input", "include", "subfile", "includestandalone", "InputIfFileExists");
+  private static final List<String> IMPORT_COMMANDS = Arrays.asList("import", "inputfrom", "includefrom");
+  private static final List<String> SUBIMPORT_COMMANDS = Arrays.asList("subimport", "subinputfrom", "subincludefrom");
+  private static final List<String> GRAPHICS_COMMANDS = Arrays.asList("includegraphics", "includepdf", "includesvg");
+  private static final List<String> FILE_COMMANDS = Arrays.asList("addbibresource", "addglobalbib", "lstinputlisting", "verbatiminput");
+  private static final List<String> SCANNED_EXTENSIONS = Arrays.asList(Constants.FORMAT_TEX, Constants.FORMAT_STY, Constants.FORMAT_CLS, Constants.FORMAT_CLO, "ltx");
+  private static final List<String> GRAPHICS_EXTENSIONS = Arrays.asList("", ".pdf", ".png", ".jpg", ".jpeg", ".eps", ".ps", ".mps", ".svg", ".PDF", ".PNG", ".JPG", ".JPEG", ".EPS");
+
+  private final File sourceDirectory;
+  private final String mainFile;
+  private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+  private final List<String> dynamicReferences = new ArrayList<>();
+  private final List<String> graphicsPath = new ArrayList<>();
+  private final Map<String, List<String>> graphics = new LinkedHashMap<>();
+  /**
+   * The directories of the files imported with the import package. References of these files are resolved relative to this directory first.
+   */
+  private final Map<String, String> importDirectories = new LinkedHashMap<>();
+  /**
+   * Arguments of unknown commands naming a .tex file without extension, with the name of the .tex file.
+   */
+  private final Map<String, String> unknownReferences = new LinkedHashMap<>();
+
+  private DocumentGraph(File sourceDirectory, String mainFile) {
+    this.sourceDirectory = sourceDirectory;
+    this.mainFile = mainFile;
+  }
+
+  /**
+   * Scans the LaTeX source document in the given source directory.
+   *
+   * @param sourceDirectory The source directory.
+   * @param texFile The name of the LaTeX source document or <code>null</code> if the source directory contains a single .tex file.
+   * @param workingDirectory The working directory of a previous build which may contain the .fls file written by the file recorder of TeX or <code>null</code>.
+   * @param additionalFiles Files of the source directory used by the build in addition to the document, e.g. the style file for makeindex. Files not existing are ignored.
+   * @return The graph of the document.
+   * @throws LatexExecutionException If the LaTeX source document does not exist.
+   * @throws IOException If a file could not be read.
+   */
+  public static DocumentGraph scan(File sourceDirectory, String texFile, File workingDirectory, String... additionalFiles) throws LatexExecutionException, IOException {
+    File main = texFile == null || texFile.isEmpty() ? Utils.getFile(sourceDirectory, Constants.FORMAT_TEX) : new File(sourceDirectory, texFile);
+    if (main == null || !main.isFile()) {
+      throw new LatexExecutionException(String.format("No LaTeX source document found in %s", sourceDirectory.getAbsolutePath()));
+    }
+    DocumentGraph graph = new DocumentGraph(sourceDirectory, sourceDirectory.toPath().relativize(main.toPath()).normalize().toString().replace('\\', '/'));
+    Deque<String> queue = new ArrayDeque<>();
+    queue.add(graph.mainFile);
+    graph.dependencies.put(graph.mainFile, new TreeSet<>());
+    while (!queue.isEmpty()) {
+      graph.scanFile(queue.poll(), queue);
+    }
+    graph.resolveGraphics(queue);
+    if (workingDirectory != null) {
+      String baseName = main.getName().substring(0, main.getName().lastIndexOf('.'));
+      graph.readRecorder(new File(workingDirectory, baseName + ".fls"), queue);
+    }
+    for (String additionalFile : additionalFiles) {
+      if (additionalFile != null && !additionalFile.isEmpty()) {
+        graph.addIfExists(graph.mainFile, additionalFile, queue);
+      }
+    }
+    while (!queue.isEmpty()) {
+      graph.scanFile(queue.poll(), queue);
+    }
+    graph.resolveGraphics(queue);
+    graph.unknownReferences.forEach((reference, name) -> {
+      if (!graph.dependencies.containsKey(name)) {
+        graph.dynamicReferences.add(reference);
+      }
+    });
+    return graph;
+  }
+
+  /**
+   * Checks if all references of the document could be resolved statically.
+   *
+   * @return <code>True</code> if the graph contains all files referenced by the document.
+   */
+  public boolean isComplete() {
+    return dynamicReferences.isEmpty();
+  }
+
+  /**
+   * Returns the references which could not be resolved statically.
+   *
+   * @return The references, e.g. <code>\input{\chapterdir/intro}</code>.
+   */
+  public List<String> getDynamicReferences() {
+    return Collections.unmodifiableList(dynamicReferences);
+  }
+
+  /**
+   * Returns the name of the LaTeX source document.
+   *
+   * @return The name of the main file.
+   */
+  public String getMainFile() {
+    return mainFile;
+  }
+
+  /**
+   * Returns all files of the graph including the LaTeX source document.
+   *
+   * @return The paths of the files relative to the source directory.
+   */
+  public Set<String> getFiles() {
+    return Collections.unmodifiableSet(new TreeSet<>(dependencies.keySet()));
+  }
+
+  /**
+   * Returns the files directly referenced by the given file.
+   *
+   * @param file The path of the file relative to the source directory.
+   * @return The paths of the referenced files relative to the source directory.
+   */
+  public Set<String> getDependencies(String file) {
+    Set<String> files = dependencies.get(file);
+    return files == null ? Collections.emptySet() : Collections.unmodifiableSet(files);
+  }
+
+  private void scanFile(String file, Deque<String> queue) throws IOException {
+    String extension = file.substring(file.lastIndexOf('.') + 1);
+    if (!SCANNED_EXTENSIONS.contains(extension)) {
+      return;
+    }
+    String content = stripComments(new String(Files.readAllBytes(new File(sourceDirectory, file).toPath()), StandardCharsets.UTF_8));
+    Matcher command = COMMAND.matcher(content);
+    while (command.find()) {
+      String name = command.group(1);
+      String argument = readArgument(content, command.end());
+      if (argument == null) {
+        continue;
+      }
+      if (IMPORT_COMMANDS.contains(name) || SUBIMPORT_COMMANDS.contains(name) || "inputminted".equals(name)) {
+        String second = readNextArgument(content, command.end() + argument.length() + 1);
+        if (second != null) {
+          resolve(file, name, argument, second, queue);
+        }
+      } else {
+        resolve(file, name, argument, queue);
+      }
+    }
+    Matcher input = INPUT_WITHOUT_BRACES.matcher(content);
+    while (input.find()) {
+      resolveInput(file, input.group(1), queue);
+    }
+    Matcher argument = ARGUMENT.matcher(content);
+    while (argument.find()) {
+      addIfExists(file, argument.group(1).trim(), queue);
+    }
+  }
+
+  private void resolve(String file, String command, String argument, Deque<String> queue) {
+    if ("graphicspath".equals(command)) {
+      Matcher directory = GRAPHICS_PATH.matcher(argument);
+      while (directory.find()) {
+        graphicsPath.add(directory.group(1).trim());
+      }
+      return;
+    }
+    boolean known = INPUT_COMMANDS.contains(command) || GRAPHICS_COMMANDS.contains(command) || FILE_COMMANDS.contains(command) || "bibliography".equals(command)
+        || "bibliographystyle".equals(command) || "usepackage".equals(command) || "RequirePackage".equals(command) || "documentclass".equals(command) || "LoadClass".equals(command)
+        || "usetikzlibrary".equals(command);
+    if (!known) {
+      String name = argument.trim();
+      if (!name.isEmpty() && name.indexOf('.') < 0 && name.indexOf('\\') < 0 && name.indexOf('#') < 0) {
+        for (String candidate : Arrays.asList(getImportDirectory(file) + name + "." + Constants.FORMAT_TEX, name + "." + Constants.FORMAT_TEX)) {
+          String normalized = normalize(candidate);
+          if (normalized != null && new File(sourceDirectory, normalized).isFile()) {
+            unknownReferences.putIfAbsent(String.format("\\%s{%s} in %s", command, argument, file), normalized);
+            break;
+          }
+        }
+      }
+      return;
+    }
+    if (argument.indexOf('\\') >= 0 || argument.indexOf('#') >= 0) {
+      dynamicReferences.add(String.format("\\%s{%s} in %s", command, argument, file));
+      return;
+    }
+    String name = argument.trim();
+    if (INPUT_COMMANDS.contains(command)) {
+      resolveInput(file, name, queue);
+    } else if (GRAPHICS_COMMANDS.contains(command)) {
+      graphics.computeIfAbsent(file, key -> new ArrayList<>()).add(name);
+    } else if (FILE_COMMANDS.contains(command)) {
+      addIfExists(file, name, queue);
+    } else if ("bibliography".equals(command)) {
+      split(name).forEach(database -> addIfExists(file, withExtension(database, Constants.FORMAT_BIB), queue));
+    } else if ("bibliographystyle".equals(command)) {
+      addIfExists(file, withExtension(name, Constants.FORMAT_BST), queue);
+    } else if ("usepackage".equals(command) || "RequirePackage".equals(command)) {
+      split(name).forEach(pkg -> addIfExists(file, pkg + "." + Constants.FORMAT_STY, queue));
+    } else if ("usetikzlibrary".equals(command)) {
+      split(name).forEach(library -> addIfExists(file, "tikzlibrary" + library + ".code." + Constants.FORMAT_TEX, queue));
+    } else {
+      addIfExists(file, name + "." + Constants.FORMAT_CLS, queue);
+    }
+  }
+
+  /**
+   * Resolves a command with two arguments: the directory and the file of the import package or the language and the file of <code>\inputminted</code>.
+   */
+  private void resolve(String file, String command, String first, String second, Deque<String> queue) {
+    if (first.indexOf('\\') >= 0 || first.indexOf('#') >= 0 || second.indexOf('\\') >= 0 || second.indexOf('#') >= 0) {
+      dynamicReferences.add(String.format("\\%s{%s}{%s} in %s", command, first, second, file));
+      return;
+    }
+    if ("inputminted".equals(command)) {
+      addIfExists(file, getImportDirectory(file) + second.trim(), queue);
+      addIfExists(file, second.trim(), queue);
+      return;
+    }
+    // \import takes the directory relative to the main document, \subimport relative to the directory of the importing file
+    String directory = first.trim();
+    if (!directory.isEmpty() && !directory.endsWith("/")) {
+      directory += "/";
+    }
+    if (SUBIMPORT_COMMANDS.contains(command)) {
+      directory = getImportDirectory(file) + directory;
+    }
+    String name = second.trim();
+    for (String candidate : Arrays.asList(directory + name + "." + Constants.FORMAT_TEX, directory + name)) {
+      String added = addIfExists(file, candidate, queue);
+      if (added != null) {
+        importDirectories.putIfAbsent(added, normalize(directory).isEmpty() ? "" : normalize(directory) + "/");
+      }
+    }
+  }
+
+  private void resolveInput(String file, String name, Deque<String> queue) {
+    String directory = getImportDirectory(file);
+    if (!directory.isEmpty()) {
+      addIfExists(file, directory + name + "." + Constants.FORMAT_TEX, queue);
+      addIfExists(file, directory + name, queue);
+    }
+    addIfExists(file, name + "." + Constants.FORMAT_TEX, queue);
+    addIfExists(file, name, queue);
+  }
+
+  /**
+   * Returns the directory the given file was imported from with a trailing slash or an empty string if the file was not imported.
+   */
+  private String getImportDirectory(String file) {
+    return importDirectories.getOrDefault(file, "");
+  }
+
+  /**
+   * Resolves the graphics after all files are scanned, so the graphics path is known. Without extension all files with a known extension are added, as the extension used depends on the LaTeX
+   * compiler.
+   */
+  private void resolveGraphics(Deque<String> queue) {
+    graphics.forEach((file, names) -> {
+      List<String> directories = new ArrayList<>();
+      if (!getImportDirectory(file).isEmpty()) {
+        directories.add(getImportDirectory(file));
+      }
+      directories.add("");
+      directories.addAll(graphicsPath);
+      for (String name : names) {
+        for (String directory : directories) {
+          for (String extension : GRAPHICS_EXTENSIONS) {
+            addIfExists(file, directory + name + extension, queue);
+          }
+        }
+      }
+    });
+    graphics.clear();
+  }
+
+  /**
+   * Adds the files read by TeX in a previous build to the graph. Each line of the .fls file starting with INPUT contains a file read by TeX. Files outside the working directory (e.g. of the TeX
+   * distribution) and files created during the build are not part of the source directory and are ignored.
+   */
+  private void readRecorder(File recorder, Deque<String> queue) throws IOException {
+    if (!recorder.isFile()) {
+      return;
+    }
+    Path workingDirectory = recorder.getParentFile().getAbsoluteFile().toPath();
+    for (String line : Files.readAllLines(recorder.toPath(), StandardCharsets.UTF_8)) {
+      if (line.startsWith("PWD ")) {
+        workingDirectory = Paths.get(line.substring(4));
+      } else if (line.startsWith("INPUT ")) {
+        Path path = Paths.get(line.substring(6));
+        if (path.isAbsolute()) {
+          if (!path.startsWith(workingDirectory)) {
+            continue;
+          }
+          path = workingDirectory.relativize(path);
+        }
+        addIfExists(mainFile, path.toString(), queue);
+      }
+    }
+  }
+
+  /**
+   * Adds the given file as dependency of the given file if it exists within the source directory.
+   *
+   * @return The path of the file relative to the source directory or <code>null</code> if the file does not exist within the source directory.
+   */
+  private String addIfExists(String file, String reference, Deque<String> queue) {
+    String name = normalize(reference);
+    if (name == null || name.isEmpty() || !new File(sourceDirectory, name).isFile()) {
+      return null;
+    }
+    dependencies.get(file).add(name);
+    if (!dependencies.containsKey(name)) {
+      dependencies.put(name, new TreeSet<>());
+      queue.add(name);
+    }
+    return name;
+  }
+
+  /**
+   * Normalizes the given path relative to the source directory.
+   *
+   * @return The normalized path or <code>null</code> if the path is not within the source directory.
+   */
+  private static String normalize(String reference) {
+    Path path;
+    try {
+      path = Paths.get(reference).normalize();
+    } catch (InvalidPathException e) {
+      return null;
+    }
+    if (path.isAbsolute() || path.startsWith("..")) {
+      return null;
+    }
+    return path.toString().replace('\\', '/');
+  }
+
+  /**
+   * Reads the argument in braces starting at the given position. Nested braces are part of the argument.
+   *
+   * @return The argument or <code>null</code> if the braces are not balanced.
+   */
+  private static String readArgument(String content, int start) {
+    int depth = 1;
+    for (int i = start; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if (c == '{') {
+        depth++;
+      } else if (c == '}' && --depth == 0) {
+        return content.substring(start, i);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Reads the next argument in braces after the given position. Only whitespace may precede the argument.
+   *
+   * @return The argument or <code>null</code> if there is no argument.
+   */
+  private static String readNextArgument(String content, int start) {
+    int i = start;
+    while (i < content.length() && Character.isWhitespace(content.charAt(i))) {
+      i++;
+    }
+    return i < content.length() && content.charAt(i) == '{' ? readArgument(content, i + 1) : null;
+  }
+
+  /**
+   * Removes comments (from an unescaped % to the end of the line) from the given content.
+   */
+  private static String stripComments(String content) {
+    StringBuilder sb = new StringBuilder(content.length());
+    boolean comment = false;
+    boolean escaped = false;
+    for (int i = 0; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if (c == '\n') {
+        comment = false;
+      } else if (comment) {
+        continue;
+      } else if (c == '%' && !escaped) {
+        comment = true;
+        continue;
+      }
+      escaped = c == '\\' && !escaped;
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+  private static List<String> split(String argument) {
+    List<String> names = new ArrayList<>();
+    for (String name : argument.split(",")) {
+      if (!name.trim().isEmpty()) {
+        names.add(name.trim());
+      }
+    }
+    return names;
+  }
+
+  private static String withExtension(String name, String extension) {
+    return name.endsWith("." + extension) ? name : name + "." + extension;
+  }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Externalizes the figures of a document using the library external of TikZ with <code>&#92;tikzexternalize[mode=list and make]</code>. The first LaTeX pass writes the names of all figures to the
+ * figure list (e.g. sample.figlist). Each figure is compiled afterwards by a separate process of the LaTeX step with the name of the figure as job name. The figures are compiled concurrently by at
+ * most one process per processor.
+ *
+ * <p>The compiled figures are stored in a cache. The key of a figure is the hash of its name, the checksum of its code written by TikZ (e.g. figure0.md5, requires the default <code>up to date
+ * check=md5</code>), the preamble of the document, the executable of the LaTeX step, the version of the TeX distribution and the content of the files read when compiling the figure. These files are
+ * recorded with <code>-recorder</code> and listed in a manifest of the figure. Only files of the working directory and the dependencies are used, the main document is covered by the preamble and the
+ * checksum and the files of the TeX distribution by its version. So a figure is only compiled again if its code, the preamble or a file read by the figure (e.g. a data file of pgfplots or a package
+ * loaded by the preamble) changed. Figures without a checksum or a recorder file are always compiled. Like the {@link ActionCache action cache}, an entry is written to a temporary file first and
+ * moved to its final location afterwards, so a cache directory can be shared by concurrent builds.</p>
+ */
+class FigureExternalizer {
+
+  /**
+   * The default location of the cache relative to the basedir of the project.
+   */
+  static final String DEFAULT_DIRECTORY = "target/mathan-figures";
+
+  private static final String FIGURE_LIST = "figlist";
+  private static final String CHECKSUM = "md5";
+  private static final String RECORDER = "fls";
+  private static final String MANIFEST = "inputs";
+  private static final String RECORDER_INPUT = "INPUT ";
+  private static final String RECORDER_OUTPUT = "OUTPUT ";
+  private static final String BEGIN_DOCUMENT = "\\begin{document}";
+
+  private FigureExternalizer() {
+  }
+
+  /**
+   * Checks if the figures of a document built by the given step can be externalized. Only LaTeX steps creating PDF documents are supported.
+   *
+   * @param step The LaTeX step.
+   * @return <code>True</code> if the figures can be externalized.
+   */
+  static boolean isSupported(Step step) {
+    return Constants.FORMAT_TEX.equals(step.getInputFormat()) && Constants.FORMAT_PDF.equals(step.getOutputFormat());
+  }
+
+  /**
+   * Compiles the figures listed by the previous pass of the given LaTeX step. Figures contained in the cache are restored instead.
+   *
+   * @param step The LaTeX step.
+   * @param workingDirectory The working directory.
+   * @param texFile The LaTeX source document.
+   * @param environment Additional environment variables for the processes.
+   * @param cacheDirectory The directory of the cache.
+   * @param dependencyDirectories The directories of the dependencies mounted by the search paths of TeX.
+   * @param toolchainVersion The version of the TeX distribution.
+   * @param configuration The configuration of the build.
+   * @param build The build.
+   * @return The number of figures written to the working directory, 0 if all figures were up to date or the document does not externalize figures.
+   * @throws LatexExecutionException If a figure could not be compiled and {@link MathanLatexConfiguration#isHaltOnError() haltOnError} is enabled.
+   */
+  static int execute(Step step, File workingDirectory, File texFile, Map<String, String> environment, File cacheDirectory, List<File> dependencyDirectories,
+      String toolchainVersion, MathanLatexConfiguration configuration, Build build) throws LatexExecutionException {
+    String baseName = texFile.getName().substring(0, texFile.getName().lastIndexOf('.'));
+    File figureList = new File(workingDirectory, baseName + "." + FIGURE_LIST);
+    if (!figureList.isFile()) {
+      return 0;
+    }
+    File exec = Utils.getExecutable(configuration.getTexBin(), step.getOperatingSystemName());
+    if (exec == null) {
+      throw new LatexExecutionException(String.format("Executable of step %s not found", step.getId()));
+    }
+    List<String> figures;
+    String preamble;
+    try {
+      figures = Files.readAllLines(figureList.toPath(), StandardCharsets.ISO_8859_1).stream().map(String::trim).filter(line -> !line.isEmpty()).distinct().collect(Collectors.toList());
+      preamble = Utils.sha256(readPreamble(texFile));
+    } catch (IOException e) {
+      throw new LatexExecutionException(String.format("Could not read figure list %s", figureList.getName()), e);
+    }
+    if (figures.isEmpty()) {
+      return 0;
+    }
+    AtomicInteger compiled = new AtomicInteger();
+    AtomicInteger restored = new AtomicInteger();
+    AtomicInteger written = new AtomicInteger();
+    ExecutorService executorService = Executors.newFixedThreadPool(Math.min(figures.size(), Runtime.getRuntime().availableProcessors()));
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (String figure : figures) {
+        futures.add(executorService.submit(() -> {
+          String key = key(figure, workingDirectory, preamble, step, toolchainVersion);
+          File output = new File(workingDirectory, figure + "." + Constants.FORMAT_PDF);
+          File entry = key == null ? null : findEntry(cacheDirectory, key, workingDirectory);
+          if (entry != null && entry.isFile()) {
+            restored.incrementAndGet();
+            if (!FileUtils.contentEquals(entry, output)) {
+              FileUtils.copyFile(entry, output);
+              written.incrementAndGet();
+            }
+            return null;
+          }
+          if (compile(exec, step, figure, baseName, workingDirectory, environment, configuration, build)) {
+            compiled.incrementAndGet();
+            written.incrementAndGet();
+            if (key != null) {
+              store(cacheDirectory, key, figure, workingDirectory, texFile, dependencyDirectories, output);
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LatexExecutionException("Building the project: ", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof LatexExecutionException) {
+        throw (LatexExecutionException) e.getCause();
+      }
+      throw new LatexExecutionException("Building the project: ", e.getCause());
+    } finally {
+      executorService.shutdownNow();
+    }
+    build.getLog().info(String.format("[mathan] externalized figures: %s compiled, %s restored from cache", compiled.get(), restored.get()));
+    return written.get();
+  }
+
+  /**
+   * Compiles a single figure. The command is the one used by TikZ for <code>mode=convert with system call</code>.
+   */
+  private static boolean compile(File exec, Step step, String figure, String baseName, File workingDirectory, Map<String, String> environment, MathanLatexConfiguration configuration, Build build)
+      throws IOException, InterruptedException, LatexExecutionException {
+    File log = new File(workingDirectory, figure + ".log");
+    FileUtils.forceMkdir(log.getParentFile());
+    ProcessBuilder builder = new ProcessBuilder(exec.getAbsolutePath(), "-halt-on-error", "-interaction=batchmode", "-recorder", "-jobname", figure,
+        "\\def\\tikzexternalrealjob{" + baseName + "}\\input{" + baseName + "}").directory(workingDirectory).redirectErrorStream(true)
+        .redirectOutput(new File(workingDirectory, figure + "." + step.getId() + ".out"));
+    builder.environment().putAll(environment);
+    int exitValue = builder.start().waitFor();
+    if (exitValue == 0) {
+      return true;
+    }
+    if (configuration.isHaltOnError()) {
+      throw new LatexExecutionException(String.format("Externalization of figure %s failed. Process finished with exit code %s. See %s for details.", figure, exitValue, log.getName()));
+    }
+    build.getLog().info(String.format("[mathan] externalization of figure %s finished with exit code=%s", figure, exitValue));
+    return false;
+  }
+
+  /**
+   * Returns the key of the given figure or <code>null</code> if TikZ did not write a checksum of the figure.
+   */
+  private static String key(String figure, File workingDirectory, String preamble, Step step, String toolchainVersion) throws IOException {
+    File checksum = new File(workingDirectory, figure + "." + CHECKSUM);
+    if (!checksum.isFile()) {
+      return null;
+    }
+    String content = new String(Files.readAllBytes(checksum.toPath()), StandardCharsets.ISO_8859_1).trim();
+    return Utils.sha256(figure + '\n' + content + '\n' + preamble + '\n' + step.getName() + '\n' + toolchainVersion);
+  }
+
+  /**
+   * Returns the entry of the given figure in the cache or <code>null</code> if the figure was not compiled before. The entry is the hash of the key and the content of the files listed in the manifest
+   * of the key.
+   */
+  private static File findEntry(File cacheDirectory, String key, File workingDirectory) throws IOException {
+    File manifest = new File(cacheDirectory, key + "." + MANIFEST);
+    if (!manifest.isFile()) {
+      return null;
+    }
+    List<String> inputs = Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8);
+    return new File(cacheDirectory, entryKey(key, inputs, workingDirectory) + "." + Constants.FORMAT_PDF);
+  }
+
+  /**
+   * Stores a compiled figure in the cache. The files read by the figure are written to the manifest of the key first, so the figure is found by {@link #findEntry(File, String, File)} with the same
+   * files. A figure without a recorder file is not stored.
+   */
+  private static void store(File cacheDirectory, String key, String figure, File workingDirectory, File texFile, List<File> dependencyDirectories, File output) throws IOException {
+    File recorder = new File(workingDirectory, figure + "." + RECORDER);
+    if (!recorder.isFile()) {
+      return;
+    }
+    List<String> inputs = readInputs(recorder, workingDirectory, texFile, dependencyDirectories);
+    File manifest = new File(workingDirectory, figure + "." + MANIFEST);
+    Files.write(manifest.toPath(), inputs, StandardCharsets.UTF_8);
+    Utils.copyAtomically(manifest, new File(cacheDirectory, key + "." + MANIFEST));
+    Utils.copyAtomically(output, new File(cacheDirectory, entryKey(key, inputs, workingDirectory) + "." + Constants.FORMAT_PDF));
+  }
+
+  /**
+   * Returns the hash of the given key and the content of the given files.
+   */
+  private static String entryKey(String key, List<String> inputs, File workingDirectory) throws IOException {
+    StringBuilder sb = new StringBuilder(key).append('\n');
+    for (String input : inputs) {
+      File file = new File(input).isAbsolute() ? new File(input) : new File(workingDirectory, input);
+      sb.append(input).append('=').append(file.isFile() ? Utils.sha256(file) : "").append('\n');
+    }
+    return Utils.sha256(sb.toString());
+  }
+
+  /**
+   * Returns the files read by a figure according to the given recorder file. Files of the working directory are relative to the working directory, files of the dependencies are absolute. Files
+   * written by the figure (e.g. its .aux file), the main document and files of the TeX distribution are omitted.
+   */
+  private static List<String> readInputs(File recorder, File workingDirectory, File texFile, List<File> dependencyDirectories) throws IOException {
+    Path directory = workingDirectory.toPath().toAbsolutePath().normalize();
+    Set<Path> inputs = new LinkedHashSet<>();
+    Set<Path> outputs = new HashSet<>();
+    for (String line : Files.readAllLines(recorder.toPath(), StandardCharsets.ISO_8859_1)) {
+      if (line.startsWith(RECORDER_INPUT)) {
+        inputs.add(directory.resolve(line.substring(RECORDER_INPUT.length()).trim()).normalize());
+      } else if (line.startsWith(RECORDER_OUTPUT)) {
+        outputs.add(directory.resolve(line.substring(RECORDER_OUTPUT.length()).trim()).normalize());
+      }
+    }
+    inputs.removeAll(outputs);
+    inputs.remove(texFile.toPath().toAbsolutePath().normalize());
+    List<String> files = new ArrayList<>();
+    for (Path input : inputs) {
+      if (input.startsWith(directory)) {
+        files.add(directory.relativize(input).toString().replace('\\', '/'));
+      } else if (dependencyDirectories.stream().anyMatch(dependency -> input.startsWith(dependency.toPath().toAbsolutePath().normalize()))) {
+        files.add(input.toString());
+      }
+    }
+    Collections.sort(files);
+    return files;
+  }
+
+  /**
+   * Returns the preamble of the given document, the content up to <code>&#92;begin{document}</code>.
+   */
+  private static String readPreamble(File texFile) throws IOException {
+    String content = new String(Files.readAllBytes(texFile.toPath()), StandardCharsets.ISO_8859_1);
+    int end = content.indexOf(BEGIN_DOCUMENT);
+    return end < 0 ? content : content.substring(0, end);
+  }
+}
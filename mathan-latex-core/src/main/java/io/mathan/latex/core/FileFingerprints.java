@@ -0,0 +1,208 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+
+/**
+ * Computes fingerprints of files for detecting changes of the inputs of a build. The fingerprint is a fast non-cryptographic hash (CRC-32 and Adler-32) of the content read with memory-mapped I/O.
+ * Several files are hashed in parallel.
+ *
+ * <p>The fingerprints can be persisted in an index together with the size, the modification time and the file key (e.g. the inode) of each file. A file whose attributes did not change since it was
+ * hashed is not read again. Files modified shortly before they were hashed are not stored in the index, as a later modification within the resolution of the modification time could not be
+ * detected.</p>
+ */
+public class FileFingerprints {
+
+  /**
+   * The default location of the index relative to the basedir of the project.
+   */
+  public static final String DEFAULT_INDEX = "target/mathan-fingerprints.properties";
+
+  /**
+   * Files smaller than this size are read at once instead of being mapped into memory.
+   */
+  private static final int MAPPING_THRESHOLD = 1024 * 1024;
+
+  /**
+   * The maximum size of a single mapped region of a file.
+   */
+  private static final long MAPPING_SIZE = 64L * 1024 * 1024;
+
+  /**
+   * The time in milliseconds a file has to be unmodified before its fingerprint is stored in the index.
+   */
+  private static final long MODIFICATION_WINDOW = 2000;
+
+  private final File index;
+  private final Map<String, String> entries = new ConcurrentHashMap<>();
+  private final Map<String, String> usedEntries = new ConcurrentHashMap<>();
+
+  /**
+   * Creates fingerprints which are not persisted.
+   */
+  public FileFingerprints() {
+    this.index = null;
+  }
+
+  private FileFingerprints(File index) {
+    this.index = index;
+  }
+
+  /**
+   * Loads the fingerprints persisted in the given index. If the index does not exist or cannot be read, all files are hashed.
+   *
+   * @param index The file of the index.
+   * @return The fingerprints.
+   */
+  public static FileFingerprints load(File index) {
+    FileFingerprints fingerprints = new FileFingerprints(index);
+    if (index.isFile()) {
+      Properties properties = new Properties();
+      try (InputStream in = new FileInputStream(index)) {
+        properties.load(in);
+        properties.stringPropertyNames().forEach(key -> fingerprints.entries.put(key, properties.getProperty(key)));
+      } catch (IOException | IllegalArgumentException e) {
+        fingerprints.entries.clear();
+      }
+    }
+    return fingerprints;
+  }
+
+  /**
+   * Returns the fingerprint of the given file.
+   *
+   * @param file The file.
+   * @return The fingerprint.
+   * @throws IOException If the file could not be read.
+   */
+  public String get(File file) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+    String path = file.getAbsolutePath();
+    String key = attributes.size() + ":" + attributes.lastModifiedTime().toMillis() + ":" + attributes.fileKey();
+    String entry = entries.get(path);
+    if (entry != null && entry.startsWith(key + "=")) {
+      usedEntries.put(path, entry);
+      return entry.substring(key.length() + 1);
+    }
+    String fingerprint = hash(file, attributes.size());
+    if (System.currentTimeMillis() - attributes.lastModifiedTime().toMillis() > MODIFICATION_WINDOW) {
+      usedEntries.put(path, key + "=" + fingerprint);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Returns the fingerprints of the given files. The files are hashed in parallel.
+   *
+   * @param files The files.
+   * @return The fingerprints of the files.
+   * @throws IOException If a file could not be read.
+   */
+  public Map<File, String> get(Collection<File> files) throws IOException {
+    Map<File, String> fingerprints = new HashMap<>();
+    int threads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+    if (threads <= 1) {
+      for (File file : files) {
+        fingerprints.put(file, get(file));
+      }
+      return fingerprints;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      Map<File, Future<String>> futures = new HashMap<>();
+      for (File file : new LinkedHashSet<>(files)) {
+        futures.put(file, executor.submit(() -> get(file)));
+      }
+      for (Map.Entry<File, Future<String>> future : futures.entrySet()) {
+        fingerprints.put(future.getKey(), future.getValue().get());
+      }
+      return fingerprints;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while hashing files", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Persists the fingerprints of the files used since the index was loaded. Entries of files no longer used are removed.
+   *
+   * @throws IOException If the index could not be written.
+   */
+  public void save() throws IOException {
+    if (index == null) {
+      return;
+    }
+    if (index.getParentFile() != null && !index.getParentFile().exists() && !index.getParentFile().mkdirs()) {
+      throw new IOException("Could not create directory " + index.getParentFile().getAbsolutePath());
+    }
+    Properties properties = new Properties();
+    properties.putAll(usedEntries);
+    try (OutputStream out = new FileOutputStream(index)) {
+      properties.store(out, "mathan latex file fingerprints");
+    }
+  }
+
+  private static String hash(File file, long size) throws IOException {
+    CRC32 crc = new CRC32();
+    Adler32 adler = new Adler32();
+    if (size < MAPPING_THRESHOLD) {
+      ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+      crc.update(content.duplicate());
+      adler.update(content);
+    } else {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        for (long position = 0; position < size; position += MAPPING_SIZE) {
+          MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPING_SIZE, size - position));
+          crc.update(region.duplicate());
+          adler.update(region);
+        }
+      }
+    }
+    return String.format("%08x%08x", crc.getValue(), adler.getValue());
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+
+/**
+ * Converts the EPS and SVG images of a document to PDF before the first LaTeX pass, so pdflatex, xelatex and lualatex do not need to convert them with shell escape. The images of the working
+ * directory are converted concurrently by at most one process per processor with the first converter found in the bin directory of the TeX distribution or on PATH.
+ *
+ * <ul>
+ * <li>EPS images are converted with epstopdf or Ghostscript. The PDF is named like the file created by the package epstopdf (e.g. figure-eps-converted-to.pdf for figure.eps), so
+ * <code>&#92;includegraphics</code> uses it with and without the extension.</li>
+ * <li>SVG images are converted with rsvg-convert or Inkscape. The PDF has the name of the image (e.g. figure.pdf for figure.svg), so <code>&#92;includegraphics{figure}</code> uses it.</li>
+ * </ul>
+ *
+ * <p>An image is not converted if a PDF with the same name already exists in the sources. The converted images are stored in a cache. The key of an image is the hash of its content and the name
+ * of the converter, so repeated builds reuse the converted images. Like the {@link ActionCache action cache}, an entry is written to a temporary file first and moved to its final location
+ * afterwards, so a cache directory can be shared by concurrent builds.</p>
+ */
+class ImageConverter {
+
+  /**
+   * The converters for each image format in the order of preference. Each converter consists of the name of the executable and the arguments, %input and %output are replaced by the image and the
+   * PDF.
+   */
+  private static final Map<String, String[][]> CONVERTERS = new LinkedHashMap<>();
+
+  static {
+    CONVERTERS.put(Constants.FORMAT_EPS, new String[][]{
+        {"epstopdf", "--outfile=%output %input"},
+        {"gs", "-q -dNOPAUSE -dBATCH -dSAFER -dEPSCrop -sDEVICE=pdfwrite -sOutputFile=%output %input"}});
+    CONVERTERS.put(Constants.FORMAT_SVG, new String[][]{
+        {"rsvg-convert", "-f pdf -o %output %input"},
+        {"inkscape", "--export-filename=%output %input"}});
+  }
+
+  private ImageConverter() {
+  }
+
+  /**
+   * Converts the images of the working directory to PDF. Images contained in the cache are restored instead.
+   *
+   * @param sourceDirectory The directory containing the LaTeX source document.
+   * @param workingDirectory The working directory.
+   * @param cacheDirectory The directory of the cache.
+   * @param configuration The configuration of the build.
+   * @param build The build.
+   * @throws LatexExecutionException If the images could not be read or written.
+   */
+  static void execute(File sourceDirectory, File workingDirectory, File cacheDirectory, MathanLatexConfiguration configuration, Build build) throws LatexExecutionException {
+    Map<File, String[]> images = new LinkedHashMap<>();
+    for (Map.Entry<String, String[][]> converters : CONVERTERS.entrySet()) {
+      Collection<File> files = FileUtils.listFiles(workingDirectory, new String[]{converters.getKey()}, true);
+      // a PDF provided with the sources is used by \includegraphics instead of the image
+      files.removeIf(file -> new File(sourceDirectory, FilenameUtils.removeExtension(relativize(workingDirectory, file)) + "." + Constants.FORMAT_PDF).exists());
+      if (files.isEmpty()) {
+        continue;
+      }
+      String[] converter = findConverter(converters.getValue(), configuration);
+      if (converter == null) {
+        build.getLog().info(String.format("[mathan] no converter found for %s %s images", files.size(), converters.getKey()));
+        continue;
+      }
+      files.forEach(file -> images.put(file, converter));
+    }
+    if (images.isEmpty()) {
+      return;
+    }
+    AtomicInteger converted = new AtomicInteger();
+    AtomicInteger restored = new AtomicInteger();
+    ExecutorService executorService = Executors.newFixedThreadPool(Math.min(images.size(), Runtime.getRuntime().availableProcessors()));
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (Map.Entry<File, String[]> image : images.entrySet()) {
+        futures.add(executorService.submit(() -> {
+          convert(image.getKey(), image.getValue(), cacheDirectory, build, converted, restored);
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LatexExecutionException("Building the project: ", e);
+    } catch (ExecutionException e) {
+      throw new LatexExecutionException("Could not convert images", e.getCause());
+    } finally {
+      executorService.shutdownNow();
+    }
+    build.getLog().info(String.format("[mathan] converted images: %s converted, %s restored from cache", converted.get(), restored.get()));
+  }
+
+  private static String relativize(File directory, File file) {
+    return directory.toPath().relativize(file.toPath()).toString();
+  }
+
+  /**
+   * Returns the first converter whose executable is available.
+   */
+  private static String[] findConverter(String[][] converters, MathanLatexConfiguration configuration) {
+    String os = System.getProperty("os.name").toLowerCase();
+    for (String[] converter : converters) {
+      File exec = Utils.getExecutable(configuration.getTexBin(), os.contains("windows") ? converter[0] + ".exe" : converter[0]);
+      if (exec != null) {
+        return new String[]{exec.getAbsolutePath(), converter[1]};
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Converts a single image or restores it from the cache.
+   */
+  private static void convert(File image, String[] converter, File cacheDirectory, Build build, AtomicInteger converted, AtomicInteger restored) throws IOException, InterruptedException {
+    File output = getOutput(image);
+    File entry = new File(cacheDirectory, Utils.sha256(Utils.sha256(image) + '\n' + new File(converter[0]).getName()) + "." + Constants.FORMAT_PDF);
+    if (entry.isFile()) {
+      if (!FileUtils.contentEquals(entry, output)) {
+        FileUtils.copyFile(entry, output, false);
+      }
+      restored.incrementAndGet();
+      return;
+    }
+    List<String> command = new ArrayList<>();
+    command.add(converter[0]);
+    for (String argument : converter[1].split(" ")) {
+      command.add(argument.replace("%input", image.getName()).replace("%output", output.getName()));
+    }
+    File log = new File(image.getParentFile(), image.getName() + ".log");
+    Files.deleteIfExists(output.toPath());
+    int exitValue = new ProcessBuilder(command).directory(image.getParentFile()).redirectErrorStream(true).redirectOutput(log).start().waitFor();
+    if (exitValue != 0 || !output.isFile()) {
+      build.getLog().warn(String.format("[mathan] conversion of %s finished with exit code=%s, see %s", image.getName(), exitValue, log.getName()));
+      return;
+    }
+    Utils.copyAtomically(output, entry);
+    converted.incrementAndGet();
+  }
+
+  /**
+   * Returns the PDF for the given image.
+   */
+  private static File getOutput(File image) {
+    String baseName = FilenameUtils.getBaseName(image.getName());
+    if (Constants.FORMAT_EPS.equals(FilenameUtils.getExtension(image.getName()))) {
+      // the default suffix of the package epstopdf
+      return new File(image.getParentFile(), baseName + "-" + Constants.FORMAT_EPS + "-converted-to." + Constants.FORMAT_PDF);
+    }
+    return new File(image.getParentFile(), baseName + "." + Constants.FORMAT_PDF);
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOInvalidTreeException;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.w3c.dom.NodeList;
+
+/**
+ * Replaces the PNG and JPEG images in the working directory by downsampled proxies for {@link MathanLatexConfiguration#isImageProxies() draft builds}. The sources are not changed. A proxy is at
+ * most {@link MathanLatexConfiguration#getImageProxySize() imageProxySize} pixels wide and high. The resolution of the proxy is reduced by the same factor, so the natural size of the image and thus
+ * the layout of the document do not change. The proxies are created concurrently by one thread per processor.
+ *
+ * <p>The proxies are stored in a cache. The key of a proxy is the hash of the content of the image and the size of the proxy, so repeated builds reuse the proxies. Images which cannot be read by
+ * ImageIO (e.g. CMYK JPEGs) are used unchanged.</p>
+ */
+class ImageProxies {
+
+  private static final String[] EXTENSIONS = {"png", "jpg", "jpeg", "PNG", "JPG", "JPEG"};
+
+  /**
+   * The names of the native metadata formats of the ImageIO plugins for PNG and JPEG.
+   */
+  private static final String PNG_FORMAT = "javax_imageio_png_1.0";
+  private static final String JPEG_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+  /**
+   * The resolution in dots per inch used by pdfTeX if an image does not specify its resolution.
+   */
+  private static final double DEFAULT_RESOLUTION = 72;
+
+  /**
+   * The length of an inch in meters.
+   */
+  private static final double INCH = 0.0254;
+
+  private ImageProxies() {
+  }
+
+  /**
+   * Replaces the images of the working directory by proxies. Proxies contained in the cache are restored instead.
+   *
+   * @param workingDirectory The working directory.
+   * @param size The maximum width and height of a proxy in pixels.
+   * @param cacheDirectory The directory of the cache.
+   * @param build The build.
+   * @throws LatexExecutionException If an image could not be read or written.
+   */
+  static void execute(File workingDirectory, int size, File cacheDirectory, Build build) throws LatexExecutionException {
+    Collection<File> images = FileUtils.listFiles(workingDirectory, EXTENSIONS, true);
+    if (images.isEmpty()) {
+      return;
+    }
+    AtomicInteger created = new AtomicInteger();
+    AtomicInteger restored = new AtomicInteger();
+    ExecutorService executorService = Executors.newFixedThreadPool(Math.min(images.size(), Runtime.getRuntime().availableProcessors()));
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (File image : images) {
+        futures.add(executorService.submit(() -> {
+          File entry = new File(cacheDirectory, Utils.sha256(Utils.sha256(image) + '\n' + size) + "." + FilenameUtils.getExtension(image.getName()).toLowerCase());
+          if (entry.isFile()) {
+            FileUtils.copyFile(entry, image, false);
+            restored.incrementAndGet();
+          } else if (createProxy(image, size, entry, build)) {
+            created.incrementAndGet();
+          }
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LatexExecutionException("Building the project: ", e);
+    } catch (ExecutionException e) {
+      throw new LatexExecutionException("Could not create image proxies", e.getCause());
+    } finally {
+      executorService.shutdownNow();
+    }
+    build.getLog().info(String.format("[mathan] image proxies: %s created, %s restored from cache", created.get(), restored.get()));
+  }
+
+  /**
+   * Creates the proxy of the given image, stores it in the cache and replaces the image by the proxy. An image not larger than the proxy is stored unchanged.
+   *
+   * @return <code>True</code> if the proxy was created, <code>false</code> if the image cannot be read.
+   */
+  private static boolean createProxy(File image, int size, File entry, Build build) throws IOException {
+    try (ImageInputStream in = ImageIO.createImageInputStream(image)) {
+      Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+      if (readers == null || !readers.hasNext()) {
+        return false;
+      }
+      ImageReader reader = readers.next();
+      String format = reader.getFormatName().toLowerCase();
+      BufferedImage original;
+      IIOMetadata metadata;
+      try {
+        reader.setInput(in, true, false);
+        original = reader.read(0);
+        metadata = reader.getImageMetadata(0);
+      } catch (IOException | RuntimeException e) {
+        build.getLog().info(String.format("[mathan] image %s cannot be read, using the original: %s", image.getName(), e.getMessage()));
+        return false;
+      } finally {
+        reader.dispose();
+      }
+      double scale = Math.min(1.0, (double) size / Math.max(original.getWidth(), original.getHeight()));
+      if (scale < 1.0) {
+        writeProxy(original, scale, getResolution(metadata, format), format, image);
+      }
+      Utils.copyAtomically(image, entry);
+      return true;
+    }
+  }
+
+  private static void writeProxy(BufferedImage original, double scale, double resolution, String format, File image) throws IOException {
+    int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+    int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+    boolean alpha = original.getColorModel().hasAlpha() && !"jpeg".equals(format);
+    BufferedImage proxy = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = proxy.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+      graphics.drawImage(original, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+    try (OutputStream stream = FileUtils.openOutputStream(image); ImageOutputStream out = ImageIO.createImageOutputStream(stream)) {
+      writer.setOutput(out);
+      IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(proxy), writer.getDefaultWriteParam());
+      setResolution(metadata, format, resolution * width / original.getWidth());
+      writer.write(null, new IIOImage(proxy, null, metadata), writer.getDefaultWriteParam());
+    } finally {
+      writer.dispose();
+    }
+  }
+
+  /**
+   * Returns the resolution of the image in dots per inch. The native metadata of PNG (pHYs) and JPEG (JFIF) is used, as it is read by pdfTeX.
+   */
+  private static double getResolution(IIOMetadata metadata, String format) {
+    try {
+      if ("png".equals(format)) {
+        IIOMetadataNode physical = getNode(metadata, PNG_FORMAT, "pHYs");
+        if (physical != null && "meter".equals(physical.getAttribute("unitSpecifier"))) {
+          return Integer.parseInt(physical.getAttribute("pixelsPerUnitXAxis")) * INCH;
+        }
+      } else if ("jpeg".equals(format)) {
+        IIOMetadataNode jfif = getNode(metadata, JPEG_FORMAT, "app0JFIF");
+        if (jfif != null && "1".equals(jfif.getAttribute("resUnits"))) {
+          return Integer.parseInt(jfif.getAttribute("Xdensity"));
+        } else if (jfif != null && "2".equals(jfif.getAttribute("resUnits"))) {
+          return Integer.parseInt(jfif.getAttribute("Xdensity")) * 2.54;
+        }
+      }
+    } catch (NumberFormatException e) {
+      // resolution not specified
+    }
+    return DEFAULT_RESOLUTION;
+  }
+
+  /**
+   * Sets the resolution of the image in dots per inch.
+   */
+  private static void setResolution(IIOMetadata metadata, String format, double resolution) throws IIOInvalidTreeException {
+    if ("png".equals(format)) {
+      IIOMetadataNode physical = new IIOMetadataNode("pHYs");
+      String pixelsPerMeter = Long.toString(Math.max(1, Math.round(resolution / INCH)));
+      physical.setAttribute("pixelsPerUnitXAxis", pixelsPerMeter);
+      physical.setAttribute("pixelsPerUnitYAxis", pixelsPerMeter);
+      physical.setAttribute("unitSpecifier", "meter");
+      IIOMetadataNode root = new IIOMetadataNode(PNG_FORMAT);
+      root.appendChild(physical);
+      metadata.mergeTree(PNG_FORMAT, root);
+    } else if ("jpeg".equals(format)) {
+      IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(JPEG_FORMAT);
+      NodeList nodes = root.getElementsByTagName("app0JFIF");
+      if (nodes.getLength() > 0) {
+        IIOMetadataNode jfif = (IIOMetadataNode) nodes.item(0);
+        String density = Long.toString(Math.max(1, Math.round(resolution)));
+        jfif.setAttribute("resUnits", "1");
+        jfif.setAttribute("Xdensity", density);
+        jfif.setAttribute("Ydensity", density);
+        metadata.setFromTree(JPEG_FORMAT, root);
+      }
+    }
+  }
+
+  private static IIOMetadataNode getNode(IIOMetadata metadata, String format, String name) {
+    if (metadata == null || !Arrays.asList(metadata.getMetadataFormatNames()).contains(format)) {
+      return null;
+    }
+    NodeList nodes = ((IIOMetadataNode) metadata.getAsTree(format)).getElementsByTagName(name);
+    return nodes.getLength() > 0 ? (IIOMetadataNode) nodes.item(0) : null;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Support for partial builds of a document consisting of chapters read with <code>&#92;include</code>. If {@link MathanLatexConfiguration#getIncludeOnly() includeOnly} is set, the LaTeX steps
+ * execute <code>&#92;includeonly</code> with the configured chapters before the document is read. The sources are not changed.
+ *
+ * <p>LaTeX reads the .aux files of the excluded chapters written by a previous build, so cross-references and page numbers of the excluded chapters stay stable. A partial build therefore requires
+ * the intermediate files of the previous build to be kept. If the .aux file of the document or of an excluded chapter is missing, all chapters are built.</p>
+ */
+class IncludeOnly {
+
+  /**
+   * The .aux files of the chapters read by the .aux file of the document.
+   */
+  private static final Pattern CHAPTER = Pattern.compile("\\\\@input\\{(.+)\\.aux\\}");
+
+  private IncludeOnly() {
+  }
+
+  /**
+   * Returns the LaTeX code for building the given chapters only.
+   *
+   * @param chapters The chapters to build as passed to <code>&#92;include</code>, with or without the extension .tex.
+   * @param workingDirectory The working directory containing the intermediate files of the previous build.
+   * @param baseName The base name of the LaTeX source document.
+   * @param build The build.
+   * @return The <code>&#92;includeonly</code> command or an empty string if all chapters have to be built.
+   * @throws LatexExecutionException If the .aux file of the document could not be read.
+   */
+  static String getPreamble(String[] chapters, File workingDirectory, String baseName, Build build) throws LatexExecutionException {
+    if (chapters == null || chapters.length == 0) {
+      return "";
+    }
+    List<String> included = Arrays.stream(chapters).map(String::trim).filter(chapter -> !chapter.isEmpty()).map(IncludeOnly::stripExtension).collect(Collectors.toList());
+    File aux = new File(workingDirectory, baseName + ".aux");
+    if (!aux.isFile()) {
+      build.getLog().info("[mathan] building all chapters, no auxiliary files of a previous build found");
+      return "";
+    }
+    try {
+      for (String line : Files.readAllLines(aux.toPath(), StandardCharsets.ISO_8859_1)) {
+        Matcher matcher = CHAPTER.matcher(line);
+        if (matcher.find() && !included.contains(matcher.group(1)) && !new File(workingDirectory, matcher.group(1) + ".aux").isFile()) {
+          build.getLog().info(String.format("[mathan] building all chapters, auxiliary file of chapter %s not found", matcher.group(1)));
+          return "";
+        }
+      }
+    } catch (IOException e) {
+      throw new LatexExecutionException(String.format("Could not read %s", aux.getName()), e);
+    }
+    build.getLog().info("[mathan] building chapters: " + String.join(",", included));
+    return "\\includeonly{" + String.join(",", included) + "}";
+  }
+
+  private static String stripExtension(String chapter) {
+    return chapter.endsWith(".tex") ? chapter.substring(0, chapter.length() - 4) : chapter;
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * The manifest of all inputs of a build. It contains the files used for the build (path, size and {@link FileFingerprints fingerprint}), the dependencies and the configuration. A manifest is
+ * persisted after a successful build, so that a later build can compare its inputs with the persisted manifest and skip the execution if nothing changed.
+ */
+public class InputManifest {
+
+  private static final String PREFIX_FILE = "file:";
+
+  private final Map<String, String> entries = new TreeMap<>();
+  private final FileFingerprints fingerprints;
+
+  /**
+   * Creates an empty manifest hashing the files without persisted {@link FileFingerprints fingerprints}.
+   */
+  public InputManifest() {
+    this(new FileFingerprints());
+  }
+
+  /**
+   * Creates an empty manifest using the given fingerprints for the files.
+   *
+   * @param fingerprints The fingerprints of the files.
+   */
+  public InputManifest(FileFingerprints fingerprints) {
+    this.fingerprints = fingerprints;
+  }
+
+  /**
+   * Adds an entry to the manifest.
+   *
+   * @param key The key of the entry.
+   * @param value The value of the entry. <code>null</code> values are stored as empty string.
+   */
+  public void put(String key, String value) {
+    entries.put(key, value == null ? "" : value);
+  }
+
+  /**
+   * Adds an entry for the given file containing its size and hash.
+   *
+   * @param name The name of the file in the manifest.
+   * @param file The file.
+   * @throws IOException If the file could not be read.
+   */
+  public void putFile(String name, File file) throws IOException {
+    entries.put(PREFIX_FILE + name, file.length() + ":" + fingerprints.get(file));
+  }
+
+  /**
+   * Adds entries for the given files containing their size and hash. The files are hashed in parallel.
+   *
+   * @param files The files by their names in the manifest.
+   * @throws IOException If a file could not be read.
+   */
+  public void putFiles(Map<String, File> files) throws IOException {
+    Map<File, String> hashes = fingerprints.get(files.values());
+    files.forEach((name, file) -> entries.put(PREFIX_FILE + name, file.length() + ":" + hashes.get(file)));
+  }
+
+  /**
+   * Adds entries for all files in the given directory (including sub directories). The files are added with their path relative to the directory.
+   *
+   * @param directory The directory.
+   * @throws IOException If a file could not be read.
+   */
+  public void putDirectory(File directory) throws IOException {
+    Map<String, File> files = new TreeMap<>();
+    listFiles(directory, "", files);
+    putFiles(files);
+  }
+
+  private static void listFiles(File directory, String path, Map<String, File> files) {
+    File[] children = directory.listFiles();
+    if (children == null) {
+      return;
+    }
+    for (File file : children) {
+      if (file.isDirectory()) {
+        listFiles(file, path + file.getName() + "/", files);
+      } else {
+        files.put(path + file.getName(), file);
+      }
+    }
+  }
+
+  /**
+   * Reads a persisted manifest.
+   *
+   * @param file The file containing the manifest.
+   * @return The manifest or <code>null</code> if the file does not exist.
+   * @throws IOException If the file could not be read.
+   */
+  public static InputManifest read(File file) throws IOException {
+    if (!file.exists()) {
+      return null;
+    }
+    Properties properties = new Properties();
+    try (InputStream in = new FileInputStream(file)) {
+      properties.load(in);
+    }
+    InputManifest manifest = new InputManifest();
+    properties.stringPropertyNames().forEach(key -> manifest.entries.put(key, properties.getProperty(key)));
+    return manifest;
+  }
+
+  /**
+   * Persists this manifest.
+   *
+   * @param file The file to write the manifest to.
+   * @throws IOException If the file could not be written.
+   */
+  public void write(File file) throws IOException {
+    if (file.getParentFile() != null && !file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+      throw new IOException("Could not create directory " + file.getParentFile().getAbsolutePath());
+    }
+    Properties properties = new Properties();
+    properties.putAll(entries);
+    try (OutputStream out = new FileOutputStream(file)) {
+      properties.store(out, "mathan latex input manifest");
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return entries.equals(((InputManifest) o).entries);
+  }
+
+  @Override
+  public int hashCode() {
+    return entries.hashCode();
+  }
+}
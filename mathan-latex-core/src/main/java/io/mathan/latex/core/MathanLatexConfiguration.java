@@ -16,13 +16,22 @@
 
 package io.mathan.latex.core;
 
-public class MathanLatexConfiguration {
+import java.io.Serializable;
+
+public class MathanLatexConfiguration implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   /**
    * The output format. Supported are dvi, pdf and ps.
    */
   private String outputFormat = Constants.FORMAT_PDF;
 
+  /**
+   * Further output formats created by the same build. The output of the LaTeX steps is converted into these formats, e.g. with dvips and dvipdfm.
+   */
+  private String[] additionalOutputFormats;
+
   /**
    * The bin directory of the LaTeX distribution.
    */
@@ -65,14 +74,134 @@ public class MathanLatexConfiguration {
 
   private String texFile;
 
+  /**
+   * The directory in which a unique working directory is created for each build, e.g. a RAM disk like /dev/shm or a local disk. A relative path is resolved against the basedir of the project. If
+   * not set, target/latex is used as working directory.
+   */
+  private String scratchDirectory;
+
   private boolean enableDependencyScan = false;
 
+  /**
+   * Parameter for controlling if the LaTeX source document is scanned for referenced files. Only the files of the {@link DocumentGraph graph} of the document are copied to the working directory and
+   * used to decide whether the document has to be built again.
+   */
+  private boolean scanDocument = false;
+
+  /**
+   * Parameter for controlling if the dependencies are extracted into the {@link #getDependencyCacheDirectory() dependency cache} and found by TeX using TEXINPUTS, BIBINPUTS, BSTINPUTS and INDEXSTYLE
+   * instead of copying their contents into the working directory.
+   */
+  private boolean mountDependencies = false;
+
+  /**
+   * The directory in which the dependencies are extracted if {@link #isMountDependencies() mountDependencies} is enabled. A relative path is resolved against the basedir of the project.
+   */
+  private String dependencyCacheDirectory;
+
+  /**
+   * The build profile switching the flags of the LaTeX steps. Supported are dev (draft graphics, no PDF compression, LaTeX passes are skipped once the auxiliary files converged), ci (no SyncTeX and
+   * source specials) and release (the flags of the steps are not changed).
+   */
+  private String profile = "release";
+
+  /**
+   * The chapters to build (names as passed to <code>&#92;include</code>). If set, the LaTeX steps execute <code>&#92;includeonly</code> with these chapters. The .aux files of the excluded chapters
+   * written by the previous build are used, so this requires the intermediate files to be kept. If not set, all chapters are built.
+   */
+  private String[] includeOnly;
+
+  /**
+   * Parameter for controlling if the figures externalized by the document with <code>&#92;tikzexternalize[mode=list and make]</code> should be compiled after the first LaTeX pass. The figures are
+   * compiled concurrently and cached by the checksum of their code and the files they read.
+   */
+  private boolean externalizeFigures = false;
+
+  /**
+   * Parameter for controlling if EPS and SVG images should be converted to PDF before the first LaTeX pass. The images are converted concurrently with the converters available (epstopdf,
+   * Ghostscript, rsvg-convert or Inkscape) and cached by their content.
+   */
+  private boolean convertImages = false;
+
+  /**
+   * Parameter for controlling if the PNG and JPEG images should be replaced by downsampled proxies in the working directory for draft builds (profile dev). Release builds always use the original
+   * images.
+   */
+  private boolean imageProxies = false;
+
+  /**
+   * The maximum width and height of an image proxy in pixels.
+   */
+  private int imageProxySize = 1024;
+
+  /**
+   * Parameter for controlling if the PDF document should be optimized after the final pass. The document is rewritten with Ghostscript and qpdf if available, which recompresses the streams,
+   * removes duplicate images and fonts and linearizes the document for fast web view.
+   */
+  private boolean optimizePdf = false;
+
+  /**
+   * The directory of the cache for externalized figures, converted images and image proxies. A relative path is resolved against the basedir of the project. If not set, target/mathan-figures is used.
+   */
+  private String figureCacheDirectory;
+
+  /**
+   * The directory of the persistent caches of the tools, the font database of luaotfload and the unpacked biber. A relative path is resolved against the basedir of the project. If not set, the
+   * tools use their default caches in the home and temporary directory of the user.
+   */
+  private String toolCacheDirectory;
+
   /**
    * Parameter for controlling if build should be stopped in case the execution of a single step finished with an unexpected (non-zero) exit code. By default this parameter is set to <code>true</code>
    * but in some cases it may be useful to set it to <code>false</code>. This can be necessary if a tool finishes successfully but returns a non-zero exit code.
    */
   private boolean haltOnError = true;
 
+  /**
+   * Parameter for controlling if the log aggregating the logs of all steps (mathan-latex-mojo.log) should be compressed with gzip.
+   */
+  private boolean compressLog = false;
+
+  /**
+   * Parameter for controlling if the output and error of the executed tools should be redirected to files by the operating system instead of being read by the build. The files are only read if
+   * debug logging is enabled, if the tool failed or if errors were written.
+   */
+  private boolean redirectOutputToFile = false;
+
+  /**
+   * Parameter for controlling if steps forming a converter chain (dvips followed by ps2pdf) should be executed as a pipeline. The output of the first executable is passed to the second executable
+   * without writing the intermediate file.
+   */
+  private boolean pipelineSteps = false;
+
+  /**
+   * Parameter for controlling if bibtex and biber should be skipped if neither the cited keys, the bibliography style nor the bibliography databases changed since the last execution. The existing
+   * .bbl file is used then.
+   */
+  private boolean skipUnchangedBibliography = false;
+
+  /**
+   * Parameter for controlling if only the cited entries of the bibliography databases (.bib files) should be passed to bibtex and biber. The cited entries are extracted into reduced databases before
+   * the step is executed.
+   */
+  private boolean extractCitedEntries = false;
+
+  /**
+   * Parameter for controlling if the steps makeindex and makeindexnomencl should be executed by the implementation of makeindex within the JVM instead of the executable of the TeX distribution.
+   */
+  private boolean inProcessMakeIndex = false;
+
+  /**
+   * Parameter for controlling if the results of the steps bibtex, biber, makeindex and makeindexnomencl should be cached. If the input files of such a step did not change, the output files are
+   * restored from the cache instead of executing the step.
+   */
+  private boolean enableActionCache = false;
+
+  /**
+   * The directory of the action cache. A relative path is resolved against the basedir of the project. If not set, target/mathan-cache is used.
+   */
+  private String actionCacheDirectory;
+
   public String getOutputFormat() {
     return outputFormat;
   }
@@ -81,6 +210,14 @@ public class MathanLatexConfiguration {
     this.outputFormat = outputFormat;
   }
 
+  public String[] getAdditionalOutputFormats() {
+    return additionalOutputFormats;
+  }
+
+  public void setAdditionalOutputFormats(String[] additionalOutputFormats) {
+    this.additionalOutputFormats = additionalOutputFormats;
+  }
+
   public String getTexBin() {
     return texBin;
   }
@@ -153,6 +290,14 @@ public class MathanLatexConfiguration {
     this.texFile = texFile;
   }
 
+  public String getScratchDirectory() {
+    return scratchDirectory;
+  }
+
+  public void setScratchDirectory(String scratchDirectory) {
+    this.scratchDirectory = scratchDirectory;
+  }
+
   public boolean isHaltOnError() {
     return haltOnError;
   }
@@ -168,4 +313,164 @@ public class MathanLatexConfiguration {
   public void setEnableDependencyScan(boolean enableDependencyScan) {
     this.enableDependencyScan = enableDependencyScan;
   }
+
+  public boolean isScanDocument() {
+    return scanDocument;
+  }
+
+  public void setScanDocument(boolean scanDocument) {
+    this.scanDocument = scanDocument;
+  }
+
+  public boolean isMountDependencies() {
+    return mountDependencies;
+  }
+
+  public void setMountDependencies(boolean mountDependencies) {
+    this.mountDependencies = mountDependencies;
+  }
+
+  public String getDependencyCacheDirectory() {
+    return dependencyCacheDirectory;
+  }
+
+  public void setDependencyCacheDirectory(String dependencyCacheDirectory) {
+    this.dependencyCacheDirectory = dependencyCacheDirectory;
+  }
+
+  public boolean isCompressLog() {
+    return compressLog;
+  }
+
+  public void setCompressLog(boolean compressLog) {
+    this.compressLog = compressLog;
+  }
+
+  public boolean isRedirectOutputToFile() {
+    return redirectOutputToFile;
+  }
+
+  public void setRedirectOutputToFile(boolean redirectOutputToFile) {
+    this.redirectOutputToFile = redirectOutputToFile;
+  }
+
+  public boolean isPipelineSteps() {
+    return pipelineSteps;
+  }
+
+  public void setPipelineSteps(boolean pipelineSteps) {
+    this.pipelineSteps = pipelineSteps;
+  }
+
+  public boolean isSkipUnchangedBibliography() {
+    return skipUnchangedBibliography;
+  }
+
+  public void setSkipUnchangedBibliography(boolean skipUnchangedBibliography) {
+    this.skipUnchangedBibliography = skipUnchangedBibliography;
+  }
+
+  public boolean isExtractCitedEntries() {
+    return extractCitedEntries;
+  }
+
+  public void setExtractCitedEntries(boolean extractCitedEntries) {
+    this.extractCitedEntries = extractCitedEntries;
+  }
+
+  public boolean isInProcessMakeIndex() {
+    return inProcessMakeIndex;
+  }
+
+  public void setInProcessMakeIndex(boolean inProcessMakeIndex) {
+    this.inProcessMakeIndex = inProcessMakeIndex;
+  }
+
+  public boolean isEnableActionCache() {
+    return enableActionCache;
+  }
+
+  public void setEnableActionCache(boolean enableActionCache) {
+    this.enableActionCache = enableActionCache;
+  }
+
+  public String getActionCacheDirectory() {
+    return actionCacheDirectory;
+  }
+
+  public void setActionCacheDirectory(String actionCacheDirectory) {
+    this.actionCacheDirectory = actionCacheDirectory;
+  }
+
+  public String getProfile() {
+    return profile;
+  }
+
+  public void setProfile(String profile) {
+    this.profile = profile;
+  }
+
+  public String[] getIncludeOnly() {
+    return includeOnly;
+  }
+
+  public void setIncludeOnly(String[] includeOnly) {
+    this.includeOnly = includeOnly;
+  }
+
+  public boolean isExternalizeFigures() {
+    return externalizeFigures;
+  }
+
+  public void setExternalizeFigures(boolean externalizeFigures) {
+    this.externalizeFigures = externalizeFigures;
+  }
+
+  public String getFigureCacheDirectory() {
+    return figureCacheDirectory;
+  }
+
+  public void setFigureCacheDirectory(String figureCacheDirectory) {
+    this.figureCacheDirectory = figureCacheDirectory;
+  }
+
+  public boolean isConvertImages() {
+    return convertImages;
+  }
+
+  public void setConvertImages(boolean convertImages) {
+    this.convertImages = convertImages;
+  }
+
+  public boolean isImageProxies() {
+    return imageProxies;
+  }
+
+  public void setImageProxies(boolean imageProxies) {
+    this.imageProxies = imageProxies;
+  }
+
+  public int getImageProxySize() {
+    return imageProxySize;
+  }
+
+  public void setImageProxySize(int imageProxySize) {
+    this.imageProxySize = imageProxySize;
+  }
+
+  public boolean isOptimizePdf() {
+    return optimizePdf;
+  }
+
+  public void setOptimizePdf(boolean optimizePdf) {
+    this.optimizePdf = optimizePdf;
+  }
+
+  public String getToolCacheDirectory() {
+    return toolCacheDirectory;
+  }
+
+  public void setToolCacheDirectory(String toolCacheDirectory) {
+    this.toolCacheDirectory = toolCacheDirectory;
+  }
 }
@@ -17,18 +17,25 @@
 package io.mathan.latex.core;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
-import org.zeroturnaround.exec.ProcessExecutor;
 
 public class MathanLatexRunner {
 
@@ -47,6 +54,16 @@ public class MathanLatexRunner {
       Step.STEP_MAKEINDEX, Step.STEP_MAKEINDEXNOMENCL, Step.STEP_PDFLATEX, Step.STEP_PS2PDF,
       Step.STEP_XELATEX);
 
+  /**
+   * The steps converting the output of the LaTeX steps into {@link MathanLatexConfiguration#getAdditionalOutputFormats() additional output formats} in the order of their preference.
+   */
+  private static final List<String> CONVERSION_STEPS = Arrays.asList(Step.STEP_DVIPS.getId(), Step.STEP_DVIPDFM.getId(), Step.STEP_PS2PDF.getId());
+
+  /**
+   * The extensions of the auxiliary files written by a LaTeX pass and read by the next pass, either directly or after being processed by a build step like bibtex or makeindex.
+   */
+  private static final String[] AUXILIARY_EXTENSIONS = {"aux", "toc", "lof", "lot", "loa", "lol", "out", "bbl", "ind", "nls", "gls", "acr", "nav", "snm", "vrb", "brf", "thm"};
+
   private final MathanLatexConfiguration configuration;
   private final Build build;
 
@@ -57,6 +74,36 @@ public class MathanLatexRunner {
    */
   private Map<String, Step> stepRegistry = new HashMap<>();
 
+  /**
+   * The {@link MathanLatexConfiguration#getProfile() profile} of the build.
+   */
+  private BuildProfile profile = BuildProfile.RELEASE;
+
+  /**
+   * The cache for the results of steps or <code>null</code> if the action cache is disabled.
+   */
+  private ActionCache actionCache;
+
+  /**
+   * The version of the TeX distribution. Only determined if required.
+   */
+  private String toolchainVersion;
+
+  /**
+   * The directories of the {@link DependencyCache dependency cache} containing the dependencies if {@link MathanLatexConfiguration#isMountDependencies() mountDependencies} is enabled.
+   */
+  private List<File> dependencyDirectories = Collections.emptyList();
+
+  /**
+   * The executors of steps ordered by their priority. Only discovered if required.
+   */
+  private List<StepExecutor> executors;
+
+  /**
+   * The steps creating additional output formats after all build steps were executed. The steps of each list only depend on the output of the previous lists and are executed in parallel.
+   */
+  private final List<List<Step>> conversionSteps = new ArrayList<>();
+
   public MathanLatexRunner(MathanLatexConfiguration configuration, Build build) {
     this.configuration = configuration;
     this.build = build;
@@ -69,6 +116,10 @@ public class MathanLatexRunner {
     final List<Step> stepsToExecute = configureSteps();
     build.getLog().info("[mathan] bin directory of tex distribution: " + configuration.getTexBin());
     build.getLog().info("[mathan] output format : " + configuration.getOutputFormat());
+    if (getOutputFormats().size() > 1) {
+      build.getLog().info("[mathan] additional output formats: " + String.join(",", getOutputFormats().subList(1, getOutputFormats().size())));
+      build.getLog().info("[mathan] conversion steps: " + conversionSteps.stream().flatMap(List::stream).map(Step::getId).collect(Collectors.joining(",")));
+    }
     build.getLog().info("[mathan] latex steps: " + String.join(",", configuration.getLatexSteps()));
     build.getLog().info("[mathan] build steps: " + String.join(",", configuration.getBuildSteps()));
 
@@ -77,14 +128,20 @@ public class MathanLatexRunner {
 
     executeSteps(stepsToExecute, texDirectory);
     // remove intermediate files
-    if (!configuration.isKeepIntermediateFiles()) {
-      File workingDirectory = new File(build.getBasedir(), "target/latex");
-      try {
-        FileUtils.deleteDirectory(workingDirectory);
-      } catch (IOException e) {
-        build.getLog().warn(String.format("Could not delete directory %s", workingDirectory.getAbsolutePath()));
-      }
+    cleanUp(new File(build.getBasedir(), "target/latex"));
+  }
+
+  /**
+   * Fills the persistent caches of the tools in the {@link MathanLatexConfiguration#getToolCacheDirectory() toolCacheDirectory}, see {@link ToolCaches}.
+   *
+   * @throws LatexExecutionException If the directory is not configured or a cache could not be warmed.
+   */
+  public void warmToolCaches() throws LatexExecutionException {
+    File directory = getToolCacheDirectory();
+    if (directory == null) {
+      throw new LatexExecutionException("No toolCacheDirectory configured");
     }
+    ToolCaches.warm(directory, configuration, build);
   }
 
   /**
@@ -97,61 +154,354 @@ public class MathanLatexRunner {
    */
   private void executeSteps(List<Step> stepsToExecute, File source) throws LatexExecutionException {
     File workingDirectory = createWorkingDirectory();
+    boolean success = false;
+    try {
+      executeSteps(stepsToExecute, source, workingDirectory);
+      success = true;
+    } finally {
+      releaseWorkingDirectory(workingDirectory, success);
+    }
+  }
+
+  private void executeSteps(List<Step> stepsToExecute, File source, File workingDirectory) throws LatexExecutionException {
     if (configuration.isEnableDependencyScan()) {
-      build.resolveDependencies(workingDirectory);
+      if (configuration.isMountDependencies()) {
+        dependencyDirectories = build.resolveDependencies(createDependencyCache());
+      } else {
+        build.resolveDependencies(workingDirectory);
+      }
     }
     copySources(source, workingDirectory);
+    if (configuration.isConvertImages() && stepsToExecute.stream().anyMatch(FigureExternalizer::isSupported)) {
+      // the images are only converted for LaTeX steps creating PDF documents
+      ImageConverter.execute(source, workingDirectory, getFigureCacheDirectory(), configuration, build);
+    }
+    boolean imageProxies = configuration.isImageProxies() && profile.isDraft();
+    if (imageProxies) {
+      ImageProxies.execute(workingDirectory, configuration.getImageProxySize(), getFigureCacheDirectory(), build);
+    }
     File mainFile = resolveMainFile(source, workingDirectory);
     build.getLog().info(String.format("[mathan] processing %s", mainFile.getName()));
-    FileWriter completeLog;
     String pureName = mainFile.getName().substring(0, mainFile.getName().lastIndexOf('.'));
-    completeLog = createLog(workingDirectory);
-    int stepCount = stepsToExecute.size();
-    for (int i = 0; i < stepCount; i++) {
-      Step step = stepsToExecute.get(i);
-      logHeader(completeLog, i + 1, stepCount, step);
-      executeStep(step, workingDirectory, mainFile);
-      appendLogTo(completeLog, workingDirectory, pureName, step);
+    // configure latex steps for the profile and the chapters to build
+    String preamble = IncludeOnly.getPreamble(configuration.getIncludeOnly(), workingDirectory, pureName, build);
+    stepRegistry.values().forEach(step -> profile.configure(step, preamble, imageProxies, configuration.isScanDocument()));
+    int stepCount = stepsToExecute.size() + (int) conversionSteps.stream().mapToLong(List::size).sum();
+    actionCache = createActionCache();
+    try (AggregatedLog completeLog = createLog(workingDirectory)) {
+      int i = 0;
+      // the state of the auxiliary files after the last LaTeX pass, only set if this pass did not change them
+      String auxiliaryState = null;
+      boolean figuresExternalized = false;
+      for (int j = 0; j < stepsToExecute.size(); j++) {
+        Step step = stepsToExecute.get(j);
+        Step next = j + 1 < stepsToExecute.size() ? stepsToExecute.get(j + 1) : null;
+        if (isLatexPass(step)) {
+          String state = null;
+          if (profile.isSkipConvergedPasses()) {
+            state = getAuxiliaryState(workingDirectory);
+            if (state.equals(auxiliaryState)) {
+              build.getLog().info("[mathan] execution skipped, auxiliary files converged: " + step.getId());
+              appendLogTo(completeLog, ++i, stepCount, workingDirectory, pureName, step);
+              continue;
+            }
+          }
+          executeStep(step, workingDirectory, mainFile);
+          appendLogTo(completeLog, ++i, stepCount, workingDirectory, pureName, step);
+          // the document converged if the pass read the same auxiliary files it has written
+          auxiliaryState = state != null && state.equals(getAuxiliaryState(workingDirectory)) ? state : null;
+          if (configuration.isExternalizeFigures() && !figuresExternalized && FigureExternalizer.isSupported(step)) {
+            figuresExternalized = true;
+            if (externalizeFigures(step, workingDirectory, mainFile) > 0) {
+              // the next pass has to include the compiled figures
+              auxiliaryState = null;
+            }
+          }
+        } else if (next != null && isPipeline(step, next)) {
+          executePipeline(step, next, workingDirectory, mainFile);
+          appendLogTo(completeLog, ++i, stepCount, workingDirectory, pureName, step);
+          appendLogTo(completeLog, ++i, stepCount, workingDirectory, pureName, next);
+          j++;
+        } else {
+          executeStep(step, workingDirectory, mainFile);
+          appendLogTo(completeLog, ++i, stepCount, workingDirectory, pureName, step);
+        }
+      }
+      for (List<Step> steps : conversionSteps) {
+        executeStepsInParallel(steps, workingDirectory, mainFile);
+        for (Step step : steps) {
+          appendLogTo(completeLog, ++i, stepCount, workingDirectory, pureName, step);
+        }
+      }
+    } catch (IOException e) {
+      throw new LatexExecutionException("Could not write " + AggregatedLog.LOG_NAME, e);
     }
-    closeLog(completeLog);
-    provideArtifact(workingDirectory, pureName);
-    cleanUp(workingDirectory);
+    List<String> outputFormats = getOutputFormats();
+    if (configuration.isOptimizePdf() && outputFormats.contains(Constants.FORMAT_PDF)) {
+      PdfOptimizer.execute(new File(workingDirectory, pureName + "." + Constants.FORMAT_PDF), configuration, build);
+    }
+    build.setArtifact(provideArtifact(workingDirectory, pureName, outputFormats.get(0)));
+    for (String outputFormat : outputFormats.subList(1, outputFormats.size())) {
+      build.attachArtifact(provideArtifact(workingDirectory, pureName, outputFormat), outputFormat);
+    }
+  }
+
+  /**
+   * Compiles the figures externalized by the document after the first LaTeX pass, see {@link FigureExternalizer}.
+   *
+   * @return The number of figures written to the working directory.
+   */
+  private int externalizeFigures(Step step, File workingDirectory, File texFile) throws LatexExecutionException {
+    String baseName = texFile.getName().substring(0, texFile.getName().lastIndexOf('.'));
+    return FigureExternalizer.execute(step, workingDirectory, texFile, createEnvironment(step, workingDirectory, baseName), getFigureCacheDirectory(), dependencyDirectories,
+        getToolchainFingerprint(), configuration, build);
+  }
+
+  /**
+   * Returns the directory of the persistent caches of the tools or <code>null</code> if the tools use their default caches.
+   */
+  private File getToolCacheDirectory() {
+    String location = configuration.getToolCacheDirectory();
+    if (location == null || location.isEmpty()) {
+      return null;
+    }
+    File directory = new File(location);
+    return directory.isAbsolute() ? directory : new File(build.getBasedir(), location);
   }
 
-  private void provideArtifact(File workingDirectory, String pureName) throws LatexExecutionException {
-    File outputFile = new File(workingDirectory, pureName + "." + configuration.getOutputFormat());
+  /**
+   * Returns the directory of the cache for externalized figures, converted images and image proxies.
+   */
+  private File getFigureCacheDirectory() {
+    String location = configuration.getFigureCacheDirectory();
+    File directory = new File(location == null || location.isEmpty() ? FigureExternalizer.DEFAULT_DIRECTORY : location);
+    if (!directory.isAbsolute()) {
+      directory = new File(build.getBasedir(), directory.getPath());
+    }
+    return directory;
+  }
+
+  /**
+   * Checks if the given step is a LaTeX pass reading the source document.
+   */
+  private boolean isLatexPass(Step step) {
+    return Constants.FORMAT_TEX.equals(step.getInputFormat());
+  }
+
+  /**
+   * Returns the state of the auxiliary files written by the LaTeX passes (e.g. the .aux and .toc files) and read by the next pass. If a pass did not change the state, the document converged and a
+   * further pass reading the same state would produce the same output.
+   */
+  private String getAuxiliaryState(File workingDirectory) throws LatexExecutionException {
+    List<File> files = new ArrayList<>(FileUtils.listFiles(workingDirectory, AUXILIARY_EXTENSIONS, true));
+    files.sort(Comparator.comparing(File::getPath));
+    try {
+      Map<File, String> fingerprints = new FileFingerprints().get(files);
+      return files.stream().map(file -> file.getPath() + '=' + fingerprints.get(file)).collect(Collectors.joining("\n"));
+    } catch (IOException e) {
+      throw new LatexExecutionException("Could not read auxiliary files", e);
+    }
+  }
+
+  /**
+   * Checks if the given steps are executed as a {@link StepPipeline pipeline}. This requires {@link MathanLatexConfiguration#isPipelineSteps() pipelineSteps} to be enabled, both steps to be able to
+   * stream and to be executed by the {@link ProcessStepExecutor}. The output of the first step must not be one of the output formats of the build.
+   */
+  private boolean isPipeline(Step producer, Step consumer) {
+    return configuration.isPipelineSteps() && StepPipeline.canStream(producer, consumer) && !getOutputFormats().contains(producer.getOutputFormat())
+        && getExecutor(producer) instanceof ProcessStepExecutor && getExecutor(consumer) instanceof ProcessStepExecutor;
+  }
+
+  /**
+   * Executes the given steps as a {@link StepPipeline pipeline}. If the pipeline fails, the steps are executed one after another using the intermediate file, so errors are reported like for any other
+   * step.
+   */
+  private void executePipeline(Step producer, Step consumer, File workingDirectory, File texFile) throws LatexExecutionException {
+    String baseName = texFile.getName().substring(0, texFile.getName().lastIndexOf('.'));
+    try {
+      if (StepPipeline.execute(producer, consumer, workingDirectory, texFile, createEnvironment(producer, workingDirectory, baseName), configuration, build)) {
+        return;
+      }
+      build.getLog().info(String.format("[mathan] pipeline %s | %s failed, executing the steps using files", producer.getId(), consumer.getId()));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LatexExecutionException("Building the project: ", e);
+    } catch (IOException e) {
+      build.getLog().info(String.format("[mathan] pipeline %s | %s failed, executing the steps using files", producer.getId(), consumer.getId()), e);
+    }
+    executeStep(producer, workingDirectory, texFile);
+    executeStep(consumer, workingDirectory, texFile);
+  }
+
+  /**
+   * Executes the given steps in parallel. The steps must not depend on each other.
+   *
+   * @param steps The steps to execute.
+   * @param workingDirectory The working directory.
+   * @param texFile The LaTeX source document.
+   * @throws LatexExecutionException If the execution of at least one step failed.
+   */
+  private void executeStepsInParallel(List<Step> steps, File workingDirectory, File texFile) throws LatexExecutionException {
+    if (steps.size() == 1) {
+      executeStep(steps.get(0), workingDirectory, texFile);
+      return;
+    }
+    ExecutorService executorService = Executors.newFixedThreadPool(Math.min(steps.size(), Runtime.getRuntime().availableProcessors()));
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (Step step : steps) {
+        futures.add(executorService.submit(() -> {
+          executeStep(step, workingDirectory, texFile);
+          return null;
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LatexExecutionException("Building the project: ", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof LatexExecutionException) {
+        throw (LatexExecutionException) e.getCause();
+      }
+      throw new LatexExecutionException("Building the project: ", e.getCause());
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  /**
+   * Copies the output document of the given format to the target directory.
+   *
+   * @return The artifact in the target directory.
+   */
+  private File provideArtifact(File workingDirectory, String pureName, String outputFormat) throws LatexExecutionException {
+    File outputFile = new File(workingDirectory, pureName + "." + outputFormat);
     try {
       File targetDirectory = new File(build.getBasedir(), "target");
-      String artifactName = String.format("%s-%s.%s", build.getArtifactId(), build.getVersion(), configuration.getOutputFormat());
+      String artifactName = String.format("%s-%s.%s", build.getArtifactId(), build.getVersion(), outputFormat);
       File artifact = new File(targetDirectory, artifactName);
       FileUtils.copyFile(outputFile, artifact);
-      build.setArtifact(artifact);
+      return artifact;
     } catch (IOException e) {
       throw new LatexExecutionException(String.format("Could not copy output file %s to target.", outputFile.getAbsolutePath()), e);
     }
   }
 
+  /**
+   * Removes the intermediate files if they are not kept. If the document is {@link MathanLatexConfiguration#isScanDocument() scanned}, the files written by the file recorder of TeX are kept for the
+   * next scan.
+   */
   private void cleanUp(File workingDirectory) {
     if (!configuration.isKeepIntermediateFiles()) {
       try {
-        FileUtils.deleteDirectory(workingDirectory);
+        if (configuration.isScanDocument()) {
+          File[] files = workingDirectory.listFiles(file -> !isRecorderFile(file));
+          for (File file : files == null ? new File[0] : files) {
+            FileUtils.forceDelete(file);
+          }
+        } else {
+          FileUtils.deleteDirectory(workingDirectory);
+        }
       } catch (IOException e) {
         build.getLog().warn(String.format("Could not delete directory %s", workingDirectory.getAbsolutePath()), e);
       }
     }
   }
 
+  private static boolean isRecorderFile(File file) {
+    return file.isFile() && file.getName().endsWith("." + Constants.FORMAT_FLS);
+  }
+
+  /**
+   * Creates the working directory of the build. By default this is target/latex. If a {@link MathanLatexConfiguration#getScratchDirectory() scratch directory} is configured, a unique working
+   * directory is created within the scratch directory instead. If intermediate files are kept, the intermediate files of the last build are copied from target/latex into this directory.
+   */
   private File createWorkingDirectory() throws LatexExecutionException {
     File workingDirectory = new File(build.getBasedir(), "target/latex/");
+    File scratchDirectory = getScratchDirectory();
+    if (scratchDirectory != null) {
+      try {
+        FileUtils.forceMkdir(scratchDirectory);
+        File directory = Files.createTempDirectory(scratchDirectory.toPath(), "mathan-" + build.getArtifactId() + "-").toFile();
+        build.getLog().info("[mathan] working directory: " + directory.getAbsolutePath());
+        if (configuration.isKeepIntermediateFiles() && workingDirectory.isDirectory()) {
+          FileUtils.copyDirectory(workingDirectory, directory);
+        }
+        return directory;
+      } catch (IOException e) {
+        throw new LatexExecutionException(String.format("Could not create working directory in %s", scratchDirectory.getAbsolutePath()), e);
+      }
+    }
     if (!workingDirectory.exists() && !workingDirectory.mkdirs()) {
       throw new LatexExecutionException(String.format("Could not create directory %s", workingDirectory.getAbsolutePath()));
     }
     return workingDirectory;
   }
 
+  private File getScratchDirectory() {
+    String location = configuration.getScratchDirectory();
+    if (location == null || location.isEmpty()) {
+      return null;
+    }
+    File directory = new File(location);
+    return directory.isAbsolute() ? directory : new File(build.getBasedir(), location);
+  }
+
+  /**
+   * Removes the working directory after the build. A working directory within the {@link MathanLatexConfiguration#getScratchDirectory() scratch directory} is always removed. Its files are copied
+   * to target/latex before if intermediate files are kept or the build failed, so they can be reviewed like without scratch directory. Otherwise only the files written by the file recorder of TeX
+   * are copied if the document is scanned.
+   *
+   * @param workingDirectory The working directory.
+   * @param success <code>True</code> if the build finished successfully.
+   */
+  private void releaseWorkingDirectory(File workingDirectory, boolean success) {
+    if (getScratchDirectory() == null) {
+      if (success) {
+        cleanUp(workingDirectory);
+      }
+      return;
+    }
+    File directory = new File(build.getBasedir(), "target/latex");
+    try {
+      if (configuration.isKeepIntermediateFiles() || !success) {
+        FileUtils.deleteDirectory(directory);
+        FileUtils.copyDirectory(workingDirectory, directory);
+      } else if (configuration.isScanDocument()) {
+        // the files written by the file recorder of TeX are used by the next scan of the document
+        FileUtils.deleteDirectory(directory);
+        FileUtils.copyDirectory(workingDirectory, directory, MathanLatexRunner::isRecorderFile);
+      }
+    } catch (IOException e) {
+      build.getLog().warn(String.format("Could not copy intermediate files to %s", directory.getAbsolutePath()), e);
+    } finally {
+      try {
+        FileUtils.deleteDirectory(workingDirectory);
+      } catch (IOException e) {
+        build.getLog().warn(String.format("Could not delete directory %s", workingDirectory.getAbsolutePath()), e);
+      }
+    }
+  }
 
+  /**
+   * Copies the sources to the working directory. If {@link MathanLatexConfiguration#isScanDocument() scanDocument} is enabled, only the files of the {@link DocumentGraph graph} of the document are
+   * copied. If the graph is incomplete, all files are copied.
+   */
   private void copySources(File source, File workingDirectory) throws LatexExecutionException {
     try {
+      if (configuration.isScanDocument()) {
+        DocumentGraph graph = DocumentGraph.scan(source, configuration.getTexFile(), workingDirectory, configuration.getMakeIndexStyleFile(), configuration.getMakeIndexNomenclStyleFile());
+        if (graph.isComplete()) {
+          build.getLog().info(String.format("[mathan] copying %s files referenced by %s", graph.getFiles().size(), graph.getMainFile()));
+          for (String file : graph.getFiles()) {
+            FileUtils.copyFile(new File(source, file), new File(workingDirectory, file));
+          }
+          return;
+        }
+        build.getLog().info("[mathan] copying all sources, reference cannot be resolved: " + graph.getDynamicReferences().get(0));
+      }
       FileUtils.copyDirectory(source, workingDirectory);
     } catch (IOException e) {
       throw new LatexExecutionException(String.format("Could not copy context from %s to %s", source.getAbsolutePath(), workingDirectory.getAbsolutePath()));
@@ -172,48 +522,60 @@ public class MathanLatexRunner {
     return mainFile;
   }
 
-  private FileWriter createLog(File workingDirectory) throws LatexExecutionException {
-    FileWriter completeLog;
-    try {
-      completeLog = new FileWriter(new File(workingDirectory, "mathan-latex-mojo.log"), true);
-    } catch (IOException e) {
-      throw new LatexExecutionException("Could not create mathan-latext-mojo.log", e);
+  private ActionCache createActionCache() {
+    if (!configuration.isEnableActionCache()) {
+      return null;
+    }
+    String location = configuration.getActionCacheDirectory();
+    File directory = new File(location == null || location.isEmpty() ? ActionCache.DEFAULT_DIRECTORY : location);
+    if (!directory.isAbsolute()) {
+      directory = new File(build.getBasedir(), directory.getPath());
     }
-    return completeLog;
+    build.getLog().info("[mathan] action cache: " + directory.getAbsolutePath());
+    return new ActionCache(directory, getToolchainFingerprint(), dependencyDirectories, configuration.getTexBin());
   }
 
-  private void closeLog(FileWriter completeLog) throws LatexExecutionException {
-    try {
-      completeLog.close();
-    } catch (IOException e) {
-      throw new LatexExecutionException("Could not write mathan-latext-mojo.log", e);
+  private DependencyCache createDependencyCache() {
+    String location = configuration.getDependencyCacheDirectory();
+    File directory = new File(location == null || location.isEmpty() ? DependencyCache.DEFAULT_DIRECTORY : location);
+    if (!directory.isAbsolute()) {
+      directory = new File(build.getBasedir(), directory.getPath());
     }
+    build.getLog().info("[mathan] dependency cache: " + directory.getAbsolutePath());
+    return new DependencyCache(directory);
   }
 
-  private void logHeader(FileWriter completeLog, int i, int stepCount, Step step) throws LatexExecutionException {
+  /**
+   * Returns the version of the TeX distribution and the mounted dependencies. Files of mounted dependencies are not part of the working directory, so the key of cached actions also depends on the
+   * directories of the dependencies. Their names change if the dependencies change.
+   */
+  private String getToolchainFingerprint() {
+    if (dependencyDirectories.isEmpty()) {
+      return getToolchainVersion();
+    }
+    return getToolchainVersion() + "\n" + dependencyDirectories.stream().map(File::getName).collect(Collectors.joining(","));
+  }
+
+  private String getToolchainVersion() {
+    if (toolchainVersion == null) {
+      toolchainVersion = Utils.getToolchainVersion(configuration.getTexBin());
+    }
+    return toolchainVersion;
+  }
+
+  private AggregatedLog createLog(File workingDirectory) throws LatexExecutionException {
     try {
-      completeLog.write("##################################################\n");
-      completeLog.write(String.format("# Step %s/%s %s\n", i, stepCount, step.getId()));
-      completeLog.write("##################################################\n");
+      return new AggregatedLog(workingDirectory, configuration.isCompressLog());
     } catch (IOException e) {
-      throw new LatexExecutionException("Could not write mathan-latext-mojo.log", e);
+      throw new LatexExecutionException("Could not create " + AggregatedLog.LOG_NAME, e);
     }
   }
 
-  private void appendLogTo(FileWriter completeLog, File workingDirectory, String pureName, Step step) throws LatexExecutionException {
-    if (step.getLogExtension() == null) {
-      return;
-    }
-    File stepLog = new File(workingDirectory, pureName + "." + step.getLogExtension());
-    if (stepLog.exists()) {
-      try {
-        FileReader reader = new FileReader(stepLog);
-        IOUtils.copy(reader, completeLog);
-        reader.close();
-        stepLog.delete();
-      } catch (IOException e) {
-        throw new LatexExecutionException("Could not write mathan-latext-mojo.log", e);
-      }
+  private void appendLogTo(AggregatedLog completeLog, int i, int stepCount, File workingDirectory, String pureName, Step step) throws IOException {
+    File stepLog = step.getLogExtension() == null ? null : new File(workingDirectory, pureName + "." + step.getLogExtension());
+    completeLog.append(i, stepCount, step, stepLog);
+    if (stepLog != null && stepLog.exists() && !stepLog.delete()) {
+      build.getLog().warn(String.format("Could not delete %s", stepLog.getAbsolutePath()));
     }
   }
 
@@ -230,14 +592,18 @@ public class MathanLatexRunner {
     configureOutputFormat();
     // setup step registry
     configureStepRegistry();
+    // check profile
+    profile = BuildProfile.fromId(configuration.getProfile());
+    // configure pre-defined steps
+    configureStyleFile(Step.STEP_MAKEINDEX.getId(), configuration.getMakeIndexStyleFile());
+    configureStyleFile(Step.STEP_MAKEINDEXNOMENCL.getId(), configuration.getMakeIndexNomenclStyleFile());
     // setup latex steps
     List<Step> listLatexSteps = configureLatexSteps();
     List<Step> listExecutables = new ArrayList<>(listLatexSteps);
     // setup build steps
     final List<Step> listBuildSteps = configureBuildSteps(listLatexSteps, listExecutables);
-    // configure pre-defined steps
-    configureStyleFile(Step.STEP_MAKEINDEX, configuration.getMakeIndexStyleFile());
-    configureStyleFile(Step.STEP_MAKEINDEXNOMENCL, configuration.getMakeIndexNomenclStyleFile());
+    // setup steps for additional output formats
+    configureConversionSteps(listLatexSteps, listExecutables);
     // check if executables are available
     checkExecutables(listExecutables);
     return listBuildSteps;
@@ -245,7 +611,7 @@ public class MathanLatexRunner {
 
   private List<Step> configureBuildSteps(List<Step> listLatexSteps, List<Step> listExecutables) throws LatexExecutionException {
     if (configuration.getBuildSteps() == null) {
-      configuration.setBuildSteps(DEFAULT_BUILD_STEPS);
+      configuration.setBuildSteps(DEFAULT_BUILD_STEPS.clone());
     }
     List<Step> listBuildSteps = new ArrayList<>();
     for (String buildStep : configuration.getBuildSteps()) {
@@ -263,8 +629,39 @@ public class MathanLatexRunner {
     return listBuildSteps;
   }
 
+  /**
+   * Configures the steps creating the additional output formats from the output of the LaTeX steps. A format is created by the first {@link #CONVERSION_STEPS conversion step} whose input is
+   * available, so several formats may be created from the same dvi file. The output of a conversion step can be the input of a conversion step executed afterwards (e.g. dvips and ps2pdf).
+   */
+  private void configureConversionSteps(List<Step> listLatexSteps, List<Step> listExecutables) throws LatexExecutionException {
+    List<String> outputFormats = getOutputFormats();
+    if (outputFormats.size() == 1) {
+      return;
+    }
+    Set<String> availableFormats = listLatexSteps.stream().map(Step::getOutputFormat).collect(Collectors.toSet());
+    List<String> missingFormats = outputFormats.stream().filter(format -> !availableFormats.contains(format)).collect(Collectors.toList());
+    while (!missingFormats.isEmpty()) {
+      List<Step> steps = new ArrayList<>();
+      for (String format : missingFormats) {
+        CONVERSION_STEPS.stream().map(stepRegistry::get).filter(step -> availableFormats.contains(step.getInputFormat()) && format.equals(step.getOutputFormat())).findFirst()
+            .ifPresent(steps::add);
+      }
+      if (steps.isEmpty()) {
+        throw new LatexExecutionException(String.format("Output format %s cannot be created from the output of the latex steps %s.", String.join(",", missingFormats),
+            String.join(",", configuration.getLatexSteps())));
+      }
+      steps.forEach(step -> availableFormats.add(step.getOutputFormat()));
+      missingFormats.removeIf(availableFormats::contains);
+      conversionSteps.add(steps);
+      listExecutables.addAll(steps);
+    }
+  }
+
   private List<Step> configureLatexSteps() throws LatexExecutionException {
-    if (configuration.getLatexSteps() == null) {
+    if (configuration.getLatexSteps() == null && getOutputFormats().size() > 1) {
+      // all output formats can be created from the dvi file
+      configuration.setLatexSteps(new String[]{Step.STEP_LATEX.getId()});
+    } else if (configuration.getLatexSteps() == null) {
       switch (configuration.getOutputFormat()) {
         case Constants.FORMAT_DVI:
           configuration.setLatexSteps(new String[]{Step.STEP_LATEX.getId()});
@@ -290,10 +687,13 @@ public class MathanLatexRunner {
     return listLatexSteps;
   }
 
+  /**
+   * Sets up the {@link #stepRegistry step registry} of this runner. The registry contains copies of all steps, so that the configuration of a step for this build does not affect other builds.
+   */
   private void configureStepRegistry() {
-    DEFAULT_EXECUTABLES.forEach(e -> stepRegistry.put(e.getId(), e));
+    DEFAULT_EXECUTABLES.forEach(e -> stepRegistry.put(e.getId(), new Step(e)));
     if (configuration.getSteps() != null) {
-      Arrays.asList(configuration.getSteps()).forEach(e -> stepRegistry.put(e.getId(), e));
+      Arrays.asList(configuration.getSteps()).forEach(e -> stepRegistry.put(e.getId(), new Step(e)));
     }
   }
 
@@ -301,9 +701,23 @@ public class MathanLatexRunner {
     if (configuration.getOutputFormat().length() == 0) {
       throw new LatexExecutionException("No outputFormat specified. Supported values are: dvi, pdf, ps.");
     }
-    if (!Arrays.asList(Constants.FORMAT_DVI, Constants.FORMAT_PDF, Constants.FORMAT_PS).contains(configuration.getOutputFormat())) {
-      throw new LatexExecutionException(String.format("Invalid outputFormat '%s' specified. Supported values are: dvi, pdf, ps.", configuration.getOutputFormat()));
+    for (String outputFormat : getOutputFormats()) {
+      if (!Arrays.asList(Constants.FORMAT_DVI, Constants.FORMAT_PDF, Constants.FORMAT_PS).contains(outputFormat)) {
+        throw new LatexExecutionException(String.format("Invalid outputFormat '%s' specified. Supported values are: dvi, pdf, ps.", outputFormat));
+      }
+    }
+  }
+
+  /**
+   * Returns the output format followed by the additional output formats without duplicates.
+   */
+  private List<String> getOutputFormats() {
+    Set<String> outputFormats = new LinkedHashSet<>();
+    outputFormats.add(configuration.getOutputFormat());
+    if (configuration.getAdditionalOutputFormats() != null) {
+      outputFormats.addAll(Arrays.asList(configuration.getAdditionalOutputFormats()));
     }
+    return new ArrayList<>(outputFormats);
   }
 
   private void configureSourceDirectory() throws LatexExecutionException {
@@ -314,13 +728,15 @@ public class MathanLatexRunner {
   }
 
   /**
-   * Checks, if the given executables can be executed by finding the executables either in the configured {@link MathanLatexConfiguration#getTexBin()}  bin directory} or on PATH.
+   * Checks, if the given executables can be executed by finding the executables either in the configured {@link MathanLatexConfiguration#getTexBin()}  bin directory} or on PATH. Steps executed by
+   * a {@link StepExecutor} not {@link StepExecutor#requiresExecutable() requiring the executable} are not checked.
    *
    * @param listExecutables The executables to check.
    * @throws LatexExecutionException If at least one executable cannot be executed.
    */
   private void checkExecutables(List<Step> listExecutables) throws LatexExecutionException {
-    List<Step> stepsToFail = listExecutables.stream().filter(step -> Utils.getExecutable(configuration.getTexBin(), step.getOperatingSystemName()) == null).collect(Collectors.toList());
+    List<Step> stepsToFail = listExecutables.stream().filter(step -> getExecutor(step).requiresExecutable())
+        .filter(step -> Utils.getExecutable(configuration.getTexBin(), step.getOperatingSystemName()) == null).collect(Collectors.toList());
     stepsToFail
         .forEach(step -> build.getLog().error(String.format("Step %s cannot be executed. Executable neither found in configured texBin '%s' nor on PATH", step.getId(), configuration.getTexBin())));
     if (!stepsToFail.isEmpty()) {
@@ -330,9 +746,13 @@ public class MathanLatexRunner {
 
   /**
    * Special configuration for a step with a placeholder %style. This can be used to specify a certain style file for either {@link Step#STEP_MAKEINDEX} or @{@link Step#STEP_MAKEINDEXNOMENCL}. If a
-   * style file is set, this is appended to the arguments of the executable. Otherwise no style file will be used.
+   * style file is set, this is appended to the arguments of the executable. Otherwise no style file will be used. Only the copy of the step in the {@link #stepRegistry step registry} is modified.
    */
-  private void configureStyleFile(Step step, String styleFile) {
+  private void configureStyleFile(String stepId, String styleFile) {
+    Step step = stepRegistry.get(stepId);
+    if (step == null || step.getArguments() == null) {
+      return;
+    }
     String arguments = step.getArguments();
     if (styleFile == null || styleFile.isEmpty()) {
       arguments = arguments.replaceAll("-s\\s+%style", "");
@@ -343,8 +763,9 @@ public class MathanLatexRunner {
   }
 
   /**
-   * Executes a single step and executes the configured command with the specified input file. If the step is {@link Step#isOptional() is optional} the step is not executed if the input file is not
-   * found. E.g. if bibtex step is executed and there are no references defined.
+   * Executes a single step with the {@link #getExecutor(StepExecution) executor} of the step, by default the configured command is executed with the specified input file. If the step is {@link
+   * Step#isOptional() is optional} the step is not executed if the input file is not found. E.g. if bibtex step is executed and there are no references defined. If the {@link ActionCache action
+   * cache} is enabled and contains the results of the step for the current input files, the results are restored instead of executing the step.
    *
    * @param executionStep The step to execute.
    * @param workingDirectory The working directory for the command execution.
@@ -352,25 +773,46 @@ public class MathanLatexRunner {
    * @throws LatexExecutionException If an error occurred during the execution of the command.
    */
   private void executeStep(Step executionStep, File workingDirectory, File texFile) throws LatexExecutionException {
-    File exec = Utils.getExecutable(configuration.getTexBin(), executionStep.getOperatingSystemName());
-    // split command into array
-    List<String> list = new ArrayList<>();
-    list.add(exec.getAbsolutePath());
-    Utils.tokenizeEscapedString(Step.getArguments(executionStep, texFile), list);
-    String[] command = list.toArray(new String[0]);
-
-    String prefix = "[mathan][" + executionStep.getId() + "]";
-
+    String baseName = texFile.getName().substring(0, texFile.getName().lastIndexOf('.'));
+    String fingerprint = null;
+    if (configuration.isSkipUnchangedBibliography() && BibliographyFingerprint.isSupported(executionStep)) {
+      fingerprint = createFingerprint(executionStep, workingDirectory, baseName);
+      if (fingerprint != null && isBibliographyUnchanged(executionStep, workingDirectory, baseName, fingerprint)) {
+        build.getLog().info("[mathan] execution skipped, bibliography unchanged: " + executionStep.getId());
+        return;
+      }
+    }
+    // the environment is not required for choosing the executor, so it is only created if the step is not restored from the action cache
+    StepExecutor executor = getExecutor(new StepExecution(executionStep, workingDirectory, texFile, Collections.emptyMap(), configuration, build));
+    String key = null;
+    if (actionCache != null && ActionCache.isCacheable(executionStep)) {
+      try {
+        key = actionCache.key(executionStep, executor, workingDirectory, baseName);
+        if (key != null && actionCache.restore(key, executionStep, workingDirectory, baseName)) {
+          build.getLog().info("[mathan] execution restored from cache: " + executionStep.getId());
+          writeFingerprint(executionStep, workingDirectory, baseName, fingerprint);
+          return;
+        }
+      } catch (IOException e) {
+        build.getLog().warn(String.format("[mathan] Could not restore %s from action cache", executionStep.getId()), e);
+        key = null;
+      }
+    }
+    Map<String, String> environment = createEnvironment(executionStep, workingDirectory, baseName);
+    StepExecution execution = new StepExecution(extractCitedEntries(executionStep, workingDirectory, baseName, environment), workingDirectory, texFile, environment, configuration, build);
     File inputFile = Step.getInputFile(executionStep, texFile);
     int exitValue = 0;
     try {
-      build.getLog().info("[mathan] execution: " + executionStep.getId());
-      build.getLog().info(Arrays.toString(command));
-      exitValue = new ProcessExecutor().command(command).directory(workingDirectory).redirectOutput(build.getRedirectOutput(prefix))
-          .redirectError(build.getRedirectError(prefix)).destroyOnExit().execute().getExitValue();
+      exitValue = executor.execute(execution);
+    } catch (LatexExecutionException e) {
+      throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LatexExecutionException("Building the project: ", e);
     } catch (Exception e) {
       if (executionStep.isOptional()) {
         build.getLog().info("[mathan] execution skipped: " + executionStep.getId());
+        return;
       } else {
         throw new LatexExecutionException("Building the project: ", e);
       }
@@ -378,14 +820,175 @@ public class MathanLatexRunner {
     if (exitValue != 0) {
       if (inputFile.exists()) {
         if (configuration.isHaltOnError()) {
-          throw new LatexExecutionException(String.format("Execution of step %s failed. Process finished with exit code %s.", executionStep.getId(), exitValue));
+          File output = execution.getFile(executionStep.getId() + ".out");
+          throw new LatexExecutionException(String.format("Execution of step %s failed. Process finished with exit code %s.", executionStep.getId(), exitValue)
+              + (configuration.isRedirectOutputToFile() && output.isFile() ? String.format(" See %s for details.", output.getName()) : ""));
         } else {
           build.getLog().info(String.format("[mathan] execution finished with exit code=%s: %s", exitValue, executionStep.getId()));
         }
       } else {
         build.getLog().info("[mathan] execution skipped: " + executionStep.getId());
       }
+    } else {
+      storeResult(executionStep, workingDirectory, baseName, key, fingerprint);
     }
   }
 
+  /**
+   * Stores the fingerprint and the result of a step in the action cache after the step finished successfully.
+   */
+  private void storeResult(Step executionStep, File workingDirectory, String baseName, String key, String fingerprint) {
+    writeFingerprint(executionStep, workingDirectory, baseName, fingerprint);
+    if (key != null) {
+      try {
+        actionCache.store(key, executionStep, workingDirectory, baseName);
+      } catch (IOException e) {
+        build.getLog().warn(String.format("[mathan] Could not store %s in action cache", executionStep.getId()), e);
+      }
+    }
+  }
+
+  /**
+   * Returns the executor with the highest priority supporting the given step with the current configuration. This is either a {@link StepExecutor} discovered with the {@link ServiceLoader} or the
+   * {@link ProcessStepExecutor} as default.
+   */
+  private StepExecutor getExecutor(Step step) {
+    return getExecutors().stream().filter(executor -> executor.supports(step, configuration)).findFirst().orElseThrow(IllegalStateException::new);
+  }
+
+  /**
+   * Returns the executor with the highest priority supporting and accepting the given execution of a step.
+   */
+  private StepExecutor getExecutor(StepExecution execution) {
+    return getExecutors().stream().filter(executor -> executor.supports(execution.getStep(), configuration) && executor.accepts(execution)).findFirst()
+        .orElseThrow(IllegalStateException::new);
+  }
+
+  private List<StepExecutor> getExecutors() {
+    if (executors == null) {
+      executors = new ArrayList<>();
+      ServiceLoader.load(StepExecutor.class, StepExecutor.class.getClassLoader()).forEach(executors::add);
+      executors.add(new ProcessStepExecutor());
+      executors.sort(Comparator.comparingInt(StepExecutor::getPriority).reversed());
+    }
+    return executors;
+  }
+
+  /**
+   * Creates the additional environment variables for the execution of the given step. If {@link MathanLatexConfiguration#isMountDependencies() mountDependencies} is enabled, the search paths of TeX
+   * contain the working directory followed by the directories of the dependencies, so files of the sources take precedence. If the {@link MathanLatexConfiguration#getToolCacheDirectory()
+   * toolCacheDirectory} is set, the {@link ToolCaches caches of the tools} are located there.
+   *
+   * @return The additional environment variables.
+   */
+  private Map<String, String> createEnvironment(Step executionStep, File workingDirectory, String baseName) {
+    Map<String, String> environment = new HashMap<>();
+    File toolCacheDirectory = getToolCacheDirectory();
+    if (toolCacheDirectory != null) {
+      environment.putAll(ToolCaches.getEnvironment(toolCacheDirectory));
+    }
+    if (!dependencyDirectories.isEmpty()) {
+      for (String variable : new String[]{Constants.TEXINPUTS, Constants.BIBINPUTS, Constants.BSTINPUTS, Constants.INDEXSTYLE}) {
+        environment.put(variable, createSearchPath(".", "//", variable));
+      }
+      environment.put(Constants.TEXMFDBS, createSearchPath(null, "", Constants.TEXMFDBS));
+    }
+    return environment;
+  }
+
+  /**
+   * Extracts the {@link BibliographySubset cited entries} for bibtex and biber if {@link MathanLatexConfiguration#isExtractCitedEntries() extractCitedEntries} is enabled. bibtex finds the reduced
+   * databases using BIBINPUTS, biber reads a copy of the .bcf file referencing them.
+   *
+   * @return The step to execute.
+   */
+  private Step extractCitedEntries(Step executionStep, File workingDirectory, String baseName, Map<String, String> environment) {
+    if (!configuration.isExtractCitedEntries() || !BibliographySubset.isSupported(executionStep)) {
+      return executionStep;
+    }
+    try {
+      File directory = BibliographySubset.extract(executionStep, workingDirectory, baseName, dependencyDirectories);
+      if (directory == null) {
+        return executionStep;
+      }
+      build.getLog().info("[mathan] using cited entries of bibliography: " + directory.getAbsolutePath());
+      if (Step.STEP_BIBTEX.getId().equals(executionStep.getId())) {
+        String bibInputs = environment.getOrDefault(Constants.BIBINPUTS, System.getenv(Constants.BIBINPUTS));
+        environment.put(Constants.BIBINPUTS, directory.getAbsolutePath() + File.pathSeparator + (bibInputs == null ? "" : bibInputs));
+      }
+      return BibliographySubset.getStep(executionStep);
+    } catch (IOException e) {
+      build.getLog().warn(String.format("[mathan] Could not extract cited entries for %s, using complete bibliography", executionStep.getId()), e);
+      return executionStep;
+    }
+  }
+
+  /**
+   * Creates a search path of kpathsea containing the given first element and the directories of the dependencies followed by the value of the environment variable. If the environment variable is not
+   * set, the search path ends with a separator, so kpathsea appends the default search path.
+   *
+   * @param first The first element or <code>null</code>.
+   * @param suffix The suffix for the directories, e.g. // for searching subdirectories.
+   * @param variable The environment variable.
+   * @return The search path.
+   */
+  private String createSearchPath(String first, String suffix, String variable) {
+    List<String> elements = new ArrayList<>();
+    if (first != null) {
+      elements.add(first);
+    }
+    dependencyDirectories.forEach(directory -> elements.add(directory.getAbsolutePath() + suffix));
+    String value = System.getenv(variable);
+    elements.add(value == null ? "" : value);
+    return String.join(File.pathSeparator, elements);
+  }
+
+  /**
+   * Creates the {@link BibliographyFingerprint fingerprint} of the bibliography for bibtex or biber including the version of the TeX distribution.
+   *
+   * @return The fingerprint or <code>null</code> if it could not be created.
+   */
+  private String createFingerprint(Step executionStep, File workingDirectory, String baseName) {
+    try {
+      String fingerprint = BibliographyFingerprint.create(executionStep, workingDirectory, baseName, dependencyDirectories, configuration.getTexBin());
+      return fingerprint == null ? null : Utils.sha256(getToolchainFingerprint() + "\n" + fingerprint);
+    } catch (IOException e) {
+      build.getLog().warn(String.format("[mathan] Could not create fingerprint of bibliography for %s", executionStep.getId()), e);
+      return null;
+    }
+  }
+
+  /**
+   * Checks if the fingerprint of the last successful execution of the step is equal to the given fingerprint. Otherwise the fingerprint of the last execution is removed, so it is only available again
+   * if the step finishes successfully.
+   */
+  private boolean isBibliographyUnchanged(Step executionStep, File workingDirectory, String baseName, String fingerprint) {
+    File fingerprintFile = getFingerprintFile(executionStep, workingDirectory, baseName);
+    File bbl = new File(workingDirectory, baseName + "." + Constants.FORMAT_BBL);
+    try {
+      boolean unchanged = bbl.exists() && fingerprintFile.exists() && fingerprint.equals(new String(Files.readAllBytes(fingerprintFile.toPath()), StandardCharsets.US_ASCII));
+      if (!unchanged) {
+        Files.deleteIfExists(fingerprintFile.toPath());
+      }
+      return unchanged;
+    } catch (IOException e) {
+      build.getLog().warn(String.format("[mathan] Could not read fingerprint of bibliography for %s", executionStep.getId()), e);
+      return false;
+    }
+  }
+
+  private void writeFingerprint(Step executionStep, File workingDirectory, String baseName, String fingerprint) {
+    if (fingerprint == null) {
+      return;
+    }
+    try {
+      Files.write(getFingerprintFile(executionStep, workingDirectory, baseName).toPath(), fingerprint.getBytes(StandardCharsets.US_ASCII));
+    } catch (IOException e) {
+      build.getLog().warn(String.format("[mathan] Could not write fingerprint of bibliography for %s", executionStep.getId()), e);
+    }
+  }
+
+  private File getFingerprintFile(Step executionStep, File workingDirectory, String baseName) {
+    return new File(workingDirectory, baseName + "." + executionStep.getId() + ".fingerprint");
+  }
 }
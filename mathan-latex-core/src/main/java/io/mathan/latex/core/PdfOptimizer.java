@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Optimizes the PDF document created by the final pass for {@link MathanLatexConfiguration#isOptimizePdf() distribution}. The document is rewritten by the optimizers found in the bin directory of
+ * the TeX distribution or on PATH in the following order:
+ *
+ * <ul>
+ * <li>Ghostscript recompresses the streams, removes duplicate images and subsets and compresses the fonts.</li>
+ * <li>qpdf recompresses the streams with the highest compression level, packs the objects into object streams and linearizes the document for fast web view.</li>
+ * </ul>
+ *
+ * <p>The optimized document replaces the document only if it is smaller. If no optimizer is available or an optimizer fails, the document is provided as created by the LaTeX steps. The size before
+ * and after the optimization is written to the build log.</p>
+ */
+class PdfOptimizer {
+
+  /**
+   * The optimizers in the order of execution. Each optimizer consists of the name of the executable and the arguments, %input and %output are replaced by the input and the output document.
+   */
+  private static final String[][] OPTIMIZERS = {
+      {"gs", "-q -dNOPAUSE -dBATCH -dSAFER -sDEVICE=pdfwrite -dAutoRotatePages=/None -dDetectDuplicateImages=true -dCompressFonts=true -dSubsetFonts=true -dFastWebView=true "
+          + "-sOutputFile=%output %input"},
+      {"qpdf", "--linearize --object-streams=generate --recompress-flate --compression-level=9 %input %output"}};
+
+  /**
+   * The exit code of qpdf if the document was written with warnings.
+   */
+  private static final int QPDF_WARNINGS = 3;
+
+  private PdfOptimizer() {
+  }
+
+  /**
+   * Optimizes the given PDF document.
+   *
+   * @param document The PDF document in the working directory.
+   * @param configuration The configuration of the build.
+   * @param build The build.
+   * @throws LatexExecutionException If the optimized document could not be written.
+   */
+  static void execute(File document, MathanLatexConfiguration configuration, Build build) throws LatexExecutionException {
+    if (!document.isFile()) {
+      return;
+    }
+    String os = System.getProperty("os.name").toLowerCase();
+    long size = document.length();
+    File current = document;
+    List<File> outputs = new ArrayList<>();
+    try {
+      for (String[] optimizer : OPTIMIZERS) {
+        File exec = Utils.getExecutable(configuration.getTexBin(), os.contains("windows") ? getWindowsName(optimizer[0]) : optimizer[0]);
+        if (exec == null) {
+          continue;
+        }
+        File output = new File(document.getParentFile(), document.getName() + "." + optimizer[0] + "." + Constants.FORMAT_PDF);
+        outputs.add(output);
+        if (optimize(exec, optimizer, current, output, build)) {
+          current = output;
+        }
+      }
+      if (outputs.isEmpty()) {
+        build.getLog().info("[mathan] no optimizer found for " + document.getName());
+      } else if (current == document) {
+        build.getLog().info(String.format("[mathan] %s not optimized: %s bytes", document.getName(), size));
+      } else if (current.length() >= size) {
+        build.getLog().info(String.format("[mathan] %s not optimized, optimized document is not smaller: %s bytes", document.getName(), size));
+      } else {
+        long optimized = current.length();
+        Files.move(current.toPath(), document.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        build.getLog().info(String.format("[mathan] %s optimized: %s bytes -> %s bytes (-%s%%)", document.getName(), size, optimized, (size - optimized) * 100 / size));
+      }
+      for (File output : outputs) {
+        Files.deleteIfExists(output.toPath());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LatexExecutionException("Building the project: ", e);
+    } catch (IOException e) {
+      throw new LatexExecutionException(String.format("Could not optimize %s", document.getName()), e);
+    }
+  }
+
+  /**
+   * Executes a single optimizer.
+   *
+   * @return <code>True</code> if the optimized document was written.
+   */
+  private static boolean optimize(File exec, String[] optimizer, File input, File output, Build build) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(exec.getAbsolutePath());
+    for (String argument : optimizer[1].split(" ")) {
+      command.add(argument.replace("%input", input.getName()).replace("%output", output.getName()));
+    }
+    File log = new File(output.getParentFile(), output.getName() + ".log");
+    Files.deleteIfExists(output.toPath());
+    int exitValue = new ProcessBuilder(command).directory(output.getParentFile()).redirectErrorStream(true).redirectOutput(log).start().waitFor();
+    if ((exitValue != 0 && !("qpdf".equals(optimizer[0]) && exitValue == QPDF_WARNINGS)) || !output.isFile()) {
+      build.getLog().warn(String.format("[mathan] optimization with %s finished with exit code=%s, see %s", optimizer[0], exitValue, log.getName()));
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the name of the executable on Windows. The console executable of Ghostscript is gswin64c.
+   */
+  private static String getWindowsName(String name) {
+    return ("gs".equals(name) ? "gswin64c" : name) + ".exe";
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import org.zeroturnaround.exec.ProcessExecutor;
+
+/**
+ * The default {@link StepExecutor} executing a step by starting its executable found in the configured {@link MathanLatexConfiguration#getTexBin() bin directory} or on PATH.
+ */
+public class ProcessStepExecutor implements StepExecutor {
+
+  /**
+   * The number of lines at the end of the output replayed as error if the process failed.
+   */
+  private static final int FAILURE_OUTPUT_LINES = 50;
+
+  @Override
+  public boolean supports(Step step, MathanLatexConfiguration configuration) {
+    return true;
+  }
+
+  @Override
+  public boolean requiresExecutable() {
+    return true;
+  }
+
+  @Override
+  public int getPriority() {
+    return Integer.MIN_VALUE;
+  }
+
+  @Override
+  public int execute(StepExecution execution) throws LatexExecutionException, IOException, InterruptedException {
+    Step executionStep = execution.getStep();
+    MathanLatexConfiguration configuration = execution.getConfiguration();
+    Build build = execution.getBuild();
+    File exec = Utils.getExecutable(configuration.getTexBin(), executionStep.getOperatingSystemName());
+    if (exec == null) {
+      throw new LatexExecutionException(String.format("Step %s cannot be executed. Executable neither found in configured texBin '%s' nor on PATH", executionStep.getId(), configuration.getTexBin()));
+    }
+    // split command into array
+    List<String> list = new ArrayList<>();
+    list.add(exec.getAbsolutePath());
+    Utils.tokenizeEscapedString(Step.getArguments(executionStep, execution.getTexFile()), list);
+    String[] command = list.toArray(new String[0]);
+
+    String prefix = "[mathan][" + executionStep.getId() + "]";
+
+    build.getLog().info("[mathan] execution: " + executionStep.getId());
+    build.getLog().info(Arrays.toString(command));
+    if (configuration.isRedirectOutputToFile()) {
+      return executeRedirectedToFile(command, execution, prefix);
+    }
+    try {
+      return new ProcessExecutor().command(command).environment(execution.getEnvironment()).directory(execution.getWorkingDirectory()).redirectOutput(build.getRedirectOutput(prefix))
+          .redirectError(build.getRedirectError(prefix)).destroyOnExit().execute().getExitValue();
+    } catch (TimeoutException e) {
+      // no timeout is set for the execution
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Executes the command with output and error of the process redirected to files by the operating system. So no threads are required to read the output of the process. The files are named after
+   * the input file and the step (e.g. sample.pdflatex.out and sample.pdflatex.err). The output is only read if debug logging is enabled or the process failed, in the latter case its last lines are
+   * passed to the log as error. The error is only read if the process wrote to it.
+   *
+   * @param command The command to execute.
+   * @param execution The execution of the step.
+   * @param prefix The prefix for lines passed to the log of the build.
+   * @return The exit value of the process.
+   * @throws IOException If the process could not be started or the files could not be read.
+   * @throws InterruptedException If the thread was interrupted while waiting for the process.
+   */
+  private int executeRedirectedToFile(String[] command, StepExecution execution, String prefix) throws IOException, InterruptedException {
+    Build build = execution.getBuild();
+    File output = execution.getFile(execution.getStep().getId() + ".out");
+    File error = execution.getFile(execution.getStep().getId() + ".err");
+    ProcessBuilder processBuilder = new ProcessBuilder(command).directory(execution.getWorkingDirectory()).redirectOutput(output).redirectError(error);
+    processBuilder.environment().putAll(execution.getEnvironment());
+    Process process = processBuilder.start();
+    process.getOutputStream().close();
+    int exitValue;
+    try {
+      exitValue = process.waitFor();
+    } catch (InterruptedException e) {
+      process.destroy();
+      throw e;
+    }
+    if (build.getLog().isDebugEnabled()) {
+      replay(output, build.getRedirectOutput(prefix));
+    } else if (exitValue != 0) {
+      replayTail(output, build.getRedirectError(prefix));
+    }
+    if (error.length() > 0) {
+      replay(error, build.getRedirectError(prefix));
+    }
+    return exitValue;
+  }
+
+  static void replay(File file, OutputStream out) throws IOException {
+    try (OutputStream redirect = out) {
+      Files.copy(file.toPath(), redirect);
+    }
+  }
+
+  /**
+   * Passes the last lines of the given file to the given stream, e.g. the output of a failed process.
+   */
+  static void replayTail(File file, OutputStream out) throws IOException {
+    List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.ISO_8859_1);
+    try (OutputStream redirect = out) {
+      for (String line : lines.subList(Math.max(0, lines.size() - FAILURE_OUTPUT_LINES), lines.size())) {
+        redirect.write((line + '\n').getBytes(StandardCharsets.ISO_8859_1));
+      }
+    }
+  }
+}
@@ -17,25 +17,32 @@
 package io.mathan.latex.core;
 
 import java.io.File;
+import java.io.Serializable;
 
 /**
  * This class represents a single step in an execution chain of commands during the process to generate an output document for a LaTeX source document.
  *
+ * <p>The predefined steps (e.g. {@link #STEP_PDFLATEX}) are shared by all builds running in the same JVM and cannot be modified. A build works on {@link #Step(Step) copies} of them instead.</p>
+ *
  * @author Matthias Hanisch (reallyinsane)
  */
-public class Step {
+public class Step implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
-  public static final Step STEP_LATEX = new Step("latex", "latex", Constants.FORMAT_TEX, Constants.FORMAT_DVI, "-interaction=nonstopmode --src-specials %input", false, "log");
-  public static final Step STEP_PDFLATEX = new Step("pdflatex", "pdflatex", Constants.FORMAT_TEX, Constants.FORMAT_PDF, "-synctex=1 -interaction=nonstopmode --src-specials %base", false, "log");
-  public static final Step STEP_XELATEX = new Step("xelatex", "xelatex", Constants.FORMAT_TEX, Constants.FORMAT_PDF, "-synctex=1 -interaction=nonstopmode %input", false, "log");
-  public static final Step STEP_LULATEX = new Step("lulatex", "lulatex", Constants.FORMAT_TEX, Constants.FORMAT_PDF, "-synctex=1 -interaction=nonstopmode --src-specials %input", false, "log");
-  public static final Step STEP_BIBTEX = new Step("bibtex", "bibtex", Constants.FORMAT_BIB, Constants.FORMAT_AUX, "%base", true, "blg");
-  public static final Step STEP_BIBER = new Step("biber", "biber", Constants.FORMAT_BIB, Constants.FORMAT_BBL, "%base", true, "blg");
-  public static final Step STEP_MAKEINDEX = new Step("makeindex", "makeindex", Constants.FORMAT_IDX, "ind", "%input -s %style", true, "ilg");
-  public static final Step STEP_DVIPS = new Step("dvips", "dvips", Constants.FORMAT_DVI, Constants.FORMAT_PS, "-R0 -o %output %input", false, "log");
-  public static final Step STEP_DVIPDFM = new Step("dvipdfm", "dbipdfm", Constants.FORMAT_DVI, Constants.FORMAT_PDF, "%input", false, "log");
-  public static final Step STEP_PS2PDF = new Step("ps2pdf", "ps2pdf", Constants.FORMAT_PS, Constants.FORMAT_PDF, "%input", false, "log");
-  public static final Step STEP_MAKEINDEXNOMENCL = new Step("makeindexnomencl", "makeindex", Constants.FORMAT_NLO, Constants.FORMAT_NLS, "%input -s %style -o %output", true, "ilg");
+  public static final Step STEP_LATEX = new PredefinedStep("latex", "latex", Constants.FORMAT_TEX, Constants.FORMAT_DVI, "-interaction=nonstopmode --src-specials %input", false, "log");
+  public static final Step STEP_PDFLATEX = new PredefinedStep("pdflatex", "pdflatex", Constants.FORMAT_TEX, Constants.FORMAT_PDF,
+      "-synctex=1 -interaction=nonstopmode --src-specials %base", false, "log");
+  public static final Step STEP_XELATEX = new PredefinedStep("xelatex", "xelatex", Constants.FORMAT_TEX, Constants.FORMAT_PDF, "-synctex=1 -interaction=nonstopmode %input", false, "log");
+  public static final Step STEP_LULATEX = new PredefinedStep("lulatex", "lulatex", Constants.FORMAT_TEX, Constants.FORMAT_PDF,
+      "-synctex=1 -interaction=nonstopmode --src-specials %input", false, "log");
+  public static final Step STEP_BIBTEX = new PredefinedStep("bibtex", "bibtex", Constants.FORMAT_BIB, Constants.FORMAT_AUX, "%base", true, "blg");
+  public static final Step STEP_BIBER = new PredefinedStep("biber", "biber", Constants.FORMAT_BIB, Constants.FORMAT_BBL, "%base", true, "blg");
+  public static final Step STEP_MAKEINDEX = new PredefinedStep("makeindex", "makeindex", Constants.FORMAT_IDX, "ind", "%input -s %style", true, "ilg");
+  public static final Step STEP_DVIPS = new PredefinedStep("dvips", "dvips", Constants.FORMAT_DVI, Constants.FORMAT_PS, "-R0 -o %output %input", false, "log");
+  public static final Step STEP_DVIPDFM = new PredefinedStep("dvipdfm", "dvipdfm", Constants.FORMAT_DVI, Constants.FORMAT_PDF, "%input", false, "log");
+  public static final Step STEP_PS2PDF = new PredefinedStep("ps2pdf", "ps2pdf", Constants.FORMAT_PS, Constants.FORMAT_PDF, "%input", false, "log");
+  public static final Step STEP_MAKEINDEXNOMENCL = new PredefinedStep("makeindexnomencl", "makeindex", Constants.FORMAT_NLO, Constants.FORMAT_NLS, "%input -s %style -o %output", true, "ilg");
 
 
   /**
@@ -74,6 +81,15 @@ public class Step {
 
   }
 
+  /**
+   * Creates a copy of the given step. The runner only works on copies so that the predefined steps are never modified and can be shared by builds running concurrently.
+   *
+   * @param step The step to copy.
+   */
+  public Step(Step step) {
+    this(step.id, step.name, step.inputFormat, step.outputFormat, step.arguments, step.optional, step.logExtension);
+  }
+
   private Step(String id, String name, String inputFormat, String outputFormat, String arguments, boolean optional, String logExtension) {
     this.id = id;
     this.name = name;
@@ -139,7 +155,7 @@ public class Step {
     this.arguments = arguments;
   }
 
-  private String getInputFormat() {
+  public String getInputFormat() {
     return inputFormat;
   }
 
@@ -147,7 +163,7 @@ public class Step {
     this.inputFormat = inputFormat;
   }
 
-  private String getOutputFormat() {
+  public String getOutputFormat() {
     return outputFormat;
   }
 
@@ -181,4 +197,54 @@ public class Step {
     }
   }
 
-}
\ No newline at end of file
+  @Override
+  public String toString() {
+    return String.format("%s[name=%s, inputFormat=%s, outputFormat=%s, arguments=%s, optional=%s, logExtension=%s]", id, name, inputFormat, outputFormat, arguments, optional, logExtension);
+  }
+
+  /**
+   * A predefined step. The setters throw an {@link UnsupportedOperationException}, so a build cannot modify the step for other builds.
+   */
+  private static final class PredefinedStep extends Step {
+
+    private static final long serialVersionUID = 1L;
+
+    private PredefinedStep(String id, String name, String inputFormat, String outputFormat, String arguments, boolean optional, String logExtension) {
+      super(id, name, inputFormat, outputFormat, arguments, optional, logExtension);
+    }
+
+    @Override
+    public void setId(String id) {
+      throw unsupported();
+    }
+
+    @Override
+    public void setName(String name) {
+      throw unsupported();
+    }
+
+    @Override
+    public void setArguments(String arguments) {
+      throw unsupported();
+    }
+
+    @Override
+    public void setInputFormat(String inputFormat) {
+      throw unsupported();
+    }
+
+    @Override
+    public void setOutputFormat(String outputFormat) {
+      throw unsupported();
+    }
+
+    @Override
+    public void setOptional(boolean optional) {
+      throw unsupported();
+    }
+
+    private UnsupportedOperationException unsupported() {
+      return new UnsupportedOperationException(String.format("The predefined step %s cannot be modified, use a copy instead.", getId()));
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The execution of a single {@link Step step} passed to a {@link StepExecutor}. It provides the files of the step within the working directory and the environment of the build.
+ */
+public class StepExecution {
+
+  private final Step step;
+  private final File workingDirectory;
+  private final File texFile;
+  private final Map<String, String> environment;
+  private final MathanLatexConfiguration configuration;
+  private final Build build;
+
+  StepExecution(Step step, File workingDirectory, File texFile, Map<String, String> environment, MathanLatexConfiguration configuration, Build build) {
+    this.step = step;
+    this.workingDirectory = workingDirectory;
+    this.texFile = texFile;
+    this.environment = Collections.unmodifiableMap(environment);
+    this.configuration = configuration;
+    this.build = build;
+  }
+
+  public Step getStep() {
+    return step;
+  }
+
+  public File getWorkingDirectory() {
+    return workingDirectory;
+  }
+
+  /**
+   * Returns the LaTeX source document processed.
+   *
+   * @return The LaTeX source document within the working directory.
+   */
+  public File getTexFile() {
+    return texFile;
+  }
+
+  /**
+   * Returns the name of the LaTeX source document without extension.
+   *
+   * @return The base name.
+   */
+  public String getBaseName() {
+    return texFile.getName().substring(0, texFile.getName().lastIndexOf('.'));
+  }
+
+  /**
+   * Returns the file of the LaTeX source document with the given extension within the working directory.
+   *
+   * @param extension The extension, e.g. <code>idx</code>.
+   * @return The file.
+   */
+  public File getFile(String extension) {
+    return new File(workingDirectory, getBaseName() + "." + extension);
+  }
+
+  public File getInputFile() {
+    return getFile(step.getInputFormat());
+  }
+
+  public File getOutputFile() {
+    return getFile(step.getOutputFormat());
+  }
+
+  public File getLogFile() {
+    return getFile(step.getLogExtension());
+  }
+
+  /**
+   * Returns the environment variables to set in addition to the environment of the build, e.g. BIBINPUTS for bibtex.
+   *
+   * @return The additional environment variables.
+   */
+  public Map<String, String> getEnvironment() {
+    return environment;
+  }
+
+  public MathanLatexConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  public Build getBuild() {
+    return build;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.IOException;
+
+/**
+ * An executor of {@link Step steps}. Executors are discovered with the {@link java.util.ServiceLoader} from the classpath of the plugin, so additional executors can be provided as dependency of the
+ * plugin (listed in <code>META-INF/services/io.mathan.latex.core.StepExecutor</code>). For each step the executor with the highest {@link #getPriority() priority} which {@link #supports(Step,
+ * MathanLatexConfiguration) supports} and {@link #accepts(StepExecution) accepts} the step is used. If there is no such executor, the step is executed by the {@link ProcessStepExecutor} starting
+ * the executable of the step.
+ *
+ * <p>Executors have to be stateless as a single instance is used for all steps of a build.</p>
+ */
+public interface StepExecutor {
+
+  /**
+   * Checks if this executor is able to execute the given step with the given configuration. This check is done before the build starts, e.g. to decide if the executable of a step is required.
+   *
+   * @param step The step.
+   * @param configuration The configuration of the build.
+   * @return <code>True</code> if this executor supports the step.
+   */
+  boolean supports(Step step, MathanLatexConfiguration configuration);
+
+  /**
+   * Checks if this executor is able to execute the step in the current state of the working directory. If not, the next executor supporting the step is used.
+   *
+   * @param execution The execution of the step.
+   * @return <code>True</code> if this executor executes the step.
+   */
+  default boolean accepts(StepExecution execution) {
+    return true;
+  }
+
+  /**
+   * Executes the step. A non-zero exit value is handled like the exit value of an executable: if the input file of the step does not exist, the step is skipped. Otherwise the build fails if
+   * {@link MathanLatexConfiguration#isHaltOnError() haltOnError} is set.
+   *
+   * @param execution The execution of the step.
+   * @return The exit value.
+   * @throws LatexExecutionException If the step cannot be executed at all.
+   * @throws IOException If an I/O error occurred during the execution.
+   * @throws InterruptedException If the thread was interrupted during the execution.
+   */
+  int execute(StepExecution execution) throws LatexExecutionException, IOException, InterruptedException;
+
+  /**
+   * Returns the priority of this executor. Executors with higher priority are asked first.
+   *
+   * @return The priority.
+   */
+  default int getPriority() {
+    return 0;
+  }
+
+  /**
+   * Checks if the executable of the step has to be available on the system for this executor.
+   *
+   * @return <code>True</code> if the executable is required.
+   */
+  default boolean requiresExecutable() {
+    return false;
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Executes two steps as a pipeline: the output of the first step (e.g. {@link Step#STEP_DVIPS dvips}) is written to standard output and passed to the standard input of the second step (e.g. {@link
+ * Step#STEP_PS2PDF ps2pdf}). So the intermediate file (e.g. the PostScript document) is never written to disk and both executables run concurrently.
+ *
+ * <p>A step can only be part of a pipeline if it is known to be able to stream and its arguments are not changed. The arguments of the step are replaced by arguments for reading from standard
+ * input or writing to standard output then.</p>
+ */
+class StepPipeline {
+
+  /**
+   * The steps able to write their output to standard output. The key is the id of the step, the value contains the executable, the default arguments and the arguments for streaming.
+   */
+  private static final Map<String, String[]> STREAM_OUTPUT = new HashMap<>();
+
+  /**
+   * The steps able to read their input from standard input. The key is the id of the step, the value contains the executable, the default arguments and the arguments for streaming.
+   */
+  private static final Map<String, String[]> STREAM_INPUT = new HashMap<>();
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  static {
+    STREAM_OUTPUT.put(Step.STEP_DVIPS.getId(), new String[]{Step.STEP_DVIPS.getName(), Step.STEP_DVIPS.getArguments(), "-R0 -f %input"});
+    STREAM_INPUT.put(Step.STEP_PS2PDF.getId(), new String[]{Step.STEP_PS2PDF.getName(), Step.STEP_PS2PDF.getArguments(), "- %output"});
+  }
+
+  private StepPipeline() {
+  }
+
+  /**
+   * Checks if the given steps can be executed as a pipeline.
+   *
+   * @param producer The first step writing its output to standard output.
+   * @param consumer The second step reading its input from standard input.
+   * @return <code>True</code> if both steps are able to stream and the output format of the first step is the input format of the second step.
+   */
+  static boolean canStream(Step producer, Step consumer) {
+    return producer.getOutputFormat().equals(consumer.getInputFormat()) && isStreaming(STREAM_OUTPUT, producer) && isStreaming(STREAM_INPUT, consumer);
+  }
+
+  private static boolean isStreaming(Map<String, String[]> arguments, Step step) {
+    String[] streaming = arguments.get(step.getId());
+    return streaming != null && streaming[0].equals(step.getName()) && streaming[1].equals(step.getArguments());
+  }
+
+  /**
+   * Executes the given steps as a pipeline. The error output of both steps and the output of the second step are redirected to files (e.g. sample.dvips.err) and passed to the log of the build
+   * afterwards. The files are deleted then, unless {@link MathanLatexConfiguration#isRedirectOutputToFile() redirectOutputToFile} is enabled: the files are kept like the files of the {@link
+   * ProcessStepExecutor} and the output is only passed to the log if debug logging is enabled or the second step failed.
+   *
+   * @param producer The first step.
+   * @param consumer The second step.
+   * @param workingDirectory The working directory.
+   * @param texFile The LaTeX source document.
+   * @param environment Additional environment variables for the processes.
+   * @param configuration The configuration of the build.
+   * @param build The build.
+   * @return <code>True</code> if both steps finished successfully.
+   * @throws IOException If the executables could not be started or the output could not be passed.
+   * @throws InterruptedException If the thread was interrupted while waiting for the processes.
+   */
+  static boolean execute(Step producer, Step consumer, File workingDirectory, File texFile, Map<String, String> environment, MathanLatexConfiguration configuration, Build build)
+      throws IOException, InterruptedException {
+    String baseName = texFile.getName().substring(0, texFile.getName().lastIndexOf('.'));
+    String[] producerCommand = command(producer, STREAM_OUTPUT, texFile, configuration);
+    String[] consumerCommand = command(consumer, STREAM_INPUT, texFile, configuration);
+    build.getLog().info(String.format("[mathan] execution (pipeline): %s | %s", producer.getId(), consumer.getId()));
+    build.getLog().info(Arrays.toString(producerCommand) + " | " + Arrays.toString(consumerCommand));
+    File producerError = new File(workingDirectory, baseName + "." + producer.getId() + ".err");
+    File consumerOutput = new File(workingDirectory, baseName + "." + consumer.getId() + ".out");
+    File consumerError = new File(workingDirectory, baseName + "." + consumer.getId() + ".err");
+    ProcessBuilder producerBuilder = new ProcessBuilder(producerCommand).directory(workingDirectory).redirectError(producerError);
+    producerBuilder.environment().putAll(environment);
+    ProcessBuilder consumerBuilder = new ProcessBuilder(consumerCommand).directory(workingDirectory).redirectOutput(consumerOutput).redirectError(consumerError);
+    consumerBuilder.environment().putAll(environment);
+    try {
+      Process producerProcess = producerBuilder.start();
+      Process consumerProcess;
+      try {
+        consumerProcess = consumerBuilder.start();
+      } catch (IOException e) {
+        producerProcess.destroy();
+        throw e;
+      }
+      int producerExitValue;
+      int consumerExitValue;
+      try {
+        producerProcess.getOutputStream().close();
+        try (InputStream in = producerProcess.getInputStream(); OutputStream out = consumerProcess.getOutputStream()) {
+          byte[] buffer = new byte[BUFFER_SIZE];
+          int length;
+          while ((length = in.read(buffer)) != -1) {
+            out.write(buffer, 0, length);
+          }
+        }
+        producerExitValue = producerProcess.waitFor();
+        consumerExitValue = consumerProcess.waitFor();
+      } catch (IOException | InterruptedException e) {
+        producerProcess.destroy();
+        consumerProcess.destroy();
+        throw e;
+      }
+      String prefix = "[mathan][" + consumer.getId() + "]";
+      if (!configuration.isRedirectOutputToFile() || build.getLog().isDebugEnabled()) {
+        ProcessStepExecutor.replay(consumerOutput, build.getRedirectOutput(prefix));
+      } else if (consumerExitValue != 0) {
+        ProcessStepExecutor.replayTail(consumerOutput, build.getRedirectError(prefix));
+      }
+      replayError(producerError, build, producer);
+      replayError(consumerError, build, consumer);
+      return producerExitValue == 0 && consumerExitValue == 0;
+    } finally {
+      if (!configuration.isRedirectOutputToFile()) {
+        for (File file : Arrays.asList(producerError, consumerOutput, consumerError)) {
+          Files.deleteIfExists(file.toPath());
+        }
+      }
+    }
+  }
+
+  private static String[] command(Step step, Map<String, String[]> arguments, File texFile, MathanLatexConfiguration configuration) throws IOException {
+    File exec = Utils.getExecutable(configuration.getTexBin(), step.getOperatingSystemName());
+    if (exec == null) {
+      throw new IOException(String.format("Executable of step %s not found", step.getId()));
+    }
+    Step streamingStep = new Step(step);
+    streamingStep.setArguments(arguments.get(step.getId())[2]);
+    List<String> command = new ArrayList<>();
+    command.add(exec.getAbsolutePath());
+    Utils.tokenizeEscapedString(Step.getArguments(streamingStep, texFile), command);
+    return command.toArray(new String[0]);
+  }
+
+  private static void replayError(File error, Build build, Step step) throws IOException {
+    if (error.length() > 0) {
+      ProcessStepExecutor.replay(error, build.getRedirectError("[mathan][" + step.getId() + "]"));
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import org.apache.commons.io.FileUtils;
+import org.zeroturnaround.exec.ProcessExecutor;
+
+/**
+ * The persistent caches of the tools of the TeX distribution in the {@link MathanLatexConfiguration#getToolCacheDirectory() toolCacheDirectory}. By default these caches are written to the home
+ * directory and the temporary directory of the user, so they are lost on build agents with ephemeral home and temporary directories.
+ *
+ * <ul>
+ * <li>texmf-var: the TEXMFVAR tree of the TeX distribution containing the font database of luaotfload and the LuaTeX cache. Building the font database takes minutes on the first execution of
+ * lualatex.</li>
+ * <li>biber: the directory the PAR archive of biber is unpacked to on its first execution.</li>
+ * </ul>
+ *
+ * <p>The caches are passed to all steps by environment variables. They can be warmed before the first build, e.g. for creating the image of a build agent.</p>
+ */
+class ToolCaches {
+
+  private static final String TEXMF_VAR = "texmf-var";
+  private static final String BIBER = "biber";
+
+  /**
+   * The tools filling the caches when being executed with the given arguments.
+   */
+  private static final List<String[]> WARM_UP = Arrays.asList(
+      new String[]{"luaotfload-tool", "--update"},
+      new String[]{BIBER, "--cache"});
+
+  private ToolCaches() {
+  }
+
+  /**
+   * Returns the environment variables locating the caches in the given directory.
+   *
+   * @param directory The directory of the caches.
+   * @return The environment variables.
+   */
+  static Map<String, String> getEnvironment(File directory) {
+    Map<String, String> environment = new HashMap<>();
+    String texmfVar = new File(directory, TEXMF_VAR).getAbsolutePath();
+    environment.put(Constants.TEXMFVAR, texmfVar);
+    // luaotfload writes to the first writable directory of TEXMFCACHE which includes TEXMFSYSVAR by default
+    environment.put(Constants.TEXMFCACHE, texmfVar);
+    environment.put(Constants.PAR_GLOBAL_TEMP, new File(directory, BIBER).getAbsolutePath());
+    return environment;
+  }
+
+  /**
+   * Fills the caches in the given directory by executing luaotfload-tool and biber. Tools not available are skipped.
+   *
+   * @param directory The directory of the caches.
+   * @param configuration The configuration of the build.
+   * @param build The build.
+   * @throws LatexExecutionException If a cache could not be created or a tool failed.
+   */
+  static void warm(File directory, MathanLatexConfiguration configuration, Build build) throws LatexExecutionException {
+    Map<String, String> environment = getEnvironment(directory);
+    String os = System.getProperty("os.name").toLowerCase();
+    try {
+      for (String variable : environment.keySet()) {
+        FileUtils.forceMkdir(new File(environment.get(variable)));
+      }
+      for (String[] tool : WARM_UP) {
+        File exec = Utils.getExecutable(configuration.getTexBin(), os.contains("windows") ? tool[0] + ".exe" : tool[0]);
+        if (exec == null) {
+          build.getLog().info(String.format("[mathan] %s not found, cache not warmed", tool[0]));
+          continue;
+        }
+        String prefix = "[mathan][" + tool[0] + "]";
+        build.getLog().info(String.format("[mathan] warming cache: %s %s", tool[0], tool[1]));
+        int exitValue = new ProcessExecutor().command(exec.getAbsolutePath(), tool[1]).environment(environment).directory(directory).redirectOutput(build.getRedirectOutput(prefix))
+            .redirectError(build.getRedirectError(prefix)).destroyOnExit().execute().getExitValue();
+        if (exitValue != 0) {
+          throw new LatexExecutionException(String.format("Warming the cache with %s failed. Process finished with exit code %s.", tool[0], exitValue));
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LatexExecutionException("Warming the caches: ", e);
+    } catch (IOException | TimeoutException e) {
+      throw new LatexExecutionException("Could not warm the caches in " + directory.getAbsolutePath(), e);
+    }
+    build.getLog().info("[mathan] tool caches: " + directory.getAbsolutePath());
+  }
+}
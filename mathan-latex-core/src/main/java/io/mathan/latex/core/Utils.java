@@ -17,9 +17,17 @@
 package io.mathan.latex.core;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.StringTokenizer;
@@ -28,6 +36,7 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.zeroturnaround.exec.ProcessExecutor;
 
 /**
  * Utility class.
@@ -127,6 +136,102 @@ public class Utils {
     return null;
   }
 
+  /**
+   * Finds a file of the TeX distribution (e.g. a style file of makeindex) with kpsewhich.
+   *
+   * @param texBin The bin directory of the LATEX distribution.
+   * @param name The name of the file.
+   * @return The file or <code>null</code> if it could not be found.
+   */
+  public static File findFile(String texBin, String name) {
+    String os = System.getProperty("os.name").toLowerCase();
+    File kpsewhich = getExecutable(texBin, os.contains("windows") ? "kpsewhich.exe" : "kpsewhich");
+    if (kpsewhich == null) {
+      return null;
+    }
+    try {
+      String output = new ProcessExecutor().command(kpsewhich.getAbsolutePath(), name).readOutput(true).execute().outputUTF8().trim();
+      File file = new File(output);
+      return !output.isEmpty() && file.isFile() ? file : null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the version of the TeX distribution used for the build. The version is taken from the first line printed by <code>tex --version</code> which names the TeX engine and the distribution
+   * (e.g. TeX Live 2022) all other tools are shipped with.
+   *
+   * @param texBin The bin directory of the LATEX distribution.
+   * @return The version of the TeX distribution or <code>unknown</code> if it could not be determined.
+   */
+  public static String getToolchainVersion(String texBin) {
+    String os = System.getProperty("os.name").toLowerCase();
+    File tex = getExecutable(texBin, os.contains("windows") ? "tex.exe" : "tex");
+    if (tex == null) {
+      return "unknown";
+    }
+    try {
+      String output = new ProcessExecutor().command(tex.getAbsolutePath(), "--version").readOutput(true).execute().outputUTF8();
+      int endOfLine = output.indexOf('\n');
+      return (endOfLine < 0 ? output : output.substring(0, endOfLine)).trim();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return "unknown";
+    } catch (Exception e) {
+      return "unknown";
+    }
+  }
+
+  /**
+   * Returns the SHA-256 hash of the content of the given file.
+   *
+   * @param file The file.
+   * @return The hash as hex string.
+   * @throws IOException If the file could not be read.
+   */
+  public static String sha256(File file) throws IOException {
+    MessageDigest digest = sha256();
+    byte[] buffer = new byte[8192];
+    try (InputStream in = new FileInputStream(file)) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Returns the SHA-256 hash of the given string.
+   *
+   * @param value The string.
+   * @return The hash as hex string.
+   * @throws IOException If SHA-256 is not supported.
+   */
+  public static String sha256(String value) throws IOException {
+    return toHex(sha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static MessageDigest sha256() throws IOException {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException("SHA-256 not supported", e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder();
+    for (byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
   /**
    * Extracts the content of the given ZIP archive to a temporary directory and returns it.
    *
@@ -164,4 +269,29 @@ public class Utils {
     }
     return temporaryDirectory;
   }
+
+  /**
+   * Copies the given file to the given target. The file is copied to a temporary file next to the target first and moved to the target afterwards, so the target is never read partially written
+   * e.g. by a concurrent build sharing a cache directory. If the target is created concurrently, the existing target is kept.
+   *
+   * @param source The file to copy.
+   * @param target The target.
+   * @throws IOException If the file could not be copied.
+   */
+  public static void copyAtomically(File source, File target) throws IOException {
+    FileUtils.forceMkdir(target.getParentFile());
+    File temp = new File(target.getParentFile(), target.getName() + "." + UUID.randomUUID() + ".tmp");
+    try {
+      FileUtils.copyFile(source, temp);
+      try {
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp.toPath(), target.toPath());
+      }
+    } catch (FileAlreadyExistsException e) {
+      // the target was created concurrently
+    } finally {
+      FileUtils.deleteQuietly(temp);
+    }
+  }
 }
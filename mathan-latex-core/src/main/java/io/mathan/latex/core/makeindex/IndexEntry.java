@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core.makeindex;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An entry of the index with up to three levels. Each level has a sort key and a text to print (separated by <code>actual</code> in the input file). All occurrences of the same entry are merged
+ * into a single entry with a list of pages.
+ */
+final class IndexEntry implements Comparable<IndexEntry> {
+
+  static final int SYMBOL = 0;
+  static final int NUMBER = 1;
+  static final int LETTER = 2;
+
+  private final List<String> keys;
+  private final List<String> texts;
+  private final List<IndexPage> pages = new ArrayList<>();
+
+  IndexEntry(List<String> keys, List<String> texts) {
+    this.keys = keys;
+    this.texts = texts;
+  }
+
+  List<String> getKeys() {
+    return keys;
+  }
+
+  List<String> getTexts() {
+    return texts;
+  }
+
+  List<IndexPage> getPages() {
+    return pages;
+  }
+
+  int getLevels() {
+    return keys.size();
+  }
+
+  /**
+   * Checks if the given entry has the same key and text as this entry up to the given level (inclusive).
+   */
+  boolean isSameLevel(IndexEntry entry, int level) {
+    for (int i = 0; i <= level; i++) {
+      if (i >= getLevels() || i >= entry.getLevels() || !keys.get(i).equals(entry.keys.get(i)) || !texts.get(i).equals(entry.texts.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the group of the entry: symbols, numbers or letters.
+   */
+  int getGroup() {
+    return group(keys.get(0));
+  }
+
+  static int group(String key) {
+    if (key.isEmpty()) {
+      return SYMBOL;
+    }
+    if (key.matches("[0-9]+")) {
+      return NUMBER;
+    }
+    return Character.isLetter(key.charAt(0)) ? LETTER : SYMBOL;
+  }
+
+  @Override
+  public int compareTo(IndexEntry entry) {
+    for (int i = 0; i < Math.min(getLevels(), entry.getLevels()); i++) {
+      int result = compareKeys(keys.get(i), entry.keys.get(i));
+      if (result == 0) {
+        result = texts.get(i).compareTo(entry.texts.get(i));
+      }
+      if (result != 0) {
+        return result;
+      }
+    }
+    return Integer.compare(getLevels(), entry.getLevels());
+  }
+
+  /**
+   * Compares two sort keys. Symbols are sorted before numbers and numbers before letters. Numbers are compared by their value, all other keys are compared ignoring the case. If two keys only differ
+   * in case, lower case is sorted first.
+   */
+  static int compareKeys(String a, String b) {
+    int groupA = group(a);
+    int groupB = group(b);
+    if (groupA != groupB) {
+      return Integer.compare(groupA, groupB);
+    }
+    if (groupA == NUMBER) {
+      return new BigInteger(a).compareTo(new BigInteger(b));
+    }
+    int result = a.toLowerCase().compareTo(b.toLowerCase());
+    if (result != 0) {
+      return result;
+    }
+    for (int i = 0; i < Math.min(a.length(), b.length()); i++) {
+      char ca = a.charAt(i);
+      char cb = b.charAt(i);
+      if (ca != cb) {
+        return Character.isLowerCase(ca) ? -1 : 1;
+      }
+    }
+    return Integer.compare(a.length(), b.length());
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core.makeindex;
+
+import java.util.regex.Pattern;
+
+/**
+ * A page of an index entry. A page consists of one or more parts separated by the <code>page_compositor</code> (e.g. 2-13 for section 2, page 13). Each part is either an arabic number, a roman
+ * number or a letter. The order of these types is defined by <code>page_precedence</code>.
+ */
+final class IndexPage implements Comparable<IndexPage> {
+
+  static final int NO_RANGE = 0;
+  static final int RANGE_OPEN = 1;
+  static final int RANGE_CLOSE = 2;
+
+  private final String text;
+  private final String encap;
+  private final int range;
+  private final int[] ranks;
+  private final int[] values;
+
+  IndexPage(String text, String encap, int range, IndexStyle style) {
+    this.text = text;
+    this.encap = encap;
+    this.range = range;
+    String compositor = style.get("page_compositor");
+    String[] parts = compositor.isEmpty() ? new String[]{text} : text.split(Pattern.quote(compositor), -1);
+    this.ranks = new int[parts.length];
+    this.values = new int[parts.length];
+    String precedence = style.get("page_precedence");
+    for (int i = 0; i < parts.length; i++) {
+      String part = parts[i];
+      char type;
+      if (part.matches("[ivxlcdm]+")) {
+        type = 'r';
+        values[i] = roman(part.toUpperCase());
+      } else if (part.matches("[IVXLCDM]+")) {
+        type = 'R';
+        values[i] = roman(part);
+      } else if (part.matches("[0-9]+")) {
+        type = 'n';
+        values[i] = Integer.parseInt(part);
+      } else if (part.matches("[a-z]")) {
+        type = 'a';
+        values[i] = part.charAt(0) - 'a' + 1;
+      } else if (part.matches("[A-Z]")) {
+        type = 'A';
+        values[i] = part.charAt(0) - 'A' + 1;
+      } else {
+        throw new IllegalArgumentException(String.format("Invalid page number '%s'", text));
+      }
+      ranks[i] = precedence.indexOf(type) < 0 ? precedence.length() : precedence.indexOf(type);
+    }
+  }
+
+  String getText() {
+    return text;
+  }
+
+  String getEncap() {
+    return encap;
+  }
+
+  int getRange() {
+    return range;
+  }
+
+  /**
+   * Checks if this page is the page following the given page, e.g. 2-14 follows 2-13.
+   */
+  boolean follows(IndexPage page) {
+    if (ranks.length != page.ranks.length) {
+      return false;
+    }
+    int last = ranks.length - 1;
+    for (int i = 0; i < last; i++) {
+      if (ranks[i] != page.ranks[i] || values[i] != page.values[i]) {
+        return false;
+      }
+    }
+    return ranks[last] == page.ranks[last] && values[last] == page.values[last] + 1;
+  }
+
+  /**
+   * Checks if this page is the same page with the same encapsulation as the given page.
+   */
+  boolean isSame(IndexPage page) {
+    return compareTo(page) == 0 && encap.equals(page.encap);
+  }
+
+  @Override
+  public int compareTo(IndexPage page) {
+    for (int i = 0; i < Math.min(ranks.length, page.ranks.length); i++) {
+      if (ranks[i] != page.ranks[i]) {
+        return Integer.compare(ranks[i], page.ranks[i]);
+      }
+      if (values[i] != page.values[i]) {
+        return Integer.compare(values[i], page.values[i]);
+      }
+    }
+    return Integer.compare(ranks.length, page.ranks.length);
+  }
+
+  private static int roman(String value) {
+    String digits = "IVXLCDM";
+    int[] numbers = {1, 5, 10, 50, 100, 500, 1000};
+    int result = 0;
+    for (int i = 0; i < value.length(); i++) {
+      int number = numbers[digits.indexOf(value.charAt(i))];
+      if (i + 1 < value.length() && number < numbers[digits.indexOf(value.charAt(i + 1))]) {
+        result -= number;
+      } else {
+        result += number;
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core.makeindex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The style of an index as defined by a makeindex style file (.ist). All specifiers not defined in the style file have the default value of makeindex.
+ *
+ * <p>A style file consists of specifiers followed by a value. The value is either a string in double quotes, a character in single quotes or a number. Comments start with <code>%</code>.</p>
+ */
+public class IndexStyle {
+
+  /**
+   * The name of the style file of the package nomencl.
+   */
+  public static final String NOMENCL = "nomencl.ist";
+
+  private final Map<String, String> values = new HashMap<>();
+
+  /**
+   * Creates the default style of makeindex.
+   */
+  public IndexStyle() {
+    // input style
+    values.put("keyword", "\\indexentry");
+    values.put("arg_open", "{");
+    values.put("arg_close", "}");
+    values.put("range_open", "(");
+    values.put("range_close", ")");
+    values.put("level", "!");
+    values.put("actual", "@");
+    values.put("encap", "|");
+    values.put("quote", "\"");
+    values.put("escape", "\\");
+    values.put("page_compositor", "-");
+    // output style
+    values.put("preamble", "\\begin{theindex}\n");
+    values.put("postamble", "\n\n\\end{theindex}\n");
+    values.put("group_skip", "\n\n  \\indexspace\n");
+    values.put("headings_flag", "0");
+    values.put("heading_prefix", "");
+    values.put("heading_suffix", "");
+    values.put("symhead_positive", "Symbols");
+    values.put("symhead_negative", "symbols");
+    values.put("numhead_positive", "Numbers");
+    values.put("numhead_negative", "numbers");
+    values.put("item_0", "\n  \\item ");
+    values.put("item_1", "\n    \\subitem ");
+    values.put("item_2", "\n      \\subsubitem ");
+    values.put("item_01", "\n    \\subitem ");
+    values.put("item_x1", "\n    \\subitem ");
+    values.put("item_12", "\n      \\subsubitem ");
+    values.put("item_x2", "\n      \\subsubitem ");
+    values.put("delim_0", ", ");
+    values.put("delim_1", ", ");
+    values.put("delim_2", ", ");
+    values.put("delim_n", ", ");
+    values.put("delim_r", "--");
+    values.put("delim_t", "");
+    values.put("encap_prefix", "\\");
+    values.put("encap_infix", "{");
+    values.put("encap_suffix", "}");
+    values.put("line_max", "72");
+    values.put("indent_space", "\t\t");
+    values.put("indent_length", "16");
+    values.put("suffix_2p", "");
+    values.put("suffix_3p", "");
+    values.put("suffix_mp", "");
+    values.put("page_precedence", "rnaRA");
+  }
+
+  /**
+   * Creates the style of the package nomencl as defined by nomencl.ist of the TeX distribution. It is used if nomencl.ist cannot be found.
+   *
+   * @return The style.
+   */
+  public static IndexStyle nomencl() {
+    IndexStyle style = new IndexStyle();
+    style.values.put("keyword", "\\nomenclatureentry");
+    style.values.put("preamble", "\\begin{thenomenclature} \n\n");
+    style.values.put("postamble", "\n\n\\end{thenomenclature}\n");
+    style.values.put("group_skip", "\n");
+    style.values.put("delim_0", "");
+    style.values.put("delim_1", "");
+    style.values.put("delim_2", "");
+    style.values.put("heading_prefix", "\n \\nomgroup{");
+    style.values.put("heading_suffix", "}\n");
+    style.values.put("headings_flag", "1");
+    return style;
+  }
+
+  /**
+   * Reads the given style file. Specifiers not defined in the file have their default value.
+   *
+   * @param file The style file.
+   * @return The style.
+   * @throws IOException If the file could not be read or contains an invalid value.
+   */
+  public static IndexStyle parse(File file) throws IOException {
+    IndexStyle style = new IndexStyle();
+    String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.ISO_8859_1);
+    int i = 0;
+    while (i < content.length()) {
+      char c = content.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (c == '%') {
+        while (i < content.length() && content.charAt(i) != '\n') {
+          i++;
+        }
+      } else {
+        int start = i;
+        while (i < content.length() && (Character.isLetterOrDigit(content.charAt(i)) || content.charAt(i) == '_')) {
+          i++;
+        }
+        if (start == i) {
+          throw new IOException(String.format("Invalid character '%s' in style file %s", c, file.getName()));
+        }
+        String specifier = content.substring(start, i);
+        while (i < content.length() && Character.isWhitespace(content.charAt(i))) {
+          i++;
+        }
+        StringBuilder value = new StringBuilder();
+        i = readValue(content, i, value, file);
+        // lethead_* are the names of the heading specifiers used by older versions of makeindex
+        style.values.put(specifier.replace("lethead_flag", "headings_flag").replace("lethead_", "heading_"), value.toString());
+      }
+    }
+    return style;
+  }
+
+  private static int readValue(String content, int i, StringBuilder value, File file) throws IOException {
+    if (i >= content.length()) {
+      throw new IOException(String.format("Missing value at end of style file %s", file.getName()));
+    }
+    char delimiter = content.charAt(i);
+    if (delimiter == '"' || delimiter == '\'') {
+      i++;
+      while (i < content.length() && content.charAt(i) != delimiter) {
+        char c = content.charAt(i);
+        if (c == '\\' && i + 1 < content.length()) {
+          i++;
+          char escaped = content.charAt(i);
+          value.append(escaped == 'n' ? '\n' : escaped == 't' ? '\t' : escaped);
+        } else {
+          value.append(c);
+        }
+        i++;
+      }
+      return i + 1;
+    }
+    while (i < content.length() && !Character.isWhitespace(content.charAt(i))) {
+      value.append(content.charAt(i));
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Returns the value of the given specifier as string.
+   *
+   * @param specifier The specifier, e.g. <code>item_0</code>.
+   * @return The value.
+   */
+  public String get(String specifier) {
+    return values.getOrDefault(specifier, "");
+  }
+
+  /**
+   * Returns the value of the given specifier as character.
+   *
+   * @param specifier The specifier, e.g. <code>actual</code>.
+   * @return The value.
+   */
+  public char getChar(String specifier) {
+    String value = get(specifier);
+    return value.isEmpty() ? '\0' : value.charAt(0);
+  }
+
+  /**
+   * Returns the value of the given specifier as number.
+   *
+   * @param specifier The specifier, e.g. <code>line_max</code>.
+   * @return The value.
+   */
+  public int getInt(String specifier) {
+    try {
+      return Integer.parseInt(get(specifier).trim());
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,427 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core.makeindex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of makeindex executed within the JVM. The entries of the input file (.idx, .nlo) are parsed, merged, sorted and written to the output file (.ind, .nls) using the given {@link
+ * IndexStyle style}. Successive pages are merged into page ranges like makeindex does: explicit ranges are defined with <code>|(</code> and <code>|)</code>, three or more successive pages with the
+ * same encapsulation form an implicit range.
+ *
+ * <p>Entries which cannot be parsed are rejected and reported in the transcript (.ilg) like makeindex does.</p>
+ */
+public class MakeIndex {
+
+  private final IndexStyle style;
+  private final List<String> messages = new ArrayList<>();
+  private int accepted;
+  private int rejected;
+
+  /**
+   * Creates an instance using the given style.
+   *
+   * @param style The style of the index.
+   */
+  public MakeIndex(IndexStyle style) {
+    this.style = style;
+  }
+
+  /**
+   * Creates the index for the given input file.
+   *
+   * @param input The input file containing the raw entries (e.g. sample.idx).
+   * @param output The output file (e.g. sample.ind).
+   * @param log The transcript file (e.g. sample.ilg).
+   * @return The number of rejected entries.
+   * @throws IOException If a file could not be read or written.
+   */
+  public int execute(File input, File output, File log) throws IOException {
+    // the encoding of the input file is unknown, so every byte is mapped to a single character
+    String content = new String(Files.readAllBytes(input.toPath()), StandardCharsets.ISO_8859_1);
+    List<IndexEntry> entries = parse(content);
+    Collections.sort(entries);
+    String index = generate(entries);
+    Files.write(output.toPath(), index.getBytes(StandardCharsets.ISO_8859_1));
+    StringBuilder transcript = new StringBuilder("This is makeindex of the mathan-latex-maven-plugin (in-process).\n");
+    transcript.append(String.format("Scanning input file %s....done (%s entries accepted, %s rejected).\n", input.getName(), accepted, rejected));
+    messages.forEach(message -> transcript.append(message).append('\n'));
+    transcript.append(String.format("Sorting entries...done.\nGenerating output file %s....done (%s lines written, 0 warnings).\n", output.getName(), lines(index)));
+    transcript.append(String.format("Output written in %s.\nTranscript written in %s.\n", output.getName(), log.getName()));
+    Files.write(log.toPath(), transcript.toString().getBytes(StandardCharsets.ISO_8859_1));
+    return rejected;
+  }
+
+  /**
+   * Parses the input file and merges all occurrences of the same entry.
+   */
+  private List<IndexEntry> parse(String content) {
+    String keyword = style.get("keyword");
+    Map<String, IndexEntry> entries = new LinkedHashMap<>();
+    int position = content.indexOf(keyword);
+    int line = 1;
+    int lineStart = 0;
+    while (position >= 0) {
+      for (int i = lineStart; i < position; i++) {
+        if (content.charAt(i) == '\n') {
+          line++;
+        }
+      }
+      lineStart = position;
+      int[] next = {position + keyword.length()};
+      String entry = readArgument(content, next);
+      String page = entry == null ? null : readArgument(content, next);
+      if (entry == null || page == null) {
+        reject(line, "Argument of " + keyword + " incomplete.");
+        position = content.indexOf(keyword, position + keyword.length());
+        continue;
+      }
+      try {
+        add(entries, entry, page);
+        accepted++;
+      } catch (IllegalArgumentException e) {
+        reject(line, e.getMessage());
+      }
+      position = content.indexOf(keyword, next[0]);
+    }
+    return new ArrayList<>(entries.values());
+  }
+
+  private void reject(int line, String message) {
+    rejected++;
+    messages.add(String.format("!! Input index error (line %s):\n   %s", line, message));
+  }
+
+  /**
+   * Reads an argument enclosed by <code>arg_open</code> and <code>arg_close</code> starting at the given position. Nested arguments are part of the argument, a quoted or escaped character is not
+   * interpreted.
+   */
+  private String readArgument(String content, int[] position) {
+    char open = style.getChar("arg_open");
+    char close = style.getChar("arg_close");
+    char quote = style.getChar("quote");
+    char escape = style.getChar("escape");
+    int i = position[0];
+    while (i < content.length() && (content.charAt(i) == ' ' || content.charAt(i) == '\t')) {
+      i++;
+    }
+    if (i >= content.length() || content.charAt(i) != open) {
+      return null;
+    }
+    StringBuilder argument = new StringBuilder();
+    int depth = 0;
+    for (i++; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if ((c == quote || c == escape) && i + 1 < content.length()) {
+        argument.append(c).append(content.charAt(++i));
+        continue;
+      }
+      if (c == '\n') {
+        return null;
+      }
+      if (c == open) {
+        depth++;
+      } else if (c == close) {
+        if (depth == 0) {
+          position[0] = i + 1;
+          return argument.toString();
+        }
+        depth--;
+      }
+      argument.append(c);
+    }
+    return null;
+  }
+
+  /**
+   * Adds an occurrence of an entry. The entry is split into its levels, each level into sort key and text. The encapsulation is separated from the last level.
+   */
+  private void add(Map<String, IndexEntry> entries, String entry, String pageText) {
+    char level = style.getChar("level");
+    char actual = style.getChar("actual");
+    char encapChar = style.getChar("encap");
+    char quote = style.getChar("quote");
+    char escape = style.getChar("escape");
+    List<String> keys = new ArrayList<>();
+    List<String> texts = new ArrayList<>();
+    StringBuilder key = new StringBuilder();
+    StringBuilder text = null;
+    String encap = null;
+    for (int i = 0; i < entry.length(); i++) {
+      char c = entry.charAt(i);
+      StringBuilder current = text == null ? key : text;
+      if (c == escape && i + 1 < entry.length()) {
+        current.append(c).append(entry.charAt(++i));
+      } else if (c == quote && i + 1 < entry.length()) {
+        current.append(entry.charAt(++i));
+      } else if (c == level) {
+        addLevel(keys, texts, key, text);
+        key = new StringBuilder();
+        text = null;
+      } else if (c == actual && text == null) {
+        text = new StringBuilder();
+      } else if (c == encapChar) {
+        encap = entry.substring(i + 1);
+        break;
+      } else {
+        current.append(c);
+      }
+    }
+    addLevel(keys, texts, key, text);
+    if (keys.size() > 3) {
+      throw new IllegalArgumentException(String.format("Extra '%s' at position %s of first argument.", level, entry.lastIndexOf(level) + 1));
+    }
+    int range = IndexPage.NO_RANGE;
+    if (encap == null) {
+      encap = "";
+    } else if (encap.startsWith(style.get("range_open"))) {
+      range = IndexPage.RANGE_OPEN;
+      encap = encap.substring(1);
+    } else if (encap.startsWith(style.get("range_close"))) {
+      range = IndexPage.RANGE_CLOSE;
+      encap = encap.substring(1);
+    }
+    IndexPage page = new IndexPage(pageText, encap, range, style);
+    String id = String.join("\u0000", keys) + "\u0001" + String.join("\u0000", texts);
+    entries.computeIfAbsent(id, k -> new IndexEntry(keys, texts)).getPages().add(page);
+  }
+
+  private static void addLevel(List<String> keys, List<String> texts, StringBuilder key, StringBuilder text) {
+    if (key.length() == 0 && (text == null || text.length() == 0)) {
+      throw new IllegalArgumentException("Illegal null field.");
+    }
+    keys.add(key.toString());
+    texts.add(text == null ? key.toString() : text.toString());
+  }
+
+  /**
+   * Generates the output file for the sorted entries.
+   */
+  private String generate(List<IndexEntry> entries) {
+    Output out = new Output(style.getInt("line_max"), style.get("indent_space"), style.getInt("indent_length"));
+    out.write(style.get("preamble"));
+    IndexEntry previous = null;
+    int previousLevel = -1;
+    boolean previousHasPages = false;
+    for (IndexEntry entry : entries) {
+      int first = 0;
+      if (previous == null || previous.getGroup() != entry.getGroup() || isNewLetter(previous, entry)) {
+        if (previous != null) {
+          out.write(style.get("group_skip"));
+        }
+        writeHeading(out, entry);
+      } else {
+        while (first < entry.getLevels() - 1 && entry.isSameLevel(previous, first)) {
+          first++;
+        }
+      }
+      for (int level = first; level < entry.getLevels(); level++) {
+        out.write(item(level, previousLevel, previousHasPages));
+        out.write(entry.getTexts().get(level));
+        previousLevel = level;
+        previousHasPages = false;
+      }
+      List<String> pages = pages(entry.getPages());
+      if (!pages.isEmpty()) {
+        out.write(style.get("delim_" + Math.min(entry.getLevels() - 1, 2)));
+        for (int i = 0; i < pages.size(); i++) {
+          if (i > 0) {
+            out.write(style.get("delim_n"));
+          }
+          out.writeWrapped(pages.get(i));
+        }
+        out.write(style.get("delim_t"));
+        previousHasPages = true;
+      }
+      previous = entry;
+    }
+    out.write(style.get("postamble"));
+    return out.toString();
+  }
+
+  private boolean isNewLetter(IndexEntry previous, IndexEntry entry) {
+    return entry.getGroup() == IndexEntry.LETTER && Character.toLowerCase(previous.getKeys().get(0).charAt(0)) != Character.toLowerCase(entry.getKeys().get(0).charAt(0));
+  }
+
+  private void writeHeading(Output out, IndexEntry entry) {
+    int flag = style.getInt("headings_flag");
+    if (flag == 0) {
+      return;
+    }
+    String heading;
+    switch (entry.getGroup()) {
+      case IndexEntry.SYMBOL:
+        heading = style.get(flag > 0 ? "symhead_positive" : "symhead_negative");
+        break;
+      case IndexEntry.NUMBER:
+        heading = style.get(flag > 0 ? "numhead_positive" : "numhead_negative");
+        break;
+      default:
+        char letter = entry.getKeys().get(0).charAt(0);
+        heading = String.valueOf(flag > 0 ? Character.toUpperCase(letter) : Character.toLowerCase(letter));
+    }
+    out.write(style.get("heading_prefix") + heading + style.get("heading_suffix"));
+  }
+
+  private String item(int level, int previousLevel, boolean previousHasPages) {
+    if (level == 0) {
+      return style.get("item_0");
+    }
+    if (previousLevel == level - 1) {
+      return style.get(level == 1 ? (previousHasPages ? "item_01" : "item_x1") : (previousHasPages ? "item_12" : "item_x2"));
+    }
+    return style.get("item_" + level);
+  }
+
+  /**
+   * Creates the list of pages of an entry. Duplicate pages are removed and successive pages are merged into ranges.
+   */
+  private List<String> pages(List<IndexPage> pages) {
+    List<IndexPage> sorted = new ArrayList<>(pages);
+    // the sort is stable, so the order of the input file is kept for the same page
+    sorted.sort((a, b) -> {
+      int result = a.compareTo(b);
+      return result != 0 ? result : Integer.compare(rangeOrder(a), rangeOrder(b));
+    });
+    List<String> result = new ArrayList<>();
+    List<String> deferred = new ArrayList<>();
+    int i = 0;
+    while (i < sorted.size()) {
+      IndexPage page = sorted.get(i);
+      if (page.getRange() == IndexPage.RANGE_OPEN) {
+        IndexPage end = page;
+        int j = i + 1;
+        while (j < sorted.size() && !(sorted.get(j).getRange() == IndexPage.RANGE_CLOSE && sorted.get(j).getEncap().equals(page.getEncap()))) {
+          IndexPage inner = sorted.get(j);
+          if (inner.getEncap().equals(page.getEncap())) {
+            end = inner;
+          } else if (inner.getRange() == IndexPage.NO_RANGE) {
+            deferred.add(encap(inner.getText(), inner.getEncap()));
+          }
+          j++;
+        }
+        if (j < sorted.size()) {
+          end = sorted.get(j);
+        } else {
+          messages.add(String.format("## Warning: Unmatched range opening operator %s.", style.get("range_open")));
+        }
+        result.add(encap(end.compareTo(page) == 0 ? page.getText() : page.getText() + style.get("delim_r") + end.getText(), page.getEncap()));
+        result.addAll(deferred);
+        deferred.clear();
+        i = j + 1;
+        continue;
+      }
+      // implicit range of successive pages with the same encapsulation
+      int count = 1;
+      IndexPage last = page;
+      int j = i + 1;
+      while (j < sorted.size() && sorted.get(j).getRange() != IndexPage.RANGE_OPEN && sorted.get(j).getEncap().equals(page.getEncap())) {
+        IndexPage next = sorted.get(j);
+        if (next.compareTo(last) == 0) {
+          j++;
+        } else if (next.follows(last)) {
+          last = next;
+          count++;
+          j++;
+        } else {
+          break;
+        }
+      }
+      if (count >= 3) {
+        String suffix = style.get(count == 3 && !style.get("suffix_3p").isEmpty() ? "suffix_3p" : "suffix_mp");
+        result.add(encap(suffix.isEmpty() ? page.getText() + style.get("delim_r") + last.getText() : page.getText() + suffix, page.getEncap()));
+        i = j;
+      } else if (count == 2 && !style.get("suffix_2p").isEmpty()) {
+        result.add(encap(page.getText() + style.get("suffix_2p"), page.getEncap()));
+        i = j;
+      } else {
+        result.add(encap(page.getText(), page.getEncap()));
+        i++;
+        while (i < j && sorted.get(i).isSame(page)) {
+          i++;
+        }
+      }
+    }
+    return result;
+  }
+
+  private static int rangeOrder(IndexPage page) {
+    return page.getRange() == IndexPage.RANGE_OPEN ? 0 : page.getRange() == IndexPage.NO_RANGE ? 1 : 2;
+  }
+
+  private String encap(String page, String encap) {
+    if (encap.isEmpty()) {
+      return page;
+    }
+    return style.get("encap_prefix") + encap + style.get("encap_infix") + page + style.get("encap_suffix");
+  }
+
+  private static int lines(String text) {
+    int lines = 0;
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) == '\n') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * The output of the index keeping track of the length of the current line so that lists of pages can be wrapped at <code>line_max</code>.
+   */
+  private static class Output {
+
+    private final StringBuilder text = new StringBuilder();
+    private final int lineMax;
+    private final String indentSpace;
+    private final int indentLength;
+    private int column;
+
+    Output(int lineMax, String indentSpace, int indentLength) {
+      this.lineMax = lineMax;
+      this.indentSpace = indentSpace;
+      this.indentLength = indentLength;
+    }
+
+    void write(String value) {
+      text.append(value);
+      int newline = value.lastIndexOf('\n');
+      column = newline < 0 ? column + value.length() : value.length() - newline - 1;
+    }
+
+    void writeWrapped(String value) {
+      if (column + value.length() > lineMax) {
+        text.append('\n').append(indentSpace);
+        column = indentLength;
+      }
+      write(value);
+    }
+
+    @Override
+    public String toString() {
+      return text.toString();
+    }
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core.makeindex;
+
+import io.mathan.latex.core.LatexExecutionException;
+import io.mathan.latex.core.MathanLatexConfiguration;
+import io.mathan.latex.core.Step;
+import io.mathan.latex.core.StepExecution;
+import io.mathan.latex.core.StepExecutor;
+import io.mathan.latex.core.Utils;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * {@link StepExecutor} executing the steps {@link Step#STEP_MAKEINDEX makeindex} and {@link Step#STEP_MAKEINDEXNOMENCL makeindexnomencl} with the {@link MakeIndex implementation of makeindex}
+ * within the JVM if {@link MathanLatexConfiguration#isInProcessMakeIndex() inProcessMakeIndex} is enabled. A style file which is not part of the working directory (e.g. nomencl.ist provided by the
+ * TeX distribution) is found with kpsewhich. If nomencl.ist cannot be found, the {@link IndexStyle#nomencl() built-in style of nomencl} is used. For other style files which cannot be found the
+ * executable is used.
+ */
+public class MakeIndexStepExecutor implements StepExecutor {
+
+  @Override
+  public boolean supports(Step step, MathanLatexConfiguration configuration) {
+    return configuration.isInProcessMakeIndex() && (Step.STEP_MAKEINDEX.getId().equals(step.getId()) || Step.STEP_MAKEINDEXNOMENCL.getId().equals(step.getId()));
+  }
+
+  /**
+   * Accepts the step if no style file is configured, the style file can be found or is nomencl.ist. Like the executable the step is skipped if the input file does not exist, so no process is started
+   * for documents without index or nomenclature.
+   */
+  @Override
+  public boolean accepts(StepExecution execution) {
+    String name = getStyleFileName(execution);
+    if (name == null || IndexStyle.NOMENCL.equals(name) || !execution.getInputFile().exists() || findStyleFile(execution, name) != null) {
+      return true;
+    }
+    execution.getBuild().getLog().info(String.format("[mathan] style file %s not found, executing %s", name, execution.getStep().getName()));
+    return false;
+  }
+
+  /**
+   * Creates the index. Like the executable the exit value is 0 even if entries were rejected, the rejected entries are reported as warning. The exit value is 1 if the input file does not exist.
+   */
+  @Override
+  public int execute(StepExecution execution) throws LatexExecutionException {
+    execution.getBuild().getLog().info("[mathan] execution (in-process): " + execution.getStep().getId());
+    File input = execution.getInputFile();
+    if (!input.exists()) {
+      return 1;
+    }
+    File log = execution.getLogFile();
+    int rejected;
+    try {
+      IndexStyle style = getStyle(execution);
+      rejected = new MakeIndex(style).execute(input, execution.getOutputFile(), log);
+    } catch (IOException e) {
+      throw new LatexExecutionException(String.format("Execution of step %s failed.", execution.getStep().getId()), e);
+    }
+    if (rejected > 0) {
+      execution.getBuild().getLog().warn(String.format("[mathan] %s entries rejected, see %s", rejected, log.getName()));
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the style of the index. The style file is read from the working directory or the TeX distribution.
+   */
+  private IndexStyle getStyle(StepExecution execution) throws IOException {
+    String name = getStyleFileName(execution);
+    if (name == null) {
+      return new IndexStyle();
+    }
+    File styleFile = findStyleFile(execution, name);
+    if (styleFile != null) {
+      return IndexStyle.parse(styleFile);
+    }
+    // only accepted for nomencl.ist
+    return IndexStyle.nomencl();
+  }
+
+  private String getStyleFileName(StepExecution execution) {
+    MathanLatexConfiguration configuration = execution.getConfiguration();
+    String styleFile = Step.STEP_MAKEINDEX.getId().equals(execution.getStep().getId()) ? configuration.getMakeIndexStyleFile() : configuration.getMakeIndexNomenclStyleFile();
+    return styleFile == null || styleFile.isEmpty() ? null : styleFile;
+  }
+
+  /**
+   * Returns the style file of the working directory or the TeX distribution or <code>null</code> if it cannot be found.
+   */
+  private File findStyleFile(StepExecution execution, String name) {
+    File styleFile = new File(execution.getWorkingDirectory(), name);
+    return styleFile.exists() ? styleFile : Utils.findFile(execution.getConfiguration().getTexBin(), name);
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of the {@link AggregatedLog}. Each section has to be readable by the offset and length stored in the index, the bytes of the step logs must not be changed.
+ */
+public class AggregatedLogTest {
+
+  private static final String HEADER = "##################################################\n# Step %s/2 %s\n##################################################\n";
+
+  /**
+   * Content of a LaTeX log which is not valid in UTF-8.
+   */
+  private static final byte[] LATEX_LOG = "Overfull \\hbox in paragraph at lines 3--4 [Gr\u00f6\u00dfe]\n".getBytes(StandardCharsets.ISO_8859_1);
+
+  private static final byte[] MAKEINDEX_LOG = "This is makeindex, version 2.15\n".getBytes(StandardCharsets.US_ASCII);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void uncompressed() throws Exception {
+    File workingDirectory = write(false);
+    byte[] log = FileUtils.readFileToByteArray(new File(workingDirectory, AggregatedLog.LOG_NAME));
+    List<String> index = FileUtils.readLines(new File(workingDirectory, AggregatedLog.LOG_NAME + ".idx"), StandardCharsets.UTF_8);
+    Assert.assertEquals(2, index.size());
+    Assert.assertArrayEquals(section(1, Step.STEP_PDFLATEX, LATEX_LOG), read(log, index.get(0), "1\tpdflatex\t0\t"));
+    Assert.assertArrayEquals(section(2, Step.STEP_MAKEINDEX, MAKEINDEX_LOG), read(log, index.get(1), "2\tmakeindex\t"));
+    Assert.assertFalse(new File(workingDirectory, AggregatedLog.LOG_NAME + ".gz").exists());
+  }
+
+  @Test
+  public void compressed() throws Exception {
+    File workingDirectory = write(true);
+    byte[] log = FileUtils.readFileToByteArray(new File(workingDirectory, AggregatedLog.LOG_NAME + ".gz"));
+    List<String> index = FileUtils.readLines(new File(workingDirectory, AggregatedLog.LOG_NAME + ".gz.idx"), StandardCharsets.UTF_8);
+    Assert.assertEquals(2, index.size());
+    // each section is a gzip member of its own
+    Assert.assertArrayEquals(section(1, Step.STEP_PDFLATEX, LATEX_LOG), gunzip(read(log, index.get(0), "1\tpdflatex\t0\t")));
+    Assert.assertArrayEquals(section(2, Step.STEP_MAKEINDEX, MAKEINDEX_LOG), gunzip(read(log, index.get(1), "2\tmakeindex\t")));
+    // the whole log is a valid gzip file
+    Assert.assertArrayEquals(concat(section(1, Step.STEP_PDFLATEX, LATEX_LOG), section(2, Step.STEP_MAKEINDEX, MAKEINDEX_LOG)), gunzip(log));
+    Assert.assertFalse(new File(workingDirectory, AggregatedLog.LOG_NAME).exists());
+  }
+
+  @Test
+  public void missingStepLog() throws Exception {
+    File workingDirectory = folder.newFolder("latex");
+    try (AggregatedLog log = new AggregatedLog(workingDirectory, false)) {
+      log.append(1, 2, Step.STEP_PDFLATEX, null);
+      log.append(2, 2, Step.STEP_MAKEINDEX, new File(workingDirectory, "missing.ilg"));
+    }
+    Assert.assertArrayEquals(concat(section(1, Step.STEP_PDFLATEX, new byte[0]), section(2, Step.STEP_MAKEINDEX, new byte[0])),
+        FileUtils.readFileToByteArray(new File(workingDirectory, AggregatedLog.LOG_NAME)));
+  }
+
+  @Test
+  public void appended() throws Exception {
+    File workingDirectory = folder.newFolder("latex");
+    File stepLog = new File(workingDirectory, "sample.log");
+    FileUtils.writeByteArrayToFile(stepLog, LATEX_LOG);
+    try (AggregatedLog log = new AggregatedLog(workingDirectory, false)) {
+      log.append(1, 2, Step.STEP_PDFLATEX, stepLog);
+    }
+    try (AggregatedLog log = new AggregatedLog(workingDirectory, false)) {
+      log.append(1, 2, Step.STEP_PDFLATEX, stepLog);
+    }
+    byte[] section = section(1, Step.STEP_PDFLATEX, LATEX_LOG);
+    Assert.assertArrayEquals(concat(section, section), FileUtils.readFileToByteArray(new File(workingDirectory, AggregatedLog.LOG_NAME)));
+    Assert.assertEquals(Arrays.asList("1\tpdflatex\t0\t" + section.length, "1\tpdflatex\t" + section.length + "\t" + section.length),
+        FileUtils.readLines(new File(workingDirectory, AggregatedLog.LOG_NAME + ".idx"), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Writes the log of a build executing pdflatex and makeindex.
+   *
+   * @return The working directory containing the log.
+   */
+  private File write(boolean compress) throws IOException {
+    File workingDirectory = folder.newFolder("latex");
+    File latexLog = new File(workingDirectory, "sample.log");
+    File makeIndexLog = new File(workingDirectory, "sample.ilg");
+    FileUtils.writeByteArrayToFile(latexLog, LATEX_LOG);
+    FileUtils.writeByteArrayToFile(makeIndexLog, MAKEINDEX_LOG);
+    try (AggregatedLog log = new AggregatedLog(workingDirectory, compress)) {
+      log.append(1, 2, Step.STEP_PDFLATEX, latexLog);
+      log.append(2, 2, Step.STEP_MAKEINDEX, makeIndexLog);
+    }
+    return workingDirectory;
+  }
+
+  /**
+   * Returns the section of the log referenced by the given line of the index.
+   */
+  private static byte[] read(byte[] log, String line, String prefix) {
+    Assert.assertTrue(line, line.startsWith(prefix));
+    String[] columns = line.split("\t");
+    int offset = Integer.parseInt(columns[2]);
+    int length = Integer.parseInt(columns[3]);
+    return Arrays.copyOfRange(log, offset, offset + length);
+  }
+
+  private static byte[] section(int number, Step step, byte[] content) {
+    return concat(String.format(HEADER, number, step.getId()).getBytes(StandardCharsets.US_ASCII), content);
+  }
+
+  private static byte[] concat(byte[] first, byte[] second) {
+    byte[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
+  private static byte[] gunzip(byte[] compressed) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return IOUtils.toByteArray(in);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of {@link BibliographyFingerprint} resolving the .bib and .bst files referenced by the .aux file.
+ */
+public class BibliographyFingerprintTest {
+
+  private static final String NO_TEX_BIN = "does-not-exist";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void databaseInWorkingDirectory() throws Exception {
+    File workingDirectory = folder.newFolder("work");
+    write(workingDirectory, "doc.aux", "\\citation{a}\n\\bibdata{refs}\n");
+    write(workingDirectory, "refs.bib", "@book{a, title={A}}\n");
+    String fingerprint = BibliographyFingerprint.create(Step.STEP_BIBTEX, workingDirectory, "doc", Collections.emptyList(), NO_TEX_BIN);
+    Assert.assertNotNull(fingerprint);
+    write(workingDirectory, "refs.bib", "@book{a, title={B}}\n");
+    Assert.assertNotEquals(fingerprint, BibliographyFingerprint.create(Step.STEP_BIBTEX, workingDirectory, "doc", Collections.emptyList(), NO_TEX_BIN));
+  }
+
+  @Test
+  public void databaseInDependency() throws Exception {
+    File workingDirectory = folder.newFolder("work");
+    File dependency = folder.newFolder("dependency");
+    write(workingDirectory, "doc.aux", "\\citation{a}\n\\bibdata{refs}\n");
+    write(new File(dependency, "bib"), "refs.bib", "@book{a, title={A}}\n");
+    String fingerprint = BibliographyFingerprint.create(Step.STEP_BIBTEX, workingDirectory, "doc", Collections.singletonList(dependency), NO_TEX_BIN);
+    Assert.assertNotNull(fingerprint);
+    write(new File(dependency, "bib"), "refs.bib", "@book{a, title={B}}\n");
+    Assert.assertNotEquals(fingerprint, BibliographyFingerprint.create(Step.STEP_BIBTEX, workingDirectory, "doc", Collections.singletonList(dependency), NO_TEX_BIN));
+  }
+
+  @Test
+  public void unresolvedDatabase() throws Exception {
+    File workingDirectory = folder.newFolder("work");
+    write(workingDirectory, "doc.aux", "\\citation{a}\n\\bibdata{refs}\n");
+    Assert.assertNull(BibliographyFingerprint.create(Step.STEP_BIBTEX, workingDirectory, "doc", Collections.emptyList(), NO_TEX_BIN));
+  }
+
+  @Test
+  public void unresolvedStyle() throws Exception {
+    File workingDirectory = folder.newFolder("work");
+    write(workingDirectory, "doc.aux", "\\citation{a}\n\\bibdata{refs}\n\\bibstyle{custom}\n");
+    write(workingDirectory, "refs.bib", "@book{a, title={A}}\n");
+    Assert.assertNull(BibliographyFingerprint.create(Step.STEP_BIBTEX, workingDirectory, "doc", Collections.emptyList(), NO_TEX_BIN));
+  }
+
+  private static void write(File directory, String name, String content) throws Exception {
+    FileUtils.writeStringToFile(new File(directory, name), content, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of {@link BibliographySubset} with the database src/test/resources/subset/refs.bib. The document cites an entry with a crossref and xdata chain, an entry by one of its ids and an entry
+ * delimited by parentheses. The reduced database has to be equal to expected.bib.
+ */
+public class BibliographySubsetTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File workingDirectory;
+
+  @Before
+  public void setUp() throws IOException {
+    workingDirectory = folder.newFolder("latex");
+    FileUtils.copyDirectory(new File("src/test/resources/subset"), workingDirectory);
+  }
+
+  @Test
+  public void bibtex() throws Exception {
+    File directory = BibliographySubset.extract(Step.STEP_BIBTEX, workingDirectory, "sample", Collections.emptyList());
+    Assert.assertEquals(new File(workingDirectory, BibliographySubset.DIRECTORY), directory);
+    assertReduced(new File(directory, "refs.bib"));
+  }
+
+  @Test
+  public void biber() throws Exception {
+    String bcf = read(new File(workingDirectory, "sample.bcf"));
+    File directory = BibliographySubset.extract(Step.STEP_BIBER, workingDirectory, "sample", Collections.emptyList());
+    assertReduced(new File(directory, "refs.bib"));
+    // the .bcf file written by LaTeX is not changed
+    Assert.assertEquals(bcf, read(new File(workingDirectory, "sample.bcf")));
+    Assert.assertTrue(read(new File(directory, "sample.bcf")).contains(">" + BibliographySubset.DIRECTORY + "/refs.bib<"));
+  }
+
+  @Test
+  public void biberStep() {
+    Assert.assertEquals("--output-file sample.bbl --logfile sample mathan-bib/sample", Step.getArguments(BibliographySubset.getStep(Step.STEP_BIBER), new File("sample.tex")));
+    Assert.assertSame(Step.STEP_BIBTEX, BibliographySubset.getStep(Step.STEP_BIBTEX));
+  }
+
+  @Test
+  public void databaseInDependency() throws Exception {
+    File dependency = folder.newFolder("dependency");
+    FileUtils.moveFile(new File(workingDirectory, "refs.bib"), new File(dependency, "bib/refs.bib"));
+    File directory = BibliographySubset.extract(Step.STEP_BIBTEX, workingDirectory, "sample", Collections.singletonList(dependency));
+    assertReduced(new File(directory, "refs.bib"));
+  }
+
+  @Test
+  public void allCited() throws Exception {
+    FileUtils.writeStringToFile(new File(workingDirectory, "sample.aux"), "\\citation{*}\n\\bibdata{refs}\n", StandardCharsets.UTF_8);
+    Assert.assertNull(BibliographySubset.extract(Step.STEP_BIBTEX, workingDirectory, "sample", Collections.emptyList()));
+  }
+
+  @Test
+  public void reused() throws Exception {
+    File reduced = new File(BibliographySubset.extract(Step.STEP_BIBTEX, workingDirectory, "sample", Collections.emptyList()), "refs.bib");
+    FileUtils.writeStringToFile(reduced, "@book{marker}", StandardCharsets.UTF_8);
+    BibliographySubset.extract(Step.STEP_BIBTEX, workingDirectory, "sample", Collections.emptyList());
+    Assert.assertEquals("@book{marker}", read(reduced));
+    // a new citation requires the database to be reduced again
+    FileUtils.writeStringToFile(new File(workingDirectory, "sample.aux"), "\\citation{uncited}\n", StandardCharsets.UTF_8, true);
+    BibliographySubset.extract(Step.STEP_BIBTEX, workingDirectory, "sample", Collections.emptyList());
+    Assert.assertTrue(read(reduced).contains("@book{uncited,"));
+    Assert.assertTrue(read(reduced).contains("@proceedings{uncitedparent,"));
+  }
+
+  private void assertReduced(File reduced) throws IOException {
+    Assert.assertEquals(read(new File(workingDirectory, "expected.bib")), read(reduced));
+  }
+
+  private static String read(File file) throws IOException {
+    return FileUtils.readFileToString(file, StandardCharsets.ISO_8859_1);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of the {@link DocumentGraph} scanning a LaTeX source document written to a temporary source directory.
+ */
+public class DocumentGraphTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File sourceDirectory;
+
+  @Before
+  public void setUp() throws IOException {
+    sourceDirectory = folder.newFolder("tex");
+  }
+
+  @Test
+  public void input() throws Exception {
+    write("main.tex", "\\documentclass{local}\n\\usepackage{mystyle,amsmath}\n\\input{intro}\n\\input chapter\n\\include{appendix/a}\n% \\input{hidden}\n\\bibliography{refs}");
+    write("local.cls", "");
+    write("mystyle.sty", "\\RequirePackage{other}");
+    write("other.sty", "");
+    write("intro.tex", "");
+    write("chapter.tex", "");
+    write("appendix/a.tex", "");
+    write("hidden.tex", "");
+    write("refs.bib", "");
+    DocumentGraph graph = scan();
+    assertFiles(graph, "appendix/a.tex", "chapter.tex", "intro.tex", "local.cls", "main.tex", "mystyle.sty", "other.sty", "refs.bib");
+    Assert.assertEquals(Collections.singleton("other.sty"), graph.getDependencies("mystyle.sty"));
+    Assert.assertTrue(graph.isComplete());
+  }
+
+  @Test
+  public void graphics() throws Exception {
+    write("main.tex", "\\graphicspath{{images/}}\n\\includegraphics[width=\\textwidth]{logo}\n\\pgfplotstableread{data.csv}");
+    write("images/logo.png", "");
+    write("images/logo.pdf", "");
+    write("data.csv", "");
+    assertFiles(scan(), "data.csv", "images/logo.pdf", "images/logo.png", "main.tex");
+  }
+
+  @Test
+  public void importPackage() throws Exception {
+    write("main.tex", "\\import{chapters/}{one}\n\\subimport*{chapters}{two}\n\\includefrom{appendix/}{a}");
+    write("chapters/one.tex", "\\input{section}\n\\includegraphics{figure}\n\\subimport{part/}{three}");
+    write("chapters/section.tex", "");
+    write("chapters/figure.pdf", "");
+    write("chapters/two.tex", "");
+    write("chapters/part/three.tex", "\\input{four}");
+    write("chapters/part/four.tex", "");
+    write("appendix/a.tex", "");
+    DocumentGraph graph = scan();
+    assertFiles(graph, "appendix/a.tex", "chapters/figure.pdf", "chapters/one.tex", "chapters/part/four.tex", "chapters/part/three.tex", "chapters/section.tex", "chapters/two.tex",
+        "main.tex");
+    Assert.assertTrue(graph.isComplete());
+  }
+
+  @Test
+  public void inputIfFileExists() throws Exception {
+    write("main.tex", "\\InputIfFileExists{settings}{}{\\input{defaults}}");
+    write("settings.tex", "");
+    write("defaults.tex", "");
+    assertFiles(scan(), "defaults.tex", "main.tex", "settings.tex");
+  }
+
+  @Test
+  public void inputminted() throws Exception {
+    write("main.tex", "\\inputminted[linenos]{java}{src/Sample.java}\n\\lstinputlisting{listing.txt}");
+    write("src/Sample.java", "");
+    write("listing.txt", "");
+    assertFiles(scan(), "listing.txt", "main.tex", "src/Sample.java");
+  }
+
+  @Test
+  public void tikzLibrary() throws Exception {
+    write("main.tex", "\\usetikzlibrary{arrows,mylib}");
+    write("tikzlibrarymylib.code.tex", "");
+    assertFiles(scan(), "main.tex", "tikzlibrarymylib.code.tex");
+  }
+
+  @Test
+  public void dynamicReference() throws Exception {
+    write("main.tex", "\\newcommand{\\dir}{chapters}\n\\input{\\dir/intro}\n\\subimport{\\dir/}{two}");
+    write("chapters/intro.tex", "");
+    DocumentGraph graph = scan();
+    Assert.assertFalse(graph.isComplete());
+    Assert.assertEquals(Arrays.asList("\\input{\\dir/intro} in main.tex", "\\subimport{\\dir/}{two} in main.tex"), graph.getDynamicReferences());
+  }
+
+  @Test
+  public void unknownCommand() throws Exception {
+    write("main.tex", "\\loadchapter{intro}\n\\input{outro}\n\\label{outro}");
+    write("intro.tex", "");
+    write("outro.tex", "");
+    DocumentGraph graph = scan();
+    Assert.assertFalse(graph.isComplete());
+    // outro.tex is part of the graph, so \label{outro} does not make the graph incomplete
+    Assert.assertEquals(Collections.singletonList("\\loadchapter{intro} in main.tex"), graph.getDynamicReferences());
+  }
+
+  @Test
+  public void recorder() throws Exception {
+    write("main.tex", "");
+    write("generated.tex", "");
+    File workingDirectory = folder.newFolder("latex");
+    FileUtils.writeStringToFile(new File(workingDirectory, "main.fls"), String.format("PWD %s%nINPUT /usr/share/texmf/tex/latex/base/article.cls%nINPUT ./generated.tex%n",
+        workingDirectory.getAbsolutePath()), StandardCharsets.UTF_8);
+    assertFiles(DocumentGraph.scan(sourceDirectory, "main.tex", workingDirectory), "generated.tex", "main.tex");
+  }
+
+  @Test(expected = LatexExecutionException.class)
+  public void missingDocument() throws Exception {
+    DocumentGraph.scan(sourceDirectory, "missing.tex", null);
+  }
+
+  private DocumentGraph scan() throws Exception {
+    return DocumentGraph.scan(sourceDirectory, "main.tex", null);
+  }
+
+  private void write(String name, String content) throws IOException {
+    FileUtils.writeStringToFile(new File(sourceDirectory, name), content, StandardCharsets.UTF_8);
+  }
+
+  private static void assertFiles(DocumentGraph graph, String... files) {
+    Assert.assertEquals(new TreeSet<>(Arrays.asList(files)), graph.getFiles());
+  }
+}
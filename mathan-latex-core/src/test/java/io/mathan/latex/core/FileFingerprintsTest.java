@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of {@link FileFingerprints} persisting the fingerprints in an index. A file whose content is replaced while its size and modification time are kept is detected as unchanged, which shows
+ * that the fingerprint was taken from the index.
+ */
+public class FileFingerprintsTest {
+
+  private static final long PAST = 1_500_000_000_000L;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File index;
+
+  @Before
+  public void setUp() {
+    index = new File(folder.getRoot(), "target/mathan-fingerprints.properties");
+  }
+
+  @Test
+  public void indexReused() throws Exception {
+    File file = write("a.tex", "first", PAST);
+    FileFingerprints fingerprints = FileFingerprints.load(index);
+    String fingerprint = fingerprints.get(file);
+    fingerprints.save();
+    Assert.assertTrue(index.isFile());
+    write("a.tex", "other", PAST);
+    Assert.assertEquals(fingerprint, FileFingerprints.load(index).get(file));
+    // without the index the file is hashed again
+    Assert.assertNotEquals(fingerprint, new FileFingerprints().get(file));
+  }
+
+  @Test
+  public void modificationTimeChanged() throws Exception {
+    File file = write("a.tex", "first", PAST);
+    FileFingerprints fingerprints = FileFingerprints.load(index);
+    String fingerprint = fingerprints.get(file);
+    fingerprints.save();
+    write("a.tex", "other", PAST + 1000);
+    Assert.assertNotEquals(fingerprint, FileFingerprints.load(index).get(file));
+  }
+
+  @Test
+  public void recentlyModifiedNotStored() throws Exception {
+    File file = write("a.tex", "first", System.currentTimeMillis());
+    FileFingerprints fingerprints = FileFingerprints.load(index);
+    String fingerprint = fingerprints.get(file);
+    fingerprints.save();
+    Assert.assertTrue(read().isEmpty());
+    // a modification within the resolution of the modification time is detected
+    write("a.tex", "other", file.lastModified());
+    Assert.assertNotEquals(fingerprint, FileFingerprints.load(index).get(file));
+  }
+
+  @Test
+  public void unusedEntriesPruned() throws Exception {
+    File a = write("a.tex", "a", PAST);
+    File b = write("b.tex", "b", PAST);
+    FileFingerprints fingerprints = FileFingerprints.load(index);
+    fingerprints.get(Arrays.asList(a, b));
+    fingerprints.save();
+    Assert.assertEquals(2, read().size());
+    fingerprints = FileFingerprints.load(index);
+    fingerprints.get(a);
+    fingerprints.save();
+    Properties properties = read();
+    Assert.assertEquals(1, properties.size());
+    Assert.assertTrue(properties.containsKey(a.getAbsolutePath()));
+  }
+
+  @Test
+  public void parallel() throws Exception {
+    File a = write("a.tex", "a", PAST);
+    File b = write("b.tex", "b", PAST);
+    File c = write("c.tex", "a", PAST);
+    Map<File, String> fingerprints = new FileFingerprints().get(Arrays.asList(a, b, c));
+    Assert.assertEquals(3, fingerprints.size());
+    Assert.assertEquals(fingerprints.get(a), fingerprints.get(c));
+    Assert.assertNotEquals(fingerprints.get(a), fingerprints.get(b));
+  }
+
+  @Test
+  public void corruptIndexIgnored() throws Exception {
+    File file = write("a.tex", "first", PAST);
+    FileUtils.writeStringToFile(index, "key=\\u00", StandardCharsets.ISO_8859_1);
+    Assert.assertEquals(new FileFingerprints().get(file), FileFingerprints.load(index).get(file));
+  }
+
+  private File write(String name, String content, long lastModified) throws IOException {
+    File file = new File(folder.getRoot(), name);
+    FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+    Assert.assertTrue(file.setLastModified(lastModified));
+    return file;
+  }
+
+  private Properties read() throws IOException {
+    Properties properties = new Properties();
+    try (InputStream in = new FileInputStream(index)) {
+      properties.load(in);
+    }
+    return properties;
+  }
+}
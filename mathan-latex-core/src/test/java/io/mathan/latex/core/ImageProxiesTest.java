@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of {@link ImageProxies} with images of 2000x1000 pixels and proxies of at most 500 pixels. The resolution of a proxy has to be reduced by the factor of the pixels, so the natural size of the
+ * image stays the same.
+ */
+public class ImageProxiesTest {
+
+  private static final String PNG_FORMAT = "javax_imageio_png_1.0";
+  private static final String JPEG_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+  private static final int SIZE = 500;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File workingDirectory;
+
+  private File cacheDirectory;
+
+  private TestBuild build;
+
+  @Before
+  public void setUp() throws IOException {
+    workingDirectory = folder.newFolder("latex");
+    cacheDirectory = folder.newFolder("cache");
+    build = new TestBuild(folder.getRoot());
+  }
+
+  @Test
+  public void png() throws Exception {
+    File image = writePng("figure.png", 2000, 1000, 11811);
+    ImageProxies.execute(workingDirectory, SIZE, cacheDirectory, build);
+    assertSize(image, 500, 250);
+    // 300 dpi scaled to 75 dpi
+    Assert.assertEquals("2953", getNode(image, PNG_FORMAT, "pHYs").getAttribute("pixelsPerUnitXAxis"));
+    Assert.assertEquals("2953", getNode(image, PNG_FORMAT, "pHYs").getAttribute("pixelsPerUnitYAxis"));
+  }
+
+  @Test
+  public void pngWithoutResolution() throws Exception {
+    File image = writePng("figure.png", 2000, 1000, 0);
+    ImageProxies.execute(workingDirectory, SIZE, cacheDirectory, build);
+    assertSize(image, 500, 250);
+    // the default resolution of 72 dpi scaled to 18 dpi
+    Assert.assertEquals("709", getNode(image, PNG_FORMAT, "pHYs").getAttribute("pixelsPerUnitXAxis"));
+  }
+
+  @Test
+  public void jpeg() throws Exception {
+    File image = writeJpeg("images/photo.jpg", 1000, 2000, "1", 300);
+    ImageProxies.execute(workingDirectory, SIZE, cacheDirectory, build);
+    assertSize(image, 250, 500);
+    Assert.assertEquals("1", getNode(image, JPEG_FORMAT, "app0JFIF").getAttribute("resUnits"));
+    Assert.assertEquals("75", getNode(image, JPEG_FORMAT, "app0JFIF").getAttribute("Xdensity"));
+    Assert.assertEquals("75", getNode(image, JPEG_FORMAT, "app0JFIF").getAttribute("Ydensity"));
+  }
+
+  @Test
+  public void jpegResolutionPerCentimeter() throws Exception {
+    File image = writeJpeg("photo.jpg", 2000, 1000, "2", 100);
+    ImageProxies.execute(workingDirectory, SIZE, cacheDirectory, build);
+    // 100 dots per centimeter are 254 dpi, scaled to 64 dpi
+    Assert.assertEquals("1", getNode(image, JPEG_FORMAT, "app0JFIF").getAttribute("resUnits"));
+    Assert.assertEquals("64", getNode(image, JPEG_FORMAT, "app0JFIF").getAttribute("Xdensity"));
+  }
+
+  @Test
+  public void smallImageUnchanged() throws Exception {
+    File image = writePng("small.png", 400, 300, 11811);
+    byte[] content = FileUtils.readFileToByteArray(image);
+    ImageProxies.execute(workingDirectory, SIZE, cacheDirectory, build);
+    Assert.assertArrayEquals(content, FileUtils.readFileToByteArray(image));
+  }
+
+  @Test
+  public void unreadableImageUnchanged() throws Exception {
+    File image = new File(workingDirectory, "broken.png");
+    FileUtils.writeStringToFile(image, "no image", StandardCharsets.US_ASCII);
+    ImageProxies.execute(workingDirectory, SIZE, cacheDirectory, build);
+    Assert.assertEquals("no image", FileUtils.readFileToString(image, StandardCharsets.US_ASCII));
+    Assert.assertEquals(Arrays.asList("[INFO] [mathan] image proxies: 0 created, 0 restored from cache"), build.getMessages());
+  }
+
+  @Test
+  public void restoredFromCache() throws Exception {
+    File image = writePng("figure.png", 2000, 1000, 11811);
+    byte[] original = FileUtils.readFileToByteArray(image);
+    ImageProxies.execute(workingDirectory, SIZE, cacheDirectory, build);
+    byte[] proxy = FileUtils.readFileToByteArray(image);
+    // the next build copies the original image into the working directory again
+    FileUtils.writeByteArrayToFile(image, original);
+    ImageProxies.execute(workingDirectory, SIZE, cacheDirectory, build);
+    Assert.assertArrayEquals(proxy, FileUtils.readFileToByteArray(image));
+    Assert.assertEquals(Arrays.asList("[INFO] [mathan] image proxies: 1 created, 0 restored from cache", "[INFO] [mathan] image proxies: 0 created, 1 restored from cache"),
+        build.getMessages());
+    // a different size requires a new proxy
+    FileUtils.writeByteArrayToFile(image, original);
+    ImageProxies.execute(workingDirectory, 200, cacheDirectory, build);
+    assertSize(image, 200, 100);
+  }
+
+  /**
+   * Writes a PNG image with the given resolution in pixels per meter (0 for no resolution).
+   */
+  private File writePng(String name, int width, int height, int pixelsPerMeter) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+    IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), writer.getDefaultWriteParam());
+    if (pixelsPerMeter > 0) {
+      IIOMetadataNode physical = new IIOMetadataNode("pHYs");
+      physical.setAttribute("pixelsPerUnitXAxis", Integer.toString(pixelsPerMeter));
+      physical.setAttribute("pixelsPerUnitYAxis", Integer.toString(pixelsPerMeter));
+      physical.setAttribute("unitSpecifier", "meter");
+      IIOMetadataNode root = new IIOMetadataNode(PNG_FORMAT);
+      root.appendChild(physical);
+      metadata.mergeTree(PNG_FORMAT, root);
+    }
+    return write(name, writer, image, metadata);
+  }
+
+  /**
+   * Writes a JPEG image with the given density and unit of the density (1 for dots per inch, 2 for dots per centimeter).
+   */
+  private File writeJpeg(String name, int width, int height, String resUnits, int density) throws IOException {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), writer.getDefaultWriteParam());
+    IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(JPEG_FORMAT);
+    IIOMetadataNode jfif = (IIOMetadataNode) root.getElementsByTagName("app0JFIF").item(0);
+    jfif.setAttribute("resUnits", resUnits);
+    jfif.setAttribute("Xdensity", Integer.toString(density));
+    jfif.setAttribute("Ydensity", Integer.toString(density));
+    metadata.setFromTree(JPEG_FORMAT, root);
+    return write(name, writer, image, metadata);
+  }
+
+  private File write(String name, ImageWriter writer, BufferedImage image, IIOMetadata metadata) throws IOException {
+    File file = new File(workingDirectory, name);
+    FileUtils.forceMkdirParent(file);
+    try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+      writer.setOutput(out);
+      writer.write(null, new IIOImage(image, null, metadata), writer.getDefaultWriteParam());
+    } finally {
+      writer.dispose();
+    }
+    return file;
+  }
+
+  private static void assertSize(File file, int width, int height) throws IOException {
+    BufferedImage image = ImageIO.read(file);
+    Assert.assertEquals(width, image.getWidth());
+    Assert.assertEquals(height, image.getHeight());
+  }
+
+  private static IIOMetadataNode getNode(File file, String format, String name) throws IOException {
+    try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(in, true, false);
+        IIOMetadataNode root = (IIOMetadataNode) reader.getImageMetadata(0).getAsTree(format);
+        return (IIOMetadataNode) root.getElementsByTagName(name).item(0);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+}
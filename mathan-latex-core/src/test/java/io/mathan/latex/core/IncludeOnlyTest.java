@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of {@link IncludeOnly} with the .aux files of a previous build of a document including the chapters intro and chapters/two.
+ */
+public class IncludeOnlyTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File workingDirectory;
+
+  private TestBuild build;
+
+  @Before
+  public void setUp() throws IOException {
+    workingDirectory = folder.newFolder("latex");
+    build = new TestBuild(folder.getRoot());
+  }
+
+  @Test
+  public void chapters() throws Exception {
+    writeAuxFiles();
+    Assert.assertEquals("\\includeonly{chapters/two}", IncludeOnly.getPreamble(new String[]{"chapters/two.tex"}, workingDirectory, "sample", build));
+    Assert.assertEquals(Collections.singletonList("[INFO] [mathan] building chapters: chapters/two"), build.getMessages());
+  }
+
+  @Test
+  public void chaptersTrimmed() throws Exception {
+    writeAuxFiles();
+    Assert.assertEquals("\\includeonly{intro,chapters/two}", IncludeOnly.getPreamble(new String[]{" intro", "", "chapters/two "}, workingDirectory, "sample", build));
+  }
+
+  @Test
+  public void noChapters() throws Exception {
+    writeAuxFiles();
+    Assert.assertEquals("", IncludeOnly.getPreamble(null, workingDirectory, "sample", build));
+    Assert.assertEquals("", IncludeOnly.getPreamble(new String[0], workingDirectory, "sample", build));
+    Assert.assertTrue(build.getMessages().isEmpty());
+  }
+
+  @Test
+  public void firstBuild() throws Exception {
+    Assert.assertEquals("", IncludeOnly.getPreamble(new String[]{"intro"}, workingDirectory, "sample", build));
+    Assert.assertEquals(Collections.singletonList("[INFO] [mathan] building all chapters, no auxiliary files of a previous build found"), build.getMessages());
+  }
+
+  @Test
+  public void excludedChapterMissing() throws Exception {
+    writeAuxFiles();
+    FileUtils.forceDelete(new File(workingDirectory, "intro.aux"));
+    Assert.assertEquals("", IncludeOnly.getPreamble(new String[]{"chapters/two"}, workingDirectory, "sample", build));
+    Assert.assertEquals(Collections.singletonList("[INFO] [mathan] building all chapters, auxiliary file of chapter intro not found"), build.getMessages());
+    // the .aux file of an included chapter is written by the build
+    Assert.assertEquals("\\includeonly{intro}", IncludeOnly.getPreamble(new String[]{"intro"}, workingDirectory, "sample", build));
+  }
+
+  private void writeAuxFiles() throws IOException {
+    write("sample.aux", "\\relax \n\\@input{intro.aux}\n\\@input{chapters/two.aux}\n\\gdef \\@abspage@last{3}\n");
+    write("intro.aux", "\\relax \n\\@writefile{toc}{\\contentsline {chapter}{\\numberline {1}Intro}{1}{}\\protected@file@percent }\n");
+    write("chapters/two.aux", "\\relax \n");
+  }
+
+  private void write(String name, String content) throws IOException {
+    FileUtils.writeStringToFile(new File(workingDirectory, name), content, StandardCharsets.ISO_8859_1);
+  }
+}
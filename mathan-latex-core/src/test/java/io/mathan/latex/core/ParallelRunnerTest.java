@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test running several {@link MathanLatexRunner runners} with different makeindex style files concurrently in the same JVM. Each runner has to use its own style file and the predefined steps must
+ * not be modified.
+ */
+public class ParallelRunnerTest {
+
+  private static final int BUILDS = 8;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void parallel() throws Exception {
+    List<File> basedirs = new ArrayList<>();
+    for (int i = 0; i < BUILDS; i++) {
+      File basedir = folder.newFolder("build" + i);
+      FileUtils.writeStringToFile(new File(basedir, "src/main/tex/sample.tex"), "\\documentclass{article}", StandardCharsets.UTF_8);
+      basedirs.add(basedir);
+    }
+    CyclicBarrier barrier = new CyclicBarrier(BUILDS);
+    ExecutorService executorService = Executors.newFixedThreadPool(BUILDS);
+    try {
+      List<Future<TestBuild>> futures = new ArrayList<>();
+      for (int i = 0; i < BUILDS; i++) {
+        futures.add(executorService.submit(build(basedirs.get(i), "style" + i + ".ist", barrier)));
+      }
+      for (int i = 0; i < BUILDS; i++) {
+        TestBuild build = futures.get(i).get();
+        Assert.assertEquals(new File(basedirs.get(i), "target/sample-1.0.pdf"), build.getArtifact());
+        Assert.assertEquals(Arrays.asList("pdflatex -synctex=1 -interaction=nonstopmode --src-specials sample", "makeindex sample.idx -s style" + i + ".ist",
+            "pdflatex -synctex=1 -interaction=nonstopmode --src-specials sample"), RecordingStepExecutor.getArguments(basedirs.get(i)));
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+    Assert.assertEquals("%input -s %style", Step.STEP_MAKEINDEX.getArguments());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void predefinedStepImmutable() {
+    Step.STEP_MAKEINDEX.setArguments("%input -s custom.ist");
+  }
+
+  @Test
+  public void copyMutable() {
+    Step step = new Step(Step.STEP_MAKEINDEX);
+    step.setArguments("%input -s custom.ist");
+    Assert.assertEquals("%input -s custom.ist", step.getArguments());
+    Assert.assertEquals("%input -s %style", Step.STEP_MAKEINDEX.getArguments());
+  }
+
+  private static Callable<TestBuild> build(File basedir, String styleFile, CyclicBarrier barrier) {
+    return () -> {
+      MathanLatexConfiguration configuration = new MathanLatexConfiguration();
+      configuration.setLatexSteps(new String[]{Step.STEP_PDFLATEX.getId()});
+      configuration.setBuildSteps(new String[]{Constants.LaTeX, Step.STEP_MAKEINDEX.getId(), Constants.LaTeX});
+      configuration.setMakeIndexStyleFile(styleFile);
+      TestBuild build = new TestBuild(basedir);
+      // start all builds at the same time
+      barrier.await();
+      new MathanLatexRunner(configuration, build).execute();
+      return build;
+    };
+  }
+}
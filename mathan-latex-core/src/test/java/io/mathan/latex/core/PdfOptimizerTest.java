@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of the {@link PdfOptimizer} with shell scripts in the bin directory of the TeX distribution replacing Ghostscript and qpdf. The scripts shrink, grow or copy the document of 100 bytes or fail.
+ */
+public class PdfOptimizerTest {
+
+  private static final String GS = "for a in \"$@\"; do case $a in -sOutputFile=*) out=${a#-sOutputFile=};; esac; in=$a; done\n";
+  private static final String QPDF = "for a in \"$@\"; do in=$out; out=$a; done\n";
+
+  private static final String SHRINK = "head -c 60 \"$in\" > \"$out\"\n";
+  private static final String GROW = "cat \"$in\" \"$in\" > \"$out\"\n";
+  private static final String COPY = "cat \"$in\" > \"$out\"\n";
+  private static final String FAIL = "exit 1\n";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File texBin;
+
+  private File document;
+
+  private MathanLatexConfiguration configuration;
+
+  private TestBuild build;
+
+  @Before
+  public void setUp() throws IOException {
+    Assume.assumeFalse(System.getProperty("os.name").toLowerCase().contains("windows"));
+    texBin = folder.newFolder("bin");
+    document = new File(folder.newFolder("latex"), "sample.pdf");
+    StringBuilder content = new StringBuilder("%PDF-1.5\n");
+    while (content.length() < 99) {
+      content.append('x');
+    }
+    FileUtils.writeStringToFile(document, content.append('\n').toString(), StandardCharsets.US_ASCII);
+    configuration = new MathanLatexConfiguration();
+    configuration.setTexBin(texBin.getAbsolutePath());
+    build = new TestBuild(folder.getRoot());
+  }
+
+  @Test
+  public void smaller() throws Exception {
+    optimize(SHRINK, COPY);
+    Assert.assertEquals(60, document.length());
+    Assert.assertEquals(Arrays.asList("[INFO] [mathan] sample.pdf optimized: 100 bytes -> 60 bytes (-40%)"), build.getMessages());
+    // the documents written by the optimizers are removed
+    Assert.assertEquals(Arrays.asList("sample.pdf", "sample.pdf.gs.pdf.log", "sample.pdf.qpdf.pdf.log"), list());
+  }
+
+  @Test
+  public void notSmaller() throws Exception {
+    optimize(GROW, COPY);
+    Assert.assertEquals(100, document.length());
+    Assert.assertEquals(Arrays.asList("[INFO] [mathan] sample.pdf not optimized, optimized document is not smaller: 100 bytes"), build.getMessages());
+    Assert.assertEquals(Arrays.asList("sample.pdf", "sample.pdf.gs.pdf.log", "sample.pdf.qpdf.pdf.log"), list());
+  }
+
+  @Test
+  public void optimizerFailed() throws Exception {
+    optimize(FAIL, SHRINK);
+    // qpdf optimizes the original document
+    Assert.assertEquals(60, document.length());
+    Assert.assertEquals(Arrays.asList("[WARN] [mathan] optimization with gs finished with exit code=1, see sample.pdf.gs.pdf.log",
+        "[INFO] [mathan] sample.pdf optimized: 100 bytes -> 60 bytes (-40%)"), build.getMessages());
+  }
+
+  @Test
+  public void allOptimizersFailed() throws Exception {
+    optimize(FAIL, FAIL);
+    Assert.assertEquals(100, document.length());
+    Assert.assertEquals("[INFO] [mathan] sample.pdf not optimized: 100 bytes", build.getMessages().get(2));
+  }
+
+  @Test
+  public void qpdfWarnings() throws Exception {
+    optimize(COPY, SHRINK + "exit 3\n");
+    Assert.assertEquals(60, document.length());
+  }
+
+  @Test
+  public void missingDocument() throws Exception {
+    FileUtils.forceDelete(document);
+    optimize(SHRINK, SHRINK);
+    Assert.assertTrue(build.getMessages().isEmpty());
+  }
+
+  private void optimize(String gs, String qpdf) throws Exception {
+    writeScript("gs", GS + gs);
+    writeScript("qpdf", QPDF + qpdf);
+    PdfOptimizer.execute(document, configuration, build);
+  }
+
+  private void writeScript(String name, String content) throws IOException {
+    File script = new File(texBin, name);
+    FileUtils.writeStringToFile(script, "#!/bin/sh\n" + content, StandardCharsets.US_ASCII);
+    Assert.assertTrue(script.setExecutable(true));
+  }
+
+  private List<String> list() {
+    String[] files = document.getParentFile().list();
+    Arrays.sort(files);
+    return Arrays.asList(files);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * {@link StepExecutor} used by the tests instead of the executables of a TeX distribution. It records the arguments of each step for the base directory of the build and writes the output file of
+ * the step.
+ */
+public class RecordingStepExecutor implements StepExecutor {
+
+  private static final Map<File, List<String>> ARGUMENTS = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the arguments of the steps executed for the build with the given base directory.
+   *
+   * @param basedir The base directory of the build.
+   * @return The arguments in the order of execution.
+   */
+  static List<String> getArguments(File basedir) {
+    return ARGUMENTS.getOrDefault(basedir, Collections.emptyList());
+  }
+
+  @Override
+  public boolean supports(Step step, MathanLatexConfiguration configuration) {
+    return true;
+  }
+
+  @Override
+  public int getPriority() {
+    return Integer.MAX_VALUE;
+  }
+
+  @Override
+  public int execute(StepExecution execution) throws IOException {
+    Step step = execution.getStep();
+    ARGUMENTS.computeIfAbsent(execution.getBuild().getBasedir(), basedir -> Collections.synchronizedList(new ArrayList<>()))
+        .add(step.getId() + " " + Step.getArguments(step, execution.getTexFile()));
+    FileUtils.writeStringToFile(execution.getOutputFile(), step.getId(), StandardCharsets.UTF_8);
+    if (Constants.FORMAT_TEX.equals(step.getInputFormat())) {
+      // the document has an index
+      FileUtils.writeStringToFile(execution.getFile(Constants.FORMAT_IDX), "\\indexentry{a}{1}", StandardCharsets.UTF_8);
+    }
+    return 0;
+  }
+}
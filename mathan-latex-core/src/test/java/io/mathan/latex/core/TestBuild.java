@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.zeroturnaround.exec.stream.LogOutputStream;
+
+/**
+ * {@link Build} of a project in the given base directory collecting the log messages.
+ */
+public class TestBuild implements Build {
+
+  private final File basedir;
+  private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+  private File artifact;
+
+  public TestBuild(File basedir) {
+    this.basedir = basedir;
+  }
+
+  /**
+   * Returns the messages logged by the build.
+   *
+   * @return The messages prefixed by their level.
+   */
+  public List<String> getMessages() {
+    return messages;
+  }
+
+  public File getArtifact() {
+    return artifact;
+  }
+
+  @Override
+  public BuildLog getLog() {
+    return new BuildLog() {
+      @Override
+      public void error(String message) {
+        messages.add("[ERROR] " + message);
+      }
+
+      @Override
+      public void error(String message, Exception ex) {
+        error(message);
+      }
+
+      @Override
+      public void info(String message) {
+        messages.add("[INFO] " + message);
+      }
+
+      @Override
+      public void info(String message, Exception ex) {
+        info(message);
+      }
+
+      @Override
+      public void warn(String message) {
+        messages.add("[WARN] " + message);
+      }
+
+      @Override
+      public void warn(String message, Exception ex) {
+        warn(message);
+      }
+
+      @Override
+      public boolean isDebugEnabled() {
+        return false;
+      }
+    };
+  }
+
+  @Override
+  public File getBasedir() {
+    return basedir;
+  }
+
+  @Override
+  public String getArtifactId() {
+    return "sample";
+  }
+
+  @Override
+  public String getVersion() {
+    return "1.0";
+  }
+
+  @Override
+  public void setArtifact(File artifact) {
+    this.artifact = artifact;
+  }
+
+  @Override
+  public void attachArtifact(File artifact, String type) {
+  }
+
+  @Override
+  public void resolveDependencies(File workingDirectory) {
+  }
+
+  @Override
+  public List<File> resolveDependencies(DependencyCache cache) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public LogOutputStream getRedirectOutput(String prefix) {
+    return getRedirectError(prefix);
+  }
+
+  @Override
+  public LogOutputStream getRedirectError(String prefix) {
+    return new LogOutputStream() {
+      @Override
+      protected void processLine(String line) {
+        messages.add("[INFO] " + prefix + line);
+      }
+    };
+  }
+}
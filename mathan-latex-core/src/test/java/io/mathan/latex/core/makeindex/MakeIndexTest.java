@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.latex.core.makeindex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test of {@link MakeIndex} comparing the output for the input files in src/test/resources/makeindex with the golden files (.ind, .nls) next to them.
+ */
+public class MakeIndexTest {
+
+  private static final File DIRECTORY = new File("src/test/resources/makeindex");
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void ranges() throws Exception {
+    assertIndex("ranges", new IndexStyle(), 0);
+  }
+
+  @Test
+  public void encapsulation() throws Exception {
+    assertIndex("encap", new IndexStyle(), 0);
+  }
+
+  @Test
+  public void quoteActualEscape() throws Exception {
+    // the entry broken! has an empty level and is rejected
+    File log = assertIndex("quote", new IndexStyle(), 1);
+    Assert.assertTrue(read(log).contains("!! Input index error (line 9):\n   Illegal null field."));
+  }
+
+  @Test
+  public void pagePrecedence() throws Exception {
+    assertIndex("precedence", new IndexStyle(), 0);
+  }
+
+  @Test
+  public void lineMax() throws Exception {
+    assertIndex("wrap", new IndexStyle(), 0);
+  }
+
+  @Test
+  public void lineMaxOfStyle() throws Exception {
+    File output = folder.newFile("wrap.ind");
+    new MakeIndex(IndexStyle.parse(new File(DIRECTORY, "wrap.ist"))).execute(new File(DIRECTORY, "wrap.idx"), output, folder.newFile("wrap.ilg"));
+    Assert.assertEquals(read(new File(DIRECTORY, "wrap-style.ind")), read(output));
+  }
+
+  @Test
+  public void nomencl() throws Exception {
+    File output = folder.newFile("nomencl.nls");
+    Assert.assertEquals(0, new MakeIndex(IndexStyle.nomencl()).execute(new File(DIRECTORY, "nomencl.nlo"), output, folder.newFile("nomencl.ilg")));
+    Assert.assertEquals(read(new File(DIRECTORY, "nomencl.nls")), read(output));
+  }
+
+  /**
+   * Creates the index for the input file with the given name and compares it with the golden file.
+   *
+   * @return The transcript.
+   */
+  private File assertIndex(String name, IndexStyle style, int rejected) throws IOException {
+    File output = folder.newFile(name + ".ind");
+    File log = folder.newFile(name + ".ilg");
+    Assert.assertEquals(rejected, new MakeIndex(style).execute(new File(DIRECTORY, name + ".idx"), output, log));
+    Assert.assertEquals(read(new File(DIRECTORY, name + ".ind")), read(output));
+    return log;
+  }
+
+  private static String read(File file) throws IOException {
+    return FileUtils.readFileToString(file, StandardCharsets.ISO_8859_1);
+  }
+}
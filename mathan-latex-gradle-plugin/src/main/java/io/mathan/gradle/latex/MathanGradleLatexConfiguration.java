@@ -5,8 +5,12 @@ import org.gradle.api.file.ConfigurableFileTree;
 
 public class MathanGradleLatexConfiguration extends MathanLatexConfiguration {
 
+  private static final long serialVersionUID = 1L;
+
   private String configurationName = "compileClasspath";
-  private ConfigurableFileTree resources;
+  // the extension is never handed over to the worker, the task creates a MathanLatexConfiguration
+  private transient ConfigurableFileTree resources;
+  private boolean processIsolation = false;
 
   public ConfigurableFileTree getResources() {
     return resources;
@@ -16,6 +20,14 @@ public class MathanGradleLatexConfiguration extends MathanLatexConfiguration {
     this.resources = resources;
   }
 
+  public boolean isProcessIsolation() {
+    return processIsolation;
+  }
+
+  public void setProcessIsolation(boolean processIsolation) {
+    this.processIsolation = processIsolation;
+  }
+
   public String getConfigurationName() {
     return configurationName;
   }
@@ -16,21 +16,147 @@
 
 package io.mathan.gradle.latex;
 
-import java.util.HashMap;
-import java.util.Map;
+import io.mathan.latex.core.Constants;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.file.Directory;
+import org.gradle.api.provider.Provider;
 
 public class MathanLatexPlugin implements Plugin<Project> {
 
+  /**
+   * The project property overriding the profile of the extension.
+   */
+  private static final String PROFILE_PROPERTY = "mathan.profile";
+
+  /**
+   * The project property overriding the chapters to build of the extension, e.g. -Pmathan.includeOnly=chapters/intro,chapters/results.
+   */
+  private static final String INCLUDE_ONLY_PROPERTY = "mathan.includeOnly";
+
+  /**
+   * The project property overriding the directory of the persistent caches of the tools, e.g. -Pmathan.toolCacheDirectory=/opt/mathan-tools.
+   */
+  private static final String TOOL_CACHE_DIRECTORY_PROPERTY = "mathan.toolCacheDirectory";
+
   @Override
   public void apply(Project project) {
     MathanGradleLatexConfiguration extension = project.getExtensions().create("latex", MathanGradleLatexConfiguration.class);
-    Map<String, Object> map = new HashMap<>();
-    map.put("type", MathanLatexTask.class);
-    MathanLatexTask task = (MathanLatexTask) project.task(map, "latex");
-    task.getOutputs().upToDateWhen(t -> false);
-    task.setConfiguration(extension);
+    project.getTasks().register("latex", MathanLatexTask.class, task -> configureTask(project, extension, task));
+    project.getTasks().register("warmLatexCaches", MathanWarmCachesTask.class, task -> {
+      task.getBasedir().set(project.getLayout().getProjectDirectory());
+      task.getTexBin().set(project.provider(extension::getTexBin));
+      task.getToolCacheDirectory().set(getToolCacheDirectory(project, extension));
+    });
+  }
+
+  /**
+   * Wires the properties of the task to the values of the extension. The values are evaluated lazily, so the extension can be configured after the plugin has been applied.
+   *
+   * @param project The project the plugin is applied to.
+   * @param extension The latex extension.
+   * @param task The latex task.
+   */
+  private void configureTask(Project project, MathanGradleLatexConfiguration extension, MathanLatexTask task) {
+    Directory projectDirectory = project.getLayout().getProjectDirectory();
+    task.getBasedir().set(projectDirectory);
+    task.getArtifactId().set(project.getName());
+    task.getVersion().set(project.provider(() -> project.getVersion().toString()));
+    task.getSourceDirectory().set(project.provider(() -> projectDirectory.dir(extension.getSourceDirectory())));
+    task.getDependencyFiles().from(project.provider(() -> {
+      if (extension.isEnableDependencyScan()) {
+        Configuration dependencies = project.getConfigurations().findByName(extension.getConfigurationName());
+        if (dependencies != null) {
+          return dependencies;
+        }
+      }
+      return Collections.emptyList();
+    }));
+    task.getResourceIncludes().set(project.provider(() -> {
+      if (extension.getResources() == null) {
+        Set<String> includes = new HashSet<>();
+        for (String include : Constants.RESOURCES_DEFAULT_EXTENSTIONS) {
+          includes.add("**/*." + include);
+        }
+        return includes;
+      }
+      return new HashSet<>(extension.getResources().getIncludes());
+    }));
+    task.getResourceExcludes().set(project.provider(() -> extension.getResources() == null ? Collections.<String>emptySet() : new HashSet<>(extension.getResources().getExcludes())));
+    task.getOutputFormat().set(project.provider(extension::getOutputFormat));
+    task.getAdditionalOutputFormats().set(project.provider(() -> extension.getAdditionalOutputFormats() == null ? null : Arrays.asList(extension.getAdditionalOutputFormats())));
+    task.getTexBin().set(project.provider(extension::getTexBin));
+    task.getLatexSteps().set(project.provider(() -> extension.getLatexSteps() == null ? null : Arrays.asList(extension.getLatexSteps())));
+    task.getBuildSteps().set(project.provider(() -> extension.getBuildSteps() == null ? null : Arrays.asList(extension.getBuildSteps())));
+    task.getSteps().set(project.provider(() -> extension.getSteps() == null ? null : Arrays.asList(extension.getSteps())));
+    task.getTexFile().set(project.provider(extension::getTexFile));
+    task.getMakeIndexStyleFile().set(project.provider(extension::getMakeIndexStyleFile));
+    task.getMakeIndexNomenclStyleFile().set(project.provider(extension::getMakeIndexNomenclStyleFile));
+    task.getHaltOnError().set(project.provider(extension::isHaltOnError));
+    task.getEnableDependencyScan().set(project.provider(extension::isEnableDependencyScan));
+    task.getProcessIsolation().set(project.provider(extension::isProcessIsolation));
+    task.getCompressLog().set(project.provider(extension::isCompressLog));
+    task.getRedirectOutputToFile().set(project.provider(extension::isRedirectOutputToFile));
+    task.getPipelineSteps().set(project.provider(extension::isPipelineSteps));
+    task.getSkipUnchangedBibliography().set(project.provider(extension::isSkipUnchangedBibliography));
+    task.getExtractCitedEntries().set(project.provider(extension::isExtractCitedEntries));
+    task.getInProcessMakeIndex().set(project.provider(extension::isInProcessMakeIndex));
+    task.getEnableActionCache().set(project.provider(extension::isEnableActionCache));
+    task.getActionCacheDirectory().set(project.provider(extension::getActionCacheDirectory));
+    task.getScratchDirectory().set(project.provider(extension::getScratchDirectory));
+    task.getMountDependencies().set(project.provider(extension::isMountDependencies));
+    task.getScanDocument().set(project.provider(extension::isScanDocument));
+    task.getProfile().set(project.provider(() -> {
+      // the profile can be selected for a single build with -Pmathan.profile=dev
+      Object profile = project.findProperty(PROFILE_PROPERTY);
+      return profile == null ? extension.getProfile() : profile.toString();
+    }));
+    task.getIncludeOnly().set(project.provider(() -> {
+      Object includeOnly = project.findProperty(INCLUDE_ONLY_PROPERTY);
+      if (includeOnly != null) {
+        return Arrays.asList(includeOnly.toString().split(","));
+      }
+      return extension.getIncludeOnly() == null ? null : Arrays.asList(extension.getIncludeOnly());
+    }));
+    task.getExternalizeFigures().set(project.provider(extension::isExternalizeFigures));
+    task.getConvertImages().set(project.provider(extension::isConvertImages));
+    task.getImageProxies().set(project.provider(extension::isImageProxies));
+    task.getImageProxySize().set(project.provider(extension::getImageProxySize));
+    task.getOptimizePdf().set(project.provider(extension::isOptimizePdf));
+    task.getFigureCacheDirectory().set(project.provider(extension::getFigureCacheDirectory));
+    task.getToolCacheDirectory().set(getToolCacheDirectory(project, extension));
+    task.getDependencyCacheDirectory().set(project.provider(extension::getDependencyCacheDirectory));
+    task.getArtifact().set(projectDirectory.file(project.provider(
+        () -> String.format("target/%s-%s.%s", project.getName(), project.getVersion(), extension.getOutputFormat()))));
+    task.getAdditionalArtifacts().from(project.provider(() -> {
+      List<File> artifacts = new ArrayList<>();
+      if (extension.getAdditionalOutputFormats() != null) {
+        for (String format : extension.getAdditionalOutputFormats()) {
+          if (!format.equals(extension.getOutputFormat())) {
+            artifacts.add(projectDirectory.file(String.format("target/%s-%s.%s", project.getName(), project.getVersion(), format)).getAsFile());
+          }
+        }
+      }
+      return artifacts;
+    }));
+    task.getWorkingDirectory().set(projectDirectory.dir("target/latex"));
+  }
 
+  /**
+   * Returns the directory of the persistent caches of the tools. The directory of the extension can be overridden for a single build with -Pmathan.toolCacheDirectory.
+   */
+  private Provider<String> getToolCacheDirectory(Project project, MathanGradleLatexConfiguration extension) {
+    return project.provider(() -> {
+      Object directory = project.findProperty(TOOL_CACHE_DIRECTORY_PROPERTY);
+      return directory == null ? extension.getToolCacheDirectory() : directory.toString();
+    });
   }
 }
@@ -16,33 +16,645 @@
 
 package io.mathan.gradle.latex;
 
-import io.mathan.gradle.latex.internal.GradleBuild;
+import io.mathan.gradle.latex.internal.LatexWorkAction;
+import io.mathan.latex.core.DocumentGraph;
 import io.mathan.latex.core.LatexExecutionException;
-import io.mathan.latex.core.MathanLatexRunner;
+import io.mathan.latex.core.MathanLatexConfiguration;
+import io.mathan.latex.core.Step;
+import io.mathan.latex.core.Utils;
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import javax.inject.Inject;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.ConfigurableFileTree;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileTree;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.OutputFiles;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
 
+/**
+ * Task executing the latex process for the current gradle project. All configuration affecting the output document is declared as task input and the document created is declared as task output, so
+ * that Gradle is able to skip the task if nothing changed and to load the document from the build cache.
+ *
+ * <p>The task does not access the project at execution time. All values are provided as lazy properties which are wired to the {@link MathanGradleLatexConfiguration latex} extension by {@link
+ * MathanLatexPlugin}, so the task is compatible with the configuration cache.</p>
+ */
+@CacheableTask
 public class MathanLatexTask extends DefaultTask {
 
-  private MathanGradleLatexConfiguration configuration;
+  private final WorkerExecutor workerExecutor;
+  private final ObjectFactory objects;
+
+  private final DirectoryProperty basedir;
+  private final Property<String> artifactId;
+  private final Property<String> version;
+  private final DirectoryProperty sourceDirectory;
+  private final ConfigurableFileCollection dependencyFiles;
+  private final SetProperty<String> resourceIncludes;
+  private final SetProperty<String> resourceExcludes;
+  private final Property<String> outputFormat;
+  private final ListProperty<String> additionalOutputFormats;
+  private final Property<String> texBin;
+  private final ListProperty<String> latexSteps;
+  private final ListProperty<String> buildSteps;
+  private final ListProperty<Step> steps;
+  private final Property<String> texFile;
+  private final Property<String> makeIndexStyleFile;
+  private final Property<String> makeIndexNomenclStyleFile;
+  private final Property<Boolean> haltOnError;
+  private final Property<Boolean> enableDependencyScan;
+  private final Property<Boolean> processIsolation;
+  private final Property<Boolean> compressLog;
+  private final Property<Boolean> redirectOutputToFile;
+  private final Property<Boolean> pipelineSteps;
+  private final Property<Boolean> skipUnchangedBibliography;
+  private final Property<Boolean> extractCitedEntries;
+  private final Property<Boolean> inProcessMakeIndex;
+  private final Property<Boolean> enableActionCache;
+  private final Property<String> actionCacheDirectory;
+  private final Property<String> scratchDirectory;
+  private final Property<Boolean> mountDependencies;
+  private final Property<Boolean> scanDocument;
+  private final Property<String> profile;
+  private final ListProperty<String> includeOnly;
+  private final Property<Boolean> externalizeFigures;
+  private final Property<Boolean> convertImages;
+  private final Property<Boolean> imageProxies;
+  private final Property<Integer> imageProxySize;
+  private final Property<Boolean> optimizePdf;
+  private final Property<String> figureCacheDirectory;
+  private final Property<String> toolCacheDirectory;
+  private final Property<String> dependencyCacheDirectory;
+  private final RegularFileProperty artifact;
+  private final ConfigurableFileCollection additionalArtifacts;
+  private final DirectoryProperty workingDirectory;
+  private String toolchainVersion;
+
+  @Inject
+  public MathanLatexTask(ObjectFactory objects, WorkerExecutor workerExecutor) {
+    this.workerExecutor = workerExecutor;
+    this.objects = objects;
+    this.basedir = objects.directoryProperty();
+    this.artifactId = objects.property(String.class);
+    this.version = objects.property(String.class);
+    this.sourceDirectory = objects.directoryProperty();
+    this.dependencyFiles = objects.fileCollection();
+    this.resourceIncludes = objects.setProperty(String.class);
+    this.resourceExcludes = objects.setProperty(String.class);
+    this.outputFormat = objects.property(String.class);
+    this.additionalOutputFormats = objects.listProperty(String.class);
+    this.texBin = objects.property(String.class);
+    this.latexSteps = objects.listProperty(String.class);
+    this.buildSteps = objects.listProperty(String.class);
+    this.steps = objects.listProperty(Step.class);
+    this.texFile = objects.property(String.class);
+    this.makeIndexStyleFile = objects.property(String.class);
+    this.makeIndexNomenclStyleFile = objects.property(String.class);
+    this.haltOnError = objects.property(Boolean.class);
+    this.enableDependencyScan = objects.property(Boolean.class);
+    this.processIsolation = objects.property(Boolean.class);
+    this.compressLog = objects.property(Boolean.class);
+    this.redirectOutputToFile = objects.property(Boolean.class);
+    this.pipelineSteps = objects.property(Boolean.class);
+    this.skipUnchangedBibliography = objects.property(Boolean.class);
+    this.extractCitedEntries = objects.property(Boolean.class);
+    this.inProcessMakeIndex = objects.property(Boolean.class);
+    this.enableActionCache = objects.property(Boolean.class);
+    this.actionCacheDirectory = objects.property(String.class);
+    this.scratchDirectory = objects.property(String.class);
+    this.mountDependencies = objects.property(Boolean.class);
+    this.scanDocument = objects.property(Boolean.class);
+    this.profile = objects.property(String.class);
+    this.includeOnly = objects.listProperty(String.class);
+    this.externalizeFigures = objects.property(Boolean.class);
+    this.convertImages = objects.property(Boolean.class);
+    this.imageProxies = objects.property(Boolean.class);
+    this.imageProxySize = objects.property(Integer.class);
+    this.optimizePdf = objects.property(Boolean.class);
+    this.figureCacheDirectory = objects.property(String.class);
+    this.toolCacheDirectory = objects.property(String.class);
+    this.dependencyCacheDirectory = objects.property(String.class);
+    this.artifact = objects.fileProperty();
+    this.additionalArtifacts = objects.fileCollection();
+    this.workingDirectory = objects.directoryProperty();
+    // a partial build depends on the intermediate files of the previous build
+    getOutputs().doNotCacheIf("only some chapters are built", task -> includeOnly.isPresent() && !includeOnly.get().isEmpty());
+  }
+
+  /**
+   * Returns the basedir of the project to build.
+   *
+   * @return The basedir.
+   */
+  @Internal
+  public DirectoryProperty getBasedir() {
+    return basedir;
+  }
+
+  /**
+   * Returns the name of the project used as artifactId. The name is part of the {@link #getArtifact() artifact}.
+   *
+   * @return The artifactId.
+   */
+  @Internal
+  public Property<String> getArtifactId() {
+    return artifactId;
+  }
+
+  /**
+   * Returns the version of the project. The version is part of the {@link #getArtifact() artifact}.
+   *
+   * @return The version.
+   */
+  @Internal
+  public Property<String> getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the source directory containing the LaTeX document. The directory is not an input of the task, the {@link #getSourceFiles() source files} are used instead.
+   *
+   * @return The source directory.
+   */
+  @Internal
+  public DirectoryProperty getSourceDirectory() {
+    return sourceDirectory;
+  }
+
+  /**
+   * Returns the files of the source directory used by the build. If {@link #getScanDocument() scanDocument} is enabled, these are the files referenced by the LaTeX document. Otherwise all files of
+   * the source directory are used.
+   *
+   * @return The source files.
+   */
+  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  public FileTree getSourceFiles() {
+    ConfigurableFileTree sourceFiles = objects.fileTree().from(sourceDirectory);
+    if (scanDocument.get()) {
+      try {
+        DocumentGraph graph = DocumentGraph.scan(sourceDirectory.get().getAsFile(), texFile.getOrNull(), workingDirectory.get().getAsFile(), makeIndexStyleFile.getOrNull(),
+            makeIndexNomenclStyleFile.getOrNull());
+        if (graph.isComplete()) {
+          Set<String> files = graph.getFiles();
+          sourceFiles.include(element -> element.isDirectory() || files.contains(element.getRelativePath().getPathString()));
+        }
+      } catch (LatexExecutionException | IOException e) {
+        // all files are used, the execution reports the error
+      }
+    }
+    return sourceFiles;
+  }
+
+  /**
+   * Returns the files of the dependencies used as resources for the build. If dependency scan is disabled the collection is empty.
+   *
+   * @return The dependency files.
+   */
+  @InputFiles
+  @PathSensitive(PathSensitivity.NAME_ONLY)
+  public ConfigurableFileCollection getDependencyFiles() {
+    return dependencyFiles;
+  }
+
+  /**
+   * Returns the include patterns used to select the resources from the dependencies.
+   *
+   * @return The include patterns.
+   */
+  @Input
+  public SetProperty<String> getResourceIncludes() {
+    return resourceIncludes;
+  }
+
+  /**
+   * Returns the exclude patterns used to select the resources from the dependencies.
+   *
+   * @return The exclude patterns.
+   */
+  @Input
+  public SetProperty<String> getResourceExcludes() {
+    return resourceExcludes;
+  }
 
-  public void setConfiguration(MathanGradleLatexConfiguration configuration) {
-    this.configuration = configuration;
+  @Input
+  public Property<String> getOutputFormat() {
+    return outputFormat;
+  }
+
+  @Input
+  @Optional
+  public ListProperty<String> getAdditionalOutputFormats() {
+    return additionalOutputFormats;
   }
 
   /**
-   * Task executing the latex process for the current gradle project.
+   * Returns the bin directory of the TeX distribution. The location is not an input of the task, the {@link #getToolchainVersion() version} of the distribution is used instead.
+   *
+   * @return The bin directory.
+   */
+  @Internal
+  public Property<String> getTexBin() {
+    return texBin;
+  }
+
+  @Input
+  @Optional
+  public ListProperty<String> getLatexSteps() {
+    return latexSteps;
+  }
+
+  @Input
+  @Optional
+  public ListProperty<String> getBuildSteps() {
+    return buildSteps;
+  }
+
+  @Input
+  @Optional
+  public ListProperty<Step> getSteps() {
+    return steps;
+  }
+
+  @Input
+  @Optional
+  public Property<String> getTexFile() {
+    return texFile;
+  }
+
+  @Input
+  @Optional
+  public Property<String> getMakeIndexStyleFile() {
+    return makeIndexStyleFile;
+  }
+
+  @Input
+  @Optional
+  public Property<String> getMakeIndexNomenclStyleFile() {
+    return makeIndexNomenclStyleFile;
+  }
+
+  @Input
+  public Property<Boolean> getHaltOnError() {
+    return haltOnError;
+  }
+
+  @Input
+  public Property<Boolean> getEnableDependencyScan() {
+    return enableDependencyScan;
+  }
+
+  /**
+   * Returns whether the build is executed in a worker process instead of a worker thread.
+   *
+   * @return <code>True</code> if the build is executed in a worker process.
+   */
+  @Internal
+  public Property<Boolean> getProcessIsolation() {
+    return processIsolation;
+  }
+
+  /**
+   * Returns whether the log aggregating the logs of all steps is compressed. The log is part of the working directory only, so this is not an input of the task.
+   *
+   * @return <code>True</code> if the log is compressed.
+   */
+  @Internal
+  public Property<Boolean> getCompressLog() {
+    return compressLog;
+  }
+
+  /**
+   * Returns whether the output of the executed tools is redirected to files by the operating system. This does not affect the output document, so this is not an input of the task.
+   *
+   * @return <code>True</code> if the output is redirected to files.
+   */
+  @Internal
+  public Property<Boolean> getRedirectOutputToFile() {
+    return redirectOutputToFile;
+  }
+
+  /**
+   * Returns whether dvips and ps2pdf are executed as a pipeline. The output document is the same as with the intermediate file, so this is not an input of the task.
+   *
+   * @return <code>True</code> if the steps are executed as a pipeline.
+   */
+  @Internal
+  public Property<Boolean> getPipelineSteps() {
+    return pipelineSteps;
+  }
+
+  /**
+   * Returns whether bibtex and biber are skipped if the bibliography did not change since the last execution. The existing .bbl file is identical to the result of the step then, so this is not an
+   * input of the task.
+   *
+   * @return <code>True</code> if unchanged bibliographies are skipped.
+   */
+  @Internal
+  public Property<Boolean> getSkipUnchangedBibliography() {
+    return skipUnchangedBibliography;
+  }
+
+  /**
+   * Returns whether only the cited entries of the bibliography databases are passed to bibtex and biber.
+   *
+   * @return <code>True</code> if the cited entries are extracted.
+   */
+  @Input
+  public Property<Boolean> getExtractCitedEntries() {
+    return extractCitedEntries;
+  }
+
+  /**
+   * Returns whether makeindex and makeindexnomencl are executed by the implementation of makeindex within the JVM.
+   *
+   * @return <code>True</code> if makeindex is executed in-process.
+   */
+  @Input
+  public Property<Boolean> getInProcessMakeIndex() {
+    return inProcessMakeIndex;
+  }
+
+  /**
+   * Returns whether the results of the steps bibtex, biber, makeindex and makeindexnomencl are cached. Restored results are identical to the results of the steps, so this is not an input of the task.
+   *
+   * @return <code>True</code> if the action cache is enabled.
+   */
+  @Internal
+  public Property<Boolean> getEnableActionCache() {
+    return enableActionCache;
+  }
+
+  /**
+   * Returns the directory of the action cache. A relative path is resolved against the {@link #getBasedir() basedir}.
+   *
+   * @return The directory of the action cache.
+   */
+  @Internal
+  public Property<String> getActionCacheDirectory() {
+    return actionCacheDirectory;
+  }
+
+  /**
+   * Returns the directory in which a unique working directory is created for each execution, e.g. /dev/shm. The intermediate files are copied to the {@link #getWorkingDirectory() working directory}
+   * after the execution.
+   *
+   * @return The scratch directory.
+   */
+  @Internal
+  public Property<String> getScratchDirectory() {
+    return scratchDirectory;
+  }
+
+  /**
+   * Returns whether the dependencies are extracted into the {@link #getDependencyCacheDirectory() dependency cache} and found by TeX using TEXINPUTS instead of copying them into the working
+   * directory. This does not change the document, so it is not an input of the task.
+   *
+   * @return <code>True</code> if the dependencies are mounted.
+   */
+  @Internal
+  public Property<Boolean> getMountDependencies() {
+    return mountDependencies;
+  }
+
+  /**
+   * Returns whether the LaTeX document is scanned for referenced files, so only these files are copied to the working directory and are {@link #getSourceFiles() inputs} of the task.
+   *
+   * @return <code>True</code> if the document is scanned.
+   */
+  @Input
+  public Property<Boolean> getScanDocument() {
+    return scanDocument;
+  }
+
+  /**
+   * Returns the build profile switching the flags of the LaTeX steps, either dev, ci or release.
+   *
+   * @return The profile.
+   */
+  @Input
+  public Property<String> getProfile() {
+    return profile;
+  }
+
+  /**
+   * Returns the chapters to build with <code>&#92;includeonly</code>. The .aux files of the other chapters are read from the working directory of the previous build. If empty, all chapters are
+   * built.
+   *
+   * @return The chapters to build.
+   */
+  @Input
+  @Optional
+  public ListProperty<String> getIncludeOnly() {
+    return includeOnly;
+  }
+
+  /**
+   * Returns whether the figures externalized by the document with <code>&#92;tikzexternalize[mode=list and make]</code> are compiled concurrently after the first LaTeX pass.
+   *
+   * @return <code>True</code> if the figures are externalized.
+   */
+  @Input
+  public Property<Boolean> getExternalizeFigures() {
+    return externalizeFigures;
+  }
+
+  /**
+   * Returns whether the EPS and SVG images are converted to PDF concurrently before the first LaTeX pass.
+   *
+   * @return <code>True</code> if the images are converted.
+   */
+  @Input
+  public Property<Boolean> getConvertImages() {
+    return convertImages;
+  }
+
+  /**
+   * Returns whether the PNG and JPEG images are replaced by downsampled proxies for draft builds (profile dev).
+   *
+   * @return <code>True</code> if image proxies are used.
+   */
+  @Input
+  public Property<Boolean> getImageProxies() {
+    return imageProxies;
+  }
+
+  /**
+   * Returns the maximum width and height of an image proxy in pixels.
+   *
+   * @return The size of an image proxy.
+   */
+  @Input
+  public Property<Integer> getImageProxySize() {
+    return imageProxySize;
+  }
+
+  /**
+   * Returns if the PDF document is optimized after the final pass.
+   *
+   * @return <code>True</code> if the PDF document is optimized.
+   */
+  @Input
+  public Property<Boolean> getOptimizePdf() {
+    return optimizePdf;
+  }
+
+  /**
+   * Returns the directory of the cache for externalized figures, converted images and image proxies.
+   *
+   * @return The figure cache directory.
+   */
+  @Internal
+  public Property<String> getFigureCacheDirectory() {
+    return figureCacheDirectory;
+  }
+
+  /**
+   * Returns the directory of the persistent caches of the tools. The caches do not affect the output document.
+   *
+   * @return The tool cache directory.
+   */
+  @Internal
+  public Property<String> getToolCacheDirectory() {
+    return toolCacheDirectory;
+  }
+
+  /**
+   * Returns the directory in which the dependencies are extracted if {@link #getMountDependencies() mountDependencies} is enabled.
+   *
+   * @return The dependency cache directory.
+   */
+  @Internal
+  public Property<String> getDependencyCacheDirectory() {
+    return dependencyCacheDirectory;
+  }
+
+  /**
+   * Returns the version of the TeX distribution. The version is used instead of the location of the distribution ({@link #getTexBin() texBin}) so that documents built on different machines with the
+   * same distribution can be shared using the build cache.
+   *
+   * @return The version of the TeX distribution.
+   */
+  @Input
+  public String getToolchainVersion() {
+    if (toolchainVersion == null) {
+      toolchainVersion = Utils.getToolchainVersion(texBin.getOrNull());
+    }
+    return toolchainVersion;
+  }
+
+  /**
+   * Returns the document created by the task.
+   *
+   * @return The output document.
+   */
+  @OutputFile
+  public RegularFileProperty getArtifact() {
+    return artifact;
+  }
+
+  /**
+   * Returns the documents of the additional output formats created by the task.
+   *
+   * @return The documents of the additional output formats.
+   */
+  @OutputFiles
+  public ConfigurableFileCollection getAdditionalArtifacts() {
+    return additionalArtifacts;
+  }
+
+  /**
+   * Returns the working directory containing the intermediate files. These files are not part of the build cache.
+   *
+   * @return The working directory.
+   */
+  @LocalState
+  public DirectoryProperty getWorkingDirectory() {
+    return workingDirectory;
+  }
+
+  /**
+   * Task executing the latex process for the current gradle project. The process is submitted to the Gradle Worker API so that latex tasks of several projects can be executed concurrently.
    */
   @TaskAction
   public void latex() {
-    configuration.setKeepIntermediateFiles(true);
+    MathanLatexConfiguration latexConfiguration = createConfiguration();
 
-    MathanLatexRunner runner = new MathanLatexRunner(configuration, new GradleBuild(this.getProject(), this, configuration));
-    try {
-      runner.execute();
-    } catch (LatexExecutionException e) {
-      e.printStackTrace();
-    }
+    WorkQueue workQueue = processIsolation.get() ? workerExecutor.processIsolation() : workerExecutor.noIsolation();
+    workQueue.submit(LatexWorkAction.class, parameters -> {
+      parameters.getConfiguration().set(latexConfiguration);
+      parameters.getBasedir().set(basedir);
+      parameters.getArtifactId().set(artifactId);
+      parameters.getVersion().set(version);
+      parameters.getDependencyFiles().from(dependencyFiles);
+      parameters.getResourceIncludes().set(resourceIncludes);
+      parameters.getResourceExcludes().set(resourceExcludes);
+    });
+  }
+
+  /**
+   * Creates a snapshot of the task properties as configuration for the mathan latex runner.
+   *
+   * @return The configuration.
+   */
+  private MathanLatexConfiguration createConfiguration() {
+    File projectDirectory = basedir.get().getAsFile();
+    File texDirectory = sourceDirectory.get().getAsFile();
+
+    MathanLatexConfiguration configuration = new MathanLatexConfiguration();
+    configuration.setSourceDirectory(projectDirectory.toPath().relativize(texDirectory.toPath()).toString());
+    configuration.setOutputFormat(outputFormat.get());
+    configuration.setAdditionalOutputFormats(additionalOutputFormats.isPresent() ? additionalOutputFormats.get().toArray(new String[0]) : null);
+    configuration.setTexBin(texBin.getOrNull());
+    configuration.setLatexSteps(latexSteps.isPresent() ? latexSteps.get().toArray(new String[0]) : null);
+    configuration.setBuildSteps(buildSteps.isPresent() ? buildSteps.get().toArray(new String[0]) : null);
+    configuration.setSteps(steps.isPresent() ? steps.get().toArray(new Step[0]) : null);
+    configuration.setTexFile(texFile.getOrNull());
+    configuration.setMakeIndexStyleFile(makeIndexStyleFile.getOrNull());
+    configuration.setMakeIndexNomenclStyleFile(makeIndexNomenclStyleFile.getOrNull());
+    configuration.setHaltOnError(haltOnError.get());
+    configuration.setEnableDependencyScan(enableDependencyScan.get());
+    configuration.setCompressLog(compressLog.get());
+    configuration.setRedirectOutputToFile(redirectOutputToFile.get());
+    configuration.setPipelineSteps(pipelineSteps.get());
+    configuration.setSkipUnchangedBibliography(skipUnchangedBibliography.get());
+    configuration.setExtractCitedEntries(extractCitedEntries.get());
+    configuration.setInProcessMakeIndex(inProcessMakeIndex.get());
+    configuration.setEnableActionCache(enableActionCache.get());
+    configuration.setActionCacheDirectory(actionCacheDirectory.getOrNull());
+    configuration.setScratchDirectory(scratchDirectory.getOrNull());
+    configuration.setMountDependencies(mountDependencies.get());
+    configuration.setScanDocument(scanDocument.get());
+    configuration.setProfile(profile.get());
+    configuration.setExternalizeFigures(externalizeFigures.get());
+    configuration.setConvertImages(convertImages.get());
+    configuration.setImageProxies(imageProxies.get());
+    configuration.setImageProxySize(imageProxySize.get());
+    configuration.setOptimizePdf(optimizePdf.get());
+    configuration.setFigureCacheDirectory(figureCacheDirectory.getOrNull());
+    configuration.setToolCacheDirectory(toolCacheDirectory.getOrNull());
+    configuration.setIncludeOnly(includeOnly.isPresent() ? includeOnly.get().toArray(new String[0]) : null);
+    configuration.setDependencyCacheDirectory(dependencyCacheDirectory.getOrNull());
+    configuration.setKeepIntermediateFiles(true);
+    return configuration;
   }
 
 }
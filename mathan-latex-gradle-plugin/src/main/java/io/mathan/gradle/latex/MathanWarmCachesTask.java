@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex;
+
+import io.mathan.gradle.latex.internal.WarmCachesWorkAction;
+import io.mathan.latex.core.MathanLatexConfiguration;
+import javax.inject.Inject;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkerExecutor;
+
+/**
+ * Task filling the persistent caches of the tools in the toolCacheDirectory: the font database of luaotfload and the unpacked biber. The warmed caches can be baked into the image of a build agent,
+ * e.g. with <code>gradle warmLatexCaches -Pmathan.toolCacheDirectory=/opt/mathan-tools</code>. The task has no outputs, so it is executed on every invocation. The tools only update their caches if
+ * required.
+ */
+public class MathanWarmCachesTask extends DefaultTask {
+
+  private final WorkerExecutor workerExecutor;
+
+  private final DirectoryProperty basedir;
+  private final Property<String> texBin;
+  private final Property<String> toolCacheDirectory;
+
+  @Inject
+  public MathanWarmCachesTask(WorkerExecutor workerExecutor, ObjectFactory objects) {
+    this.workerExecutor = workerExecutor;
+    this.basedir = objects.directoryProperty();
+    this.texBin = objects.property(String.class);
+    this.toolCacheDirectory = objects.property(String.class);
+  }
+
+  /**
+   * Returns the basedir of the project. A relative tool cache directory is resolved against the basedir.
+   *
+   * @return The basedir.
+   */
+  @Internal
+  public DirectoryProperty getBasedir() {
+    return basedir;
+  }
+
+  /**
+   * Returns the bin directory of the LaTeX distribution.
+   *
+   * @return The bin directory.
+   */
+  @Input
+  @Optional
+  public Property<String> getTexBin() {
+    return texBin;
+  }
+
+  /**
+   * Returns the directory of the persistent caches of the tools.
+   *
+   * @return The tool cache directory.
+   */
+  @Input
+  @Optional
+  public Property<String> getToolCacheDirectory() {
+    return toolCacheDirectory;
+  }
+
+  /**
+   * Warms the caches of the tools. The tools are executed by the Gradle Worker API like the latex process.
+   */
+  @TaskAction
+  public void warmCaches() {
+    MathanLatexConfiguration configuration = new MathanLatexConfiguration();
+    configuration.setTexBin(texBin.getOrNull());
+    configuration.setToolCacheDirectory(toolCacheDirectory.getOrNull());
+    workerExecutor.noIsolation().submit(WarmCachesWorkAction.class, parameters -> {
+      parameters.getConfiguration().set(configuration);
+      parameters.getBasedir().set(basedir);
+    });
+  }
+}
@@ -16,65 +16,64 @@
 
 package io.mathan.gradle.latex.internal;
 
-import io.mathan.gradle.latex.MathanGradleLatexConfiguration;
 import io.mathan.latex.core.Build;
 import io.mathan.latex.core.BuildLog;
-import io.mathan.latex.core.Constants;
+import io.mathan.latex.core.DependencyCache;
 import io.mathan.latex.core.LatexExecutionException;
 import io.mathan.latex.core.Utils;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
-import org.gradle.api.DefaultTask;
-import org.gradle.api.Project;
-import org.gradle.api.Task;
-import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.file.ConfigurableFileTree;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.model.ObjectFactory;
 import org.zeroturnaround.exec.stream.LogOutputStream;
 
 public class GradleBuild implements Build {
 
-  private final Project project;
-  private final DefaultTask task;
-  private final MathanGradleLatexConfiguration configuration;
+  private final LatexWorkParameters parameters;
+  private final ObjectFactory objects;
+  private final Logger logger;
 
   /**
    * Creates a build implementation for accessing build-specfic information of a Gradle build.
    *
-   * @param project The gradle project the build is executed for.
-   * @param task The task executed.
-   * @param configuration The configuration for the mathan latex plugin.
+   * @param parameters The parameters provided by the latex task.
+   * @param objects The object factory used to create file trees.
+   * @param logger The logger to use.
    */
-  public GradleBuild(Project project, DefaultTask task, MathanGradleLatexConfiguration configuration) {
-
-    this.project = project;
-    this.task = task;
-    this.configuration = configuration;
+  public GradleBuild(LatexWorkParameters parameters, ObjectFactory objects, Logger logger) {
+    this.parameters = parameters;
+    this.objects = objects;
+    this.logger = logger;
   }
 
   @Override
   public BuildLog getLog() {
-    return new GradleBuildLog(getTask().getLogger());
+    return new GradleBuildLog(logger);
   }
 
   @Override
   public File getBasedir() {
-    return getProject().getProjectDir();
+    return parameters.getBasedir().get().getAsFile();
   }
 
   @Override
   public String getArtifactId() {
-    return getProject().getName();
+    return parameters.getArtifactId().get();
   }
 
   @Override
   public String getVersion() {
-    return getProject().getVersion().toString();
+    return parameters.getVersion().get();
   }
 
   @Override
@@ -83,35 +82,37 @@ public class GradleBuild implements Build {
   }
 
   @Override
-  public void resolveDependencies(File workingDirectory) throws LatexExecutionException {
-    Configuration compile = getProject().getConfigurations().findByName(getConfiguration().getConfigurationName());
-    if (compile != null) {
-      for (File file : compile.getFiles()) {
-        extractArchive(file, workingDirectory);
-      }
-    }
+  public void attachArtifact(File artifact, String type) {
+    // the documents of additional output formats are outputs of the latex task
   }
 
   @Override
-  public LogOutputStream getRedirectOutput(String prefix) {
-    return GradleLogOutputStream.toDebug(getTask().getLogger(), prefix);
+  public void resolveDependencies(File workingDirectory) throws LatexExecutionException {
+    for (File file : parameters.getDependencyFiles().getFiles()) {
+      extractArchive(file, workingDirectory);
+    }
   }
 
   @Override
-  public LogOutputStream getRedirectError(String prefix) {
-    return GradleLogOutputStream.toError(getTask().getLogger(), prefix);
-  }
-
-  private Project getProject() {
-    return this.project;
+  public List<File> resolveDependencies(DependencyCache cache) throws LatexExecutionException {
+    String filter = String.format("includes=%s;excludes=%s", new TreeSet<>(parameters.getResourceIncludes().get()), new TreeSet<>(parameters.getResourceExcludes().get()));
+    List<File> directories = new ArrayList<>();
+    for (File file : parameters.getDependencyFiles().getFiles()) {
+      File directory = cache.get(file, filter, this::extractArchive);
+      getLog().info(String.format("[mathan] mounting artifact %s from %s", file.getName(), directory.getAbsolutePath()));
+      directories.add(directory);
+    }
+    return directories;
   }
 
-  private Task getTask() {
-    return this.task;
+  @Override
+  public LogOutputStream getRedirectOutput(String prefix) {
+    return GradleLogOutputStream.toDebug(logger, prefix);
   }
 
-  public MathanGradleLatexConfiguration getConfiguration() {
-    return configuration;
+  @Override
+  public LogOutputStream getRedirectError(String prefix) {
+    return GradleLogOutputStream.toError(logger, prefix);
   }
 
   private void extractArchive(File archive, File workingDirectory) throws LatexExecutionException {
@@ -121,15 +122,9 @@ public class GradleBuild implements Build {
     } catch (IOException e) {
       throw new LatexExecutionException(String.format("Could not copy artifact %s", archive.getName()), e);
     }
-    ConfigurableFileTree fileTree = getConfiguration().getResources();
-    if (fileTree == null) {
-      fileTree = getProject().fileTree(archiveContent.getAbsolutePath());
-      for (String include : Constants.RESOURCES_DEFAULT_EXTENSTIONS) {
-        fileTree.include("**/*." + include);
-      }
-    } else {
-      fileTree.setDir(archiveContent.getAbsolutePath());
-    }
+    ConfigurableFileTree fileTree = objects.fileTree().from(archiveContent);
+    fileTree.include(parameters.getResourceIncludes().get());
+    fileTree.exclude(parameters.getResourceExcludes().get());
     fileTree.visit(new FileVisitor() {
       @Override
       public void visitDir(FileVisitDetails dirDetails) {
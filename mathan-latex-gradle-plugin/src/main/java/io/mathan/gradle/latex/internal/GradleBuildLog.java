@@ -56,4 +56,9 @@ public class GradleBuildLog implements BuildLog {
   public void warn(String message, Exception ex) {
     this.logger.warn(message, ex);
   }
+
+  @Override
+  public boolean isDebugEnabled() {
+    return this.logger.isDebugEnabled();
+  }
 }
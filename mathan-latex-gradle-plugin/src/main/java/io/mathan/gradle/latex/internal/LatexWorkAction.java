@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.internal;
+
+import io.mathan.latex.core.LatexExecutionException;
+import io.mathan.latex.core.MathanLatexRunner;
+import javax.inject.Inject;
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.workers.WorkAction;
+
+/**
+ * Executes the {@link MathanLatexRunner} using the Gradle Worker API. So latex tasks of several projects can be executed concurrently limited by the maximum number of workers of the build.
+ */
+public abstract class LatexWorkAction implements WorkAction<LatexWorkParameters> {
+
+  private final ObjectFactory objects;
+
+  @Inject
+  public LatexWorkAction(ObjectFactory objects) {
+    this.objects = objects;
+  }
+
+  @Override
+  public void execute() {
+    GradleBuild build = new GradleBuild(getParameters(), objects, Logging.getLogger(LatexWorkAction.class));
+    MathanLatexRunner runner = new MathanLatexRunner(getParameters().getConfiguration().get(), build);
+    try {
+      runner.execute();
+    } catch (LatexExecutionException e) {
+      throw new GradleException("Execution of Mathan LaTeX Runner failed", e);
+    }
+  }
+}
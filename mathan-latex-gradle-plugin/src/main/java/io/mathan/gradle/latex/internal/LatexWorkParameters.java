@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.internal;
+
+import io.mathan.latex.core.MathanLatexConfiguration;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.workers.WorkParameters;
+
+/**
+ * Parameters handed over from the latex task to {@link LatexWorkAction}. The parameters only contain values which can be isolated from the gradle project, so that the work can be executed in a
+ * worker thread or a worker process.
+ */
+public interface LatexWorkParameters extends WorkParameters {
+
+  /**
+   * Returns the configuration for the mathan latex runner.
+   *
+   * @return The configuration.
+   */
+  Property<MathanLatexConfiguration> getConfiguration();
+
+  /**
+   * Returns the basedir of the gradle project.
+   *
+   * @return The basedir.
+   */
+  DirectoryProperty getBasedir();
+
+  /**
+   * Returns the name of the gradle project used as artifactId.
+   *
+   * @return The artifactId.
+   */
+  Property<String> getArtifactId();
+
+  /**
+   * Returns the version of the gradle project.
+   *
+   * @return The version.
+   */
+  Property<String> getVersion();
+
+  /**
+   * Returns the files of the dependencies to include resources from.
+   *
+   * @return The dependency files.
+   */
+  ConfigurableFileCollection getDependencyFiles();
+
+  /**
+   * Returns the include patterns for resources of the dependencies. If empty all files are included.
+   *
+   * @return The include patterns.
+   */
+  SetProperty<String> getResourceIncludes();
+
+  /**
+   * Returns the exclude patterns for resources of the dependencies.
+   *
+   * @return The exclude patterns.
+   */
+  SetProperty<String> getResourceExcludes();
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.internal;
+
+import io.mathan.latex.core.LatexExecutionException;
+import io.mathan.latex.core.MathanLatexRunner;
+import javax.inject.Inject;
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.workers.WorkAction;
+
+/**
+ * Warms the persistent caches of the tools with the {@link MathanLatexRunner} using the Gradle Worker API. Only the configuration and the basedir of the {@link LatexWorkParameters parameters} are
+ * used.
+ */
+public abstract class WarmCachesWorkAction implements WorkAction<LatexWorkParameters> {
+
+  private final ObjectFactory objects;
+
+  @Inject
+  public WarmCachesWorkAction(ObjectFactory objects) {
+    this.objects = objects;
+  }
+
+  @Override
+  public void execute() {
+    GradleBuild build = new GradleBuild(getParameters(), objects, Logging.getLogger(WarmCachesWorkAction.class));
+    MathanLatexRunner runner = new MathanLatexRunner(getParameters().getConfiguration().get(), build);
+    try {
+      runner.warmToolCaches();
+    } catch (LatexExecutionException e) {
+      throw new GradleException("Warming the caches of the tools failed", e);
+    }
+  }
+}
@@ -176,9 +176,41 @@ public abstract class AbstractIntegrationTest {
     }
   }
 
-  private Verifier createVerifier(String baseDirectory) {
+  /**
+   * Executes the build of a project with multiple modules in parallel and verifies that the output document of each module was created. The Maven build is executed with <i>-T 2</i>, the Gradle
+   * build with <i>--parallel</i>.
+   *
+   * @param category The category of the test. (First level of directory structure)
+   * @param project The project to build. (Second level of directory structure)
+   * @param modules The modules of the project.
+   */
+  protected Verifier parallelVerifier(String category, String project, String... modules) throws Exception {
+    File temporaryDirectory = createTemporaryDirectory();
+    extractResourcesToTempDir(String.format("%s/%s", category, project), temporaryDirectory);
+    Verifier verifier;
+    switch (build) {
+      case Maven:
+        verifier = createVerifier(temporaryDirectory.getAbsolutePath(), "-T", "2");
+        verifier.execute("package");
+        break;
+      case Gradle:
+        verifier = createVerifier(temporaryDirectory.getAbsolutePath(), "--parallel");
+        verifier.execute(latexGoal());
+        break;
+      default:
+        Assert.fail(String.format("Unknown build: %s", build));
+        return null;
+    }
+    for (String module : modules) {
+      verifier.assertFilePresent(String.format("%s/target/%s-%s.pdf", module, module, VERSION));
+    }
+    return verifier;
+  }
+
+  private Verifier createVerifier(String baseDirectory, String... arguments) {
     Options options = new Options();
     options.setWorkingDirectory(baseDirectory);
+    options.getCommandLineArguments().addAll(Arrays.asList(arguments));
     switch (build) {
       case Maven:
         return Verifier.Maven.create(baseDirectory, options);
@@ -196,10 +228,30 @@ public abstract class AbstractIntegrationTest {
     verifier.assertFilePresent(file);
   }
 
+  protected final void assertFileNotPresent(Verifier verifier, String file) throws VerifierException {
+    verifier.assertFileNotPresent(file);
+  }
+
+  protected final void assertDirectoryEmpty(Verifier verifier, String directory) throws VerifierException {
+    verifier.assertDirectoryEmpty(directory);
+  }
+
   protected final void verifyTextInLog(Verifier verifier, String text) throws VerifierException {
     verifier.assertLogContainsText(text);
   }
 
+  protected final void verifyTextNotInLog(Verifier verifier, String text) throws VerifierException {
+    verifier.assertLogNotContainsText(text);
+  }
+
+  protected final void assertFilesEqual(Verifier verifier, String expectedFile, String actualFile) throws VerifierException {
+    verifier.assertFilesEqual(expectedFile, actualFile);
+  }
+
+  protected final void executeCommand(Verifier verifier, String directory, String... command) throws VerifierException {
+    verifier.executeCommand(directory, command);
+  }
+
   protected final void assertStepExecuted(Verifier verifier, Step step) throws VerifierException {
     verifier.assertLogContainsText(String.format("[mathan] execution: %s", step.getId()));
   }
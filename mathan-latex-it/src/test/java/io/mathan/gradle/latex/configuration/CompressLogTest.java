@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test compressing the log of all steps. The compressed log and its index have to be created instead of the plain log.
+ */
+@RunWith(Parameterized.class)
+public class CompressLogTest extends AbstractIntegrationTest {
+
+  public CompressLogTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void compressLog() throws Exception {
+    Verifier verifier = verifier("configuration", "compresslog");
+    assertFilePresent(verifier, "target/latex/mathan-latex-mojo.log.gz");
+    assertFilePresent(verifier, "target/latex/mathan-latex-mojo.log.gz.idx");
+    assertFileNotPresent(verifier, "target/latex/mathan-latex-mojo.log");
+  }
+}
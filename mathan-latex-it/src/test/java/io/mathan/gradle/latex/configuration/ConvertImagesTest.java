@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test converting an EPS image before the first LaTeX pass. The first build has to convert the image, the second build has to restore it from the cache.
+ */
+@RunWith(Parameterized.class)
+public class ConvertImagesTest extends AbstractIntegrationTest {
+
+  public ConvertImagesTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void convertImages() throws Exception {
+    Verifier verifier = verifier("configuration", "convertimages");
+    verifyTextInLog(verifier, "[mathan] converted images: 1 converted, 0 restored from cache");
+    verifier.execute(latexGoal());
+    assertFilePresent(verifier, "target/convertimages-1.0.5.pdf");
+    verifyTextInLog(verifier, "[mathan] converted images: 0 converted, 1 restored from cache");
+  }
+}
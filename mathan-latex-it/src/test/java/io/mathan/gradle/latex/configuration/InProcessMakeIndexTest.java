@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.latex.core.Step;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test executing makeindex within the JVM. The index and the nomenclature are compared with the output of the executable of the TeX distribution.
+ */
+@RunWith(Parameterized.class)
+public class InProcessMakeIndexTest extends AbstractIntegrationTest {
+
+  public InProcessMakeIndexTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void inProcessMakeIndex() throws Exception {
+    Verifier verifier = verifier("configuration", "inprocessmakeindex");
+    verifyTextInLog(verifier, "[mathan] execution (in-process): " + Step.STEP_MAKEINDEX.getId());
+    verifyTextInLog(verifier, "[mathan] execution (in-process): " + Step.STEP_MAKEINDEXNOMENCL.getId());
+    // the executable of the TeX distribution has to create the same index and nomenclature
+    executeCommand(verifier, "target/latex", "makeindex", "-t", "native.ilg", "-o", "native.ind", "sample.idx");
+    executeCommand(verifier, "target/latex", "makeindex", "-s", "nomencl.ist", "-t", "native.nlg", "-o", "native.nls", "sample.nlo");
+    assertFilesEqual(verifier, "target/latex/native.ind", "target/latex/sample.ind");
+    assertFilesEqual(verifier, "target/latex/native.nls", "target/latex/sample.nls");
+  }
+}
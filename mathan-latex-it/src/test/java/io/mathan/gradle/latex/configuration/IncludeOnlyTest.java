@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test building one chapter only. The first build has to build all chapters as there are no auxiliary files, the second build has to build the configured chapter only.
+ */
+@RunWith(Parameterized.class)
+public class IncludeOnlyTest extends AbstractIntegrationTest {
+
+  public IncludeOnlyTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void includeOnly() throws Exception {
+    Verifier verifier = verifier("configuration", "includeonly");
+    verifyTextInLog(verifier, "[mathan] building all chapters, no auxiliary files of a previous build found");
+    assertFilePresent(verifier, "target/latex/chapters/intro.aux");
+    verifier.execute(latexGoal());
+    assertFilePresent(verifier, "target/includeonly-1.0.5.pdf");
+    verifyTextInLog(verifier, "[mathan] building chapters: chapters/two");
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test executing the build twice without changes. The second execution has to be skipped.
+ */
+@RunWith(Parameterized.class)
+public class IncrementalTest extends AbstractIntegrationTest {
+
+  public IncrementalTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void incremental() throws Exception {
+    Verifier verifier = verifier("configuration", "incremental");
+    verifier.execute(latexGoal());
+    assertFilePresent(verifier, "target/incremental-1.0.5.pdf");
+    switch (build) {
+      case Maven:
+        verifyTextInLog(verifier, "[mathan] incremental-1.0.5.pdf is up to date");
+        break;
+      case Gradle:
+        verifyTextInLog(verifier, "Skipping task ':latex' as it is up-to-date");
+        break;
+    }
+  }
+}
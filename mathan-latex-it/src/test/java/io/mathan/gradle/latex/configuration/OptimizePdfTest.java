@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.latex.core.Utils;
+import io.mathan.maven.it.Verifier;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test optimizing the PDF document. The size of the document before and after the optimization has to be logged, whether the optimized document is used depends on its size. The test is skipped if
+ * neither Ghostscript nor qpdf is installed.
+ */
+@RunWith(Parameterized.class)
+public class OptimizePdfTest extends AbstractIntegrationTest {
+
+  public OptimizePdfTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void optimizePdf() throws Exception {
+    Assume.assumeTrue(Utils.getExecutable(null, "gs") != null || Utils.getExecutable(null, "qpdf") != null);
+    Verifier verifier = verifier("configuration", "optimizepdf");
+    verifyTextNotInLog(verifier, "[mathan] no optimizer found");
+    verifyTextNotInLog(verifier, "[mathan] optimization with");
+    verifyTextNotInLog(verifier, "[mathan] sample.pdf not optimized:");
+    verifyTextInLog(verifier, "[mathan] sample.pdf ");
+  }
+}
@@ -49,6 +49,12 @@ public class OutputformatTest extends AbstractIntegrationTest {
     assertSuccess(Constants.FORMAT_DVI, Step.STEP_LATEX);
   }
 
+  @Test
+  public void multiple() throws Exception {
+    Verifier verifier = assertSuccess("multiple", Constants.FORMAT_PDF, Step.STEP_LATEX, Step.STEP_DVIPDFM, Step.STEP_DVIPS);
+    assertFilePresent(verifier, "target/multiple-1.0.5.ps");
+    assertFilePresent(verifier, "target/multiple-1.0.5.dvi");
+  }
 
   @Test(expected = VerifierException.class)
   public void invalid() throws Exception {
@@ -56,10 +62,15 @@ public class OutputformatTest extends AbstractIntegrationTest {
   }
 
   private void assertSuccess(String outputFormat, Step... steps) throws Exception {
-    Verifier verifier = verifier("configuration/outputformat", outputFormat, latexGoal(), outputFormat);
+    assertSuccess(outputFormat, outputFormat, steps);
+  }
+
+  private Verifier assertSuccess(String project, String outputFormat, Step... steps) throws Exception {
+    Verifier verifier = verifier("configuration/outputformat", project, latexGoal(), outputFormat);
     for (Step step : steps) {
       assertStepExecuted(verifier, step);
     }
+    return verifier;
   }
 
 }
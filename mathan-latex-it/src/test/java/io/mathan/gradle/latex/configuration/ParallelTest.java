@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test building two modules with different makeindex style files concurrently. Each module has to use its own style file.
+ */
+@RunWith(Parameterized.class)
+public class ParallelTest extends AbstractIntegrationTest {
+
+  public ParallelTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void parallel() throws Exception {
+    Verifier verifier = parallelVerifier("configuration", "parallel", "first", "second");
+    verifyTextInLog(verifier, "sample.idx, -s, first.ist]");
+    verifyTextInLog(verifier, "sample.idx, -s, second.ist]");
+  }
+}
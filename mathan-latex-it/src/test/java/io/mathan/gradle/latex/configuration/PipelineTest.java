@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test executing dvips and ps2pdf as a pipeline. The PDF document has to be created without the PostScript document and the files with the output of the pipeline have to be removed.
+ */
+@RunWith(Parameterized.class)
+public class PipelineTest extends AbstractIntegrationTest {
+
+  public PipelineTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void pipeline() throws Exception {
+    Verifier verifier = verifier("configuration", "pipeline");
+    verifyTextInLog(verifier, "[mathan] execution (pipeline): dvips | ps2pdf");
+    verifyTextNotInLog(verifier, "[mathan] pipeline dvips | ps2pdf failed");
+    assertFilePresent(verifier, "target/pipeline-1.0.5.pdf");
+    assertFilePresent(verifier, "target/latex/sample.dvi");
+    assertFileNotPresent(verifier, "target/latex/sample.ps");
+    assertFileNotPresent(verifier, "target/latex/sample.dvips.err");
+    assertFileNotPresent(verifier, "target/latex/sample.ps2pdf.out");
+    assertFileNotPresent(verifier, "target/latex/sample.ps2pdf.err");
+  }
+}
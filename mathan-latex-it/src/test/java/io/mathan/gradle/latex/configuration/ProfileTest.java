@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.latex.core.Step;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test executing the build twice with the profile dev. The first execution has to execute all LaTeX passes as each pass changes the auxiliary files. The second execution reads the auxiliary files of
+ * the first execution and has to skip the passes after the first one.
+ */
+@RunWith(Parameterized.class)
+public class ProfileTest extends AbstractIntegrationTest {
+
+  private static final String CONVERGED = "[mathan] execution skipped, auxiliary files converged: " + Step.STEP_PDFLATEX.getId();
+
+  public ProfileTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void dev() throws Exception {
+    Verifier verifier = verifier("configuration", "profile");
+    assertStepExecuted(verifier, Step.STEP_BIBTEX);
+    verifyTextNotInLog(verifier, CONVERGED);
+    verifier.execute(latexGoal());
+    assertFilePresent(verifier, "target/profile-1.0.5.pdf");
+    verifyTextInLog(verifier, CONVERGED);
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.latex.core.Step;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test writing the output of the tools to files. The output of pdflatex has to be written to a file named after the document and the step.
+ */
+@RunWith(Parameterized.class)
+public class RedirectOutputToFileTest extends AbstractIntegrationTest {
+
+  public RedirectOutputToFileTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void redirectOutputToFile() throws Exception {
+    Verifier verifier = verifier("configuration", "redirectoutputtofile");
+    assertFilePresent(verifier, "target/latex/sample.pdflatex.out");
+    assertFilePresent(verifier, "target/latex/sample.pdflatex.err");
+    assertStepExecuted(verifier, Step.STEP_PDFLATEX);
+  }
+}
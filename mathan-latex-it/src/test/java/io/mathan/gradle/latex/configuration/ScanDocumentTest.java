@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.latex.core.Step;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test scanning the document for referenced files. Only the document and the chapter have to be copied to the working directory.
+ */
+@RunWith(Parameterized.class)
+public class ScanDocumentTest extends AbstractIntegrationTest {
+
+  public ScanDocumentTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void scanDocument() throws Exception {
+    Verifier verifier = verifier("configuration", "scandocument");
+    assertStepExecuted(verifier, Step.STEP_PDFLATEX);
+    assertFilePresent(verifier, "target/scandocument-1.0.5.pdf");
+    verifyTextInLog(verifier, "[mathan] copying 2 files referenced by main.tex");
+  }
+}
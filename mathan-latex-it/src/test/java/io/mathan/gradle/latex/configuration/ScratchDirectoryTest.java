@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test using a scratch directory. The working directory created within the scratch directory has to be removed after the build.
+ */
+@RunWith(Parameterized.class)
+public class ScratchDirectoryTest extends AbstractIntegrationTest {
+
+  public ScratchDirectoryTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void scratchDirectory() throws Exception {
+    Verifier verifier = verifier("configuration", "scratchdirectory");
+    verifyTextInLog(verifier, "[mathan] working directory: ");
+    assertDirectoryEmpty(verifier, "target/scratch");
+    verifier.execute(latexGoal());
+    assertFilePresent(verifier, "target/scratchdirectory-1.0.5.pdf");
+    assertDirectoryEmpty(verifier, "target/scratch");
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.latex.core.Step;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test executing makeindex by a step executor provided as dependency of the plugin. The executor has a higher priority than the executable, so makeindex must not be started.
+ */
+@RunWith(Parameterized.class)
+public class StepExecutorTest extends AbstractIntegrationTest {
+
+  public StepExecutorTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void stepExecutor() throws Exception {
+    publish("configuration/stepexecutor", "executor");
+    Verifier verifier = verifier("configuration/stepexecutor", "document");
+    verifyTextInLog(verifier, "[mathan] execution (empty index): " + Step.STEP_MAKEINDEX.getId());
+    verifyTextNotInLog(verifier, "[mathan] execution: " + Step.STEP_MAKEINDEX.getId());
+    assertStepExecuted(verifier, Step.STEP_PDFLATEX);
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.gradle.latex.configuration;
+
+import io.mathan.gradle.latex.AbstractIntegrationTest;
+import io.mathan.maven.it.Verifier;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Test warming the caches of the tools with the goal warm-caches (Maven) and the task warmLatexCaches (Gradle). The caches have to be created in the configured toolCacheDirectory.
+ */
+@RunWith(Parameterized.class)
+public class ToolCacheDirectoryTest extends AbstractIntegrationTest {
+
+  public ToolCacheDirectoryTest(Build build) {
+    super(build);
+  }
+
+  @Test
+  public void warmCaches() throws Exception {
+    Verifier verifier = verifier("configuration", "toolcachedirectory");
+    switch (build) {
+      case Maven:
+        verifier.execute("mathan:warm-caches");
+        break;
+      case Gradle:
+        verifier.execute("warmLatexCaches");
+        break;
+    }
+    verifyTextInLog(verifier, "[mathan] tool caches: ");
+    assertFilePresent(verifier, "target/tools/texmf-var");
+    assertFilePresent(verifier, "target/tools/biber");
+  }
+}
@@ -43,4 +43,12 @@ public class DependencyTest extends AbstractIntegrationTest {
     assertStepExecuted(verifier, Step.STEP_PDFLATEX);
   }
 
+  @Test
+  public void mountFromJar() throws Exception {
+    publish("dependencies", "dependency");
+    Verifier verifier = verifier("dependencies", "mount-main");
+    assertStepExecuted(verifier, Step.STEP_PDFLATEX);
+    assertFilePresent(verifier, "target/mount-main-1.0.5.pdf");
+  }
+
 }
@@ -0,0 +1,35 @@
+package io.mathan.maven.test;
+
+import io.mathan.latex.core.MathanLatexConfiguration;
+import io.mathan.latex.core.Step;
+import io.mathan.latex.core.StepExecution;
+import io.mathan.latex.core.StepExecutor;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Executor of the step makeindex writing an empty index without starting the executable.
+ */
+public class EmptyIndexStepExecutor implements StepExecutor {
+
+  @Override
+  public boolean supports(Step step, MathanLatexConfiguration configuration) {
+    return Step.STEP_MAKEINDEX.getId().equals(step.getId());
+  }
+
+  @Override
+  public int execute(StepExecution execution) throws IOException {
+    execution.getBuild().getLog().info("[mathan] execution (empty index): " + execution.getStep().getId());
+    if (!execution.getInputFile().exists()) {
+      return 1;
+    }
+    Files.write(execution.getOutputFile().toPath(), "\\begin{theindex}\n\\end{theindex}\n".getBytes(StandardCharsets.US_ASCII));
+    return 0;
+  }
+
+  @Override
+  public int getPriority() {
+    return 10;
+  }
+}
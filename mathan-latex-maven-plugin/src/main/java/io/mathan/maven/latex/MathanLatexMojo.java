@@ -17,12 +17,22 @@
 package io.mathan.maven.latex;
 
 import io.mathan.latex.core.Constants;
+import io.mathan.latex.core.DocumentGraph;
+import io.mathan.latex.core.FileFingerprints;
+import io.mathan.latex.core.InputManifest;
 import io.mathan.latex.core.LatexExecutionException;
 import io.mathan.latex.core.MathanLatexConfiguration;
 import io.mathan.latex.core.MathanLatexRunner;
 import io.mathan.latex.core.Step;
+import io.mathan.latex.core.Utils;
 import io.mathan.maven.latex.internal.MavenBuild;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -30,6 +40,7 @@ import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
 import org.apache.maven.shared.model.fileset.FileSet;
 import org.eclipse.aether.RepositorySystem;
 import org.eclipse.aether.RepositorySystemSession;
@@ -41,7 +52,7 @@ import org.eclipse.aether.repository.RemoteRepository;
  *
  * @author Matthias Hanisch (reallyinsane)
  */
-@Mojo(name = "latex")
+@Mojo(name = "latex", threadSafe = true)
 public class MathanLatexMojo extends AbstractMojo {
 
   /**
@@ -50,6 +61,13 @@ public class MathanLatexMojo extends AbstractMojo {
   @Parameter(defaultValue = Constants.FORMAT_PDF)
   private String outputFormat;
 
+  /**
+   * Further output formats created by the same build. The output of the LaTeX steps is converted into these formats, e.g. with dvips and dvipdfm. Each document is attached to the project with its
+   * format as type.
+   */
+  @Parameter
+  private String[] additionalOutputFormats;
+
   /**
    * The bin directory of the LaTeX distribution.
    */
@@ -80,6 +98,12 @@ public class MathanLatexMojo extends AbstractMojo {
   @Parameter(defaultValue = "${project}", required = true, readonly = true)
   private MavenProject project;
 
+  /**
+   * For attaching the documents of the additional output formats to the project.
+   */
+  @Component
+  private MavenProjectHelper projectHelper;
+
   /**
    * Parameter for controlling if intermediate files created during the build process should be kept or not. The latter is the default.
    */
@@ -128,9 +152,90 @@ public class MathanLatexMojo extends AbstractMojo {
   @Parameter
   private boolean enableDependencyScan = false;
 
+  /**
+   * Parameter for controlling if the dependencies are extracted into the dependency cache and found by TeX using TEXINPUTS, BIBINPUTS, BSTINPUTS and INDEXSTYLE instead of copying their contents into
+   * the working directory.
+   */
+  @Parameter
+  private boolean mountDependencies = false;
+
+  /**
+   * Parameter for controlling if the LaTeX source document is scanned for referenced files. Only the referenced files are copied to the working directory and are inputs of the incremental build.
+   * If a reference cannot be resolved statically, all files of the source directory are used.
+   */
+  @Parameter
+  private boolean scanDocument = false;
+
+  /**
+   * The directory in which the dependencies are extracted if mountDependencies is enabled. The directory can be shared by several projects.
+   */
+  @Parameter(defaultValue = "target/mathan-dependencies")
+  private String dependencyCacheDirectory;
+
   @Parameter
   private FileSet resources;
 
+  /**
+   * The build profile switching the flags of the LaTeX steps: dev for fast previews (draft graphics, no PDF compression, LaTeX passes are skipped once the auxiliary files converged), ci for builds
+   * without SyncTeX data and release for the unchanged steps. The profile can be selected for a single build with -Dmathan.profile=dev.
+   */
+  @Parameter(property = "mathan.profile", defaultValue = "release")
+  private String profile;
+
+  /**
+   * The chapters to build with \includeonly, e.g. -Dmathan.includeOnly=chapters/intro,chapters/results. The .aux files of the other chapters written by the previous build are used, so
+   * keepIntermediateFiles has to be enabled. If not set, all chapters are built.
+   */
+  @Parameter(property = "mathan.includeOnly")
+  private String[] includeOnly;
+
+  /**
+   * Parameter for controlling if the figures externalized by the document with \tikzexternalize[mode=list and make] are compiled after the first LaTeX pass. The figures are compiled concurrently
+   * and cached by the checksum of their code and the files they read, so unchanged figures are not compiled again.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean externalizeFigures;
+
+  /**
+   * Parameter for controlling if EPS and SVG images are converted to PDF before the first LaTeX pass, so pdflatex does not convert them with shell escape. The images are converted concurrently with
+   * epstopdf, Ghostscript, rsvg-convert or Inkscape and cached by their content.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean convertImages;
+
+  /**
+   * Parameter for controlling if the PNG and JPEG images are replaced by downsampled proxies for draft builds (profile dev). The sources are not changed, release builds always use the original
+   * images.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean imageProxies;
+
+  /**
+   * The maximum width and height of an image proxy in pixels.
+   */
+  @Parameter(defaultValue = "1024")
+  private int imageProxySize;
+
+  /**
+   * Parameter for controlling if the PDF document is optimized after the final pass with Ghostscript and qpdf. The streams are recompressed, duplicate images and fonts removed and the document is
+   * linearized for fast web view.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean optimizePdf;
+
+  /**
+   * The directory of the cache for externalized figures, converted images and image proxies. The directory can be shared by several projects.
+   */
+  @Parameter(defaultValue = "target/mathan-figures")
+  private String figureCacheDirectory;
+
+  /**
+   * The directory of the persistent caches of the tools, the font database of luaotfload and the unpacked biber. If not set, the tools use their default caches in the home and temporary directory of
+   * the user. The caches can be warmed with the goal warm-caches.
+   */
+  @Parameter(property = "mathan.toolCacheDirectory")
+  private String toolCacheDirectory;
+
   /**
    * Parameter for controlling if build should be stopped in case the execution of a single step finished with an unexpected (non-zero) exit code. By default this parameter is set to <code>true</code>
    * but in some cases it may be useful to set it to <code>false</code>. This can be necessary if a tool finishes successfully but returns a non-zero exit code.
@@ -138,6 +243,76 @@ public class MathanLatexMojo extends AbstractMojo {
   @Parameter(defaultValue = "true")
   private boolean haltOnError;
 
+  /**
+   * Parameter for controlling if the log aggregating the logs of all steps (mathan-latex-mojo.log) should be compressed with gzip.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean compressLog;
+
+  /**
+   * Parameter for controlling if the output and error of the executed tools should be redirected to files by the operating system instead of being read by the build. The files are only read if
+   * debug logging is enabled, if the tool failed or if errors were written.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean redirectOutputToFile;
+
+  /**
+   * Parameter for controlling if steps forming a converter chain (dvips followed by ps2pdf) should be executed as a pipeline. The output of dvips is passed to ps2pdf without writing the PostScript
+   * document to disk. If the arguments of a step were changed or the pipeline fails, the steps are executed using files.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean pipelineSteps;
+
+  /**
+   * Parameter for controlling if bibtex and biber should be skipped if neither the cited keys, the bibliography style nor the bibliography databases changed since the last execution. The existing
+   * .bbl file is used then. This requires the intermediate files of the last build to be kept.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean skipUnchangedBibliography;
+
+  /**
+   * Parameter for controlling if only the cited entries of the bibliography databases (.bib files) should be passed to bibtex and biber. The cited entries are extracted into reduced databases before
+   * the step is executed. This speeds up the processing of large databases provided by dependencies.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean extractCitedEntries;
+
+  /**
+   * Parameter for controlling if the steps makeindex and makeindexnomencl should be executed by the implementation of makeindex within the JVM instead of the executable of the TeX distribution. The
+   * style files configured with makeIndexStyleFile and makeIndexNomenclStyleFile are taken from the sources, the dependencies or the TeX distribution. For nomencl.ist built-in settings are used if
+   * it cannot be found, for other style files the executable is used.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean inProcessMakeIndex;
+
+  /**
+   * Parameter for controlling if the results of the steps bibtex, biber, makeindex and makeindexnomencl should be cached. If the input files of such a step did not change, the output files are
+   * restored from the cache instead of executing the step.
+   */
+  @Parameter(defaultValue = "false")
+  private boolean enableActionCache;
+
+  /**
+   * The directory of the action cache. A relative path is resolved against the basedir of the project. The directory can be shared by several projects.
+   */
+  @Parameter(defaultValue = "target/mathan-cache")
+  private String actionCacheDirectory;
+
+  /**
+   * The directory in which a unique working directory is created for each build, e.g. a RAM disk like /dev/shm or a local disk if the project is located on a network drive. The working directory is
+   * removed after the build. If intermediate files are kept or the build failed, they are copied to target/latex.
+   */
+  @Parameter(property = "mathan.scratchDirectory")
+  private String scratchDirectory;
+
+  /**
+   * Parameter for controlling if the build should be skipped if the document was already built and neither the sources, the dependencies nor the configuration changed since. The inputs of the last
+   * successful build are persisted in a manifest next to the document. Packages updated within the same release of the TeX distribution and environment variables like TEXINPUTS are not inputs, so
+   * the build is opt-in.
+   */
+  @Parameter(property = "mathan.incremental", defaultValue = "false")
+  private boolean incremental;
+
 
   /**
    * {@inheritDoc}
@@ -145,6 +320,51 @@ public class MathanLatexMojo extends AbstractMojo {
   public void execute() throws MojoExecutionException, MojoFailureException {
     configureResourcesOfDependencies();
 
+    MathanLatexConfiguration latexConfiguration = createConfiguration();
+
+    MavenBuild build = new MavenBuild(this);
+
+    File artifact = new File(project.getBasedir(), String.format("target/%s-%s.%s", project.getArtifactId(), project.getVersion(), outputFormat));
+    File manifestFile = new File(project.getBasedir(), "target/mathan-latex-manifest.properties");
+    InputManifest manifest = null;
+    if (incremental) {
+      manifest = createManifest(build);
+      if (isUpToDate(artifact, manifestFile, manifest) && getAdditionalArtifacts().values().stream().allMatch(File::exists)) {
+        getLog().info(String.format("[mathan] %s is up to date", artifact.getName()));
+        build.setArtifact(artifact);
+        getAdditionalArtifacts().forEach((format, additionalArtifact) -> build.attachArtifact(additionalArtifact, format));
+        return;
+      }
+    }
+    if (manifestFile.exists() && !manifestFile.delete()) {
+      throw new MojoExecutionException(String.format("Could not delete %s", manifestFile.getAbsolutePath()));
+    }
+
+    MathanLatexRunner runner = new MathanLatexRunner(latexConfiguration, build);
+    try {
+      runner.execute();
+    } catch (LatexExecutionException e) {
+      throw new MojoExecutionException("Execution of Mathan LaTeX Runner failed", e);
+    }
+    if (manifest != null) {
+      if (scanDocument) {
+        // the file recorder of TeX may have found additional files
+        manifest = createManifest(build);
+      }
+      try {
+        manifest.write(manifestFile);
+      } catch (IOException e) {
+        getLog().warn(String.format("Could not write %s", manifestFile.getAbsolutePath()), e);
+      }
+    }
+  }
+
+  /**
+   * Creates the configuration for the mathan latex runner from the parameters of the mojo.
+   *
+   * @return The configuration.
+   */
+  protected MathanLatexConfiguration createConfiguration() {
     MathanLatexConfiguration latexConfiguration = new MathanLatexConfiguration();
     latexConfiguration.setLatexSteps(latexSteps);
     latexConfiguration.setBuildSteps(buildSteps);
@@ -153,22 +373,130 @@ public class MathanLatexMojo extends AbstractMojo {
     latexConfiguration.setMakeIndexNomenclStyleFile(makeIndexNomenclStyleFile);
     latexConfiguration.setMakeIndexStyleFile(makeIndexStyleFile);
     latexConfiguration.setOutputFormat(outputFormat);
+    latexConfiguration.setAdditionalOutputFormats(additionalOutputFormats);
     latexConfiguration.setSourceDirectory(sourceDirectory);
     latexConfiguration.setSteps(steps);
     latexConfiguration.setTexBin(texBin);
     latexConfiguration.setTexFile(texFile);
     latexConfiguration.setEnableDependencyScan(enableDependencyScan);
+    latexConfiguration.setCompressLog(compressLog);
+    latexConfiguration.setRedirectOutputToFile(redirectOutputToFile);
+    latexConfiguration.setPipelineSteps(pipelineSteps);
+    latexConfiguration.setSkipUnchangedBibliography(skipUnchangedBibliography);
+    latexConfiguration.setExtractCitedEntries(extractCitedEntries);
+    latexConfiguration.setInProcessMakeIndex(inProcessMakeIndex);
+    latexConfiguration.setEnableActionCache(enableActionCache);
+    latexConfiguration.setActionCacheDirectory(actionCacheDirectory);
+    latexConfiguration.setScratchDirectory(scratchDirectory);
+    latexConfiguration.setMountDependencies(mountDependencies);
+    latexConfiguration.setScanDocument(scanDocument);
+    latexConfiguration.setProfile(profile);
+    latexConfiguration.setIncludeOnly(includeOnly);
+    latexConfiguration.setExternalizeFigures(externalizeFigures);
+    latexConfiguration.setConvertImages(convertImages);
+    latexConfiguration.setImageProxies(imageProxies);
+    latexConfiguration.setImageProxySize(imageProxySize);
+    latexConfiguration.setOptimizePdf(optimizePdf);
+    latexConfiguration.setFigureCacheDirectory(figureCacheDirectory);
+    latexConfiguration.setDependencyCacheDirectory(dependencyCacheDirectory);
+    latexConfiguration.setToolCacheDirectory(toolCacheDirectory);
+    return latexConfiguration;
+  }
 
-    MavenBuild build = new MavenBuild(this);
+  /**
+   * Creates the manifest of all inputs of the build: the files of the source directory, the dependencies (if dependency scan is enabled), the configuration and the version of the TeX distribution.
+   */
+  private InputManifest createManifest(MavenBuild build) throws MojoExecutionException {
+    FileFingerprints fingerprints = FileFingerprints.load(new File(project.getBasedir(), FileFingerprints.DEFAULT_INDEX));
+    InputManifest manifest = new InputManifest(fingerprints);
+    manifest.put("outputFormat", outputFormat);
+    manifest.put("additionalOutputFormats", additionalOutputFormats == null ? null : String.join(",", additionalOutputFormats));
+    manifest.put("latexSteps", latexSteps == null ? null : String.join(",", latexSteps));
+    manifest.put("buildSteps", buildSteps == null ? null : String.join(",", buildSteps));
+    manifest.put("steps", steps == null ? null : Arrays.toString(steps));
+    manifest.put("keepIntermediateFiles", String.valueOf(keepIntermediateFiles));
+    manifest.put("sourceDirectory", sourceDirectory);
+    manifest.put("makeIndexStyleFile", makeIndexStyleFile);
+    manifest.put("makeIndexNomenclStyleFile", makeIndexNomenclStyleFile);
+    manifest.put("texFile", texFile);
+    manifest.put("enableDependencyScan", String.valueOf(enableDependencyScan));
+    manifest.put("scanDocument", String.valueOf(scanDocument));
+    manifest.put("resources", String.format("includes=%s, excludes=%s", resources.getIncludes(), resources.getExcludes()));
+    manifest.put("profile", profile);
+    manifest.put("includeOnly", includeOnly == null ? null : String.join(",", includeOnly));
+    manifest.put("externalizeFigures", String.valueOf(externalizeFigures));
+    manifest.put("convertImages", String.valueOf(convertImages));
+    manifest.put("imageProxies", String.valueOf(imageProxies));
+    manifest.put("imageProxySize", String.valueOf(imageProxySize));
+    manifest.put("optimizePdf", String.valueOf(optimizePdf));
+    manifest.put("haltOnError", String.valueOf(haltOnError));
+    manifest.put("extractCitedEntries", String.valueOf(extractCitedEntries));
+    manifest.put("inProcessMakeIndex", String.valueOf(inProcessMakeIndex));
+    manifest.put("toolchainVersion", Utils.getToolchainVersion(texBin));
+    try {
+      putSources(manifest);
+      if (enableDependencyScan) {
+        build.putDependencies(manifest);
+      }
+    } catch (IOException e) {
+      throw new MojoExecutionException("Could not create manifest of the build inputs", e);
+    }
+    try {
+      fingerprints.save();
+    } catch (IOException e) {
+      getLog().warn("Could not write " + FileFingerprints.DEFAULT_INDEX, e);
+    }
+    return manifest;
+  }
 
-    MathanLatexRunner runner = new MathanLatexRunner(latexConfiguration, build);
+  /**
+   * Adds the files of the source directory to the manifest. If scanDocument is enabled, only the files referenced by the document are added unless the graph of the document is incomplete.
+   */
+  private void putSources(InputManifest manifest) throws IOException {
+    File sources = new File(project.getBasedir(), sourceDirectory);
+    if (scanDocument) {
+      try {
+        DocumentGraph graph = DocumentGraph.scan(sources, texFile, new File(project.getBasedir(), "target/latex"), makeIndexStyleFile, makeIndexNomenclStyleFile);
+        if (graph.isComplete()) {
+          Map<String, File> files = new TreeMap<>();
+          graph.getFiles().forEach(file -> files.put(file, new File(sources, file)));
+          manifest.putFiles(files);
+          return;
+        }
+      } catch (LatexExecutionException e) {
+        // the build fails without LaTeX source document
+      }
+    }
+    manifest.putDirectory(sources);
+  }
+
+  private boolean isUpToDate(File artifact, File manifestFile, InputManifest manifest) {
+    if (!artifact.exists()) {
+      return false;
+    }
     try {
-      runner.execute();
-    } catch (LatexExecutionException e) {
-      throw new MojoExecutionException("Execution of Mathan LaTeX Runner failed", e);
+      return manifest.equals(InputManifest.read(manifestFile));
+    } catch (IOException e) {
+      getLog().warn(String.format("Could not read %s", manifestFile.getAbsolutePath()), e);
+      return false;
     }
   }
 
+  /**
+   * Returns the documents of the additional output formats created by the build.
+   */
+  private Map<String, File> getAdditionalArtifacts() {
+    Map<String, File> artifacts = new LinkedHashMap<>();
+    if (additionalOutputFormats != null) {
+      for (String format : additionalOutputFormats) {
+        if (!format.equals(outputFormat)) {
+          artifacts.put(format, new File(project.getBasedir(), String.format("target/%s-%s.%s", project.getArtifactId(), project.getVersion(), format)));
+        }
+      }
+    }
+    return artifacts;
+  }
+
   private void configureResourcesOfDependencies() {
     if (resources == null) {
       resources = new FileSet();
@@ -182,6 +510,10 @@ public class MathanLatexMojo extends AbstractMojo {
     return project;
   }
 
+  public MavenProjectHelper getProjectHelper() {
+    return projectHelper;
+  }
+
   public List<RemoteRepository> getRemoteRepos() {
     return remoteRepos;
   }
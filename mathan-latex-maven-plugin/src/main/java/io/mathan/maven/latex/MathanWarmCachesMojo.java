@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.mathan.maven.latex;
+
+import io.mathan.latex.core.LatexExecutionException;
+import io.mathan.latex.core.MathanLatexRunner;
+import io.mathan.maven.latex.internal.MavenBuild;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * The MathanWarmCachesMojo provides the goal "warm-caches" to fill the persistent caches of the tools in the toolCacheDirectory: the font database of luaotfload and the unpacked biber. The warmed
+ * caches can be baked into the image of a build agent, e.g. with <code>mvn mathan:warm-caches -Dmathan.toolCacheDirectory=/opt/mathan-tools</code>. The goal uses the configuration of the goal
+ * "latex".
+ */
+@Mojo(name = "warm-caches", threadSafe = true)
+public class MathanWarmCachesMojo extends MathanLatexMojo {
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void execute() throws MojoExecutionException {
+    MathanLatexRunner runner = new MathanLatexRunner(createConfiguration(), new MavenBuild(this));
+    try {
+      runner.warmToolCaches();
+    } catch (LatexExecutionException e) {
+      throw new MojoExecutionException("Warming the caches of the tools failed", e);
+    }
+  }
+}
@@ -18,6 +18,8 @@ package io.mathan.maven.latex.internal;
 
 import io.mathan.latex.core.Build;
 import io.mathan.latex.core.BuildLog;
+import io.mathan.latex.core.DependencyCache;
+import io.mathan.latex.core.InputManifest;
 import io.mathan.latex.core.LatexExecutionException;
 import io.mathan.latex.core.Utils;
 import io.mathan.maven.latex.MathanLatexMojo;
@@ -25,6 +27,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -79,11 +82,51 @@ public class MavenBuild implements Build {
 
   }
 
+  @Override
+  public void attachArtifact(File artifact, String type) {
+    mojo.getProjectHelper().attachArtifact(getProject(), type, artifact);
+  }
+
   @Override
   public void resolveDependencies(File workingDirectory) throws LatexExecutionException {
     List<Dependency> dependencies = getProject().getDependencies();
     for (Dependency dependency : dependencies) {
-      resolveDependency(dependency, workingDirectory);
+      extractArchive(resolveDependency(dependency), workingDirectory);
+    }
+  }
+
+  @Override
+  public List<File> resolveDependencies(DependencyCache cache) throws LatexExecutionException {
+    String filter = String.format("includes=%s;excludes=%s", getResources().getIncludes(), getResources().getExcludes());
+    List<Dependency> dependencies = getProject().getDependencies();
+    List<File> directories = new ArrayList<>();
+    for (Dependency dependency : dependencies) {
+      File archive = resolveDependency(dependency);
+      File directory = cache.get(archive, filter, this::extractArchive);
+      getLog().info(String.format("[mathan] mounting artifact %s from %s", archive.getName(), directory.getAbsolutePath()));
+      directories.add(directory);
+    }
+    return directories;
+  }
+
+  /**
+   * Adds the coordinates of all dependencies to the given manifest. If a dependency is available in the local repository, its file is added as well, so that changes of snapshot dependencies are
+   * detected.
+   *
+   * @param manifest The manifest to add the dependencies to.
+   * @throws IOException If the file of a dependency could not be read.
+   */
+  public void putDependencies(InputManifest manifest) throws IOException {
+    List<Dependency> dependencies = getProject().getDependencies();
+    for (Dependency dependency : dependencies) {
+      Artifact artifact = new DefaultArtifact(dependency.getGroupId(), dependency.getArtifactId(), dependency.getClassifier(), dependency.getType(), dependency.getVersion());
+      manifest.put("dependency:" + artifact, artifact.toString());
+      LocalArtifactRequest localRequest = new LocalArtifactRequest();
+      localRequest.setArtifact(artifact);
+      LocalArtifactResult localResult = getRepoSession().getLocalRepositoryManager().find(getRepoSession(), localRequest);
+      if (localResult.isAvailable()) {
+        manifest.putFile(artifact.toString(), localResult.getFile());
+      }
     }
   }
 
@@ -121,43 +164,40 @@ public class MavenBuild implements Build {
     return mojo.getResources();
   }
 
-  private void resolveDependency(Dependency dependency, File workingDirectory) throws LatexExecutionException {
+  private File resolveDependency(Dependency dependency) throws LatexExecutionException {
     Artifact artifact = new DefaultArtifact(dependency.getGroupId(), dependency.getArtifactId(), dependency.getClassifier(), dependency.getType(), dependency.getVersion());
     LocalArtifactRequest localRequest = new LocalArtifactRequest();
     localRequest.setArtifact(artifact);
     getLog().info(String.format("[mathan] resolving artifact %s from local", artifact));
     LocalArtifactResult localResult = getRepoSession().getLocalRepositoryManager().find(getRepoSession(), localRequest);
     if (localResult.isAvailable()) {
-      try {
-        extractArchive(localResult.getFile(), workingDirectory);
-      } catch (IOException e) {
-        throw new LatexExecutionException(String.format("Could not copy artifact %s", artifact), e);
-      }
-    } else {
-      ArtifactRequest request = new ArtifactRequest();
-      request.setArtifact(artifact);
-      request.setRepositories(getRemoteRepos());
-      getLog().info(String.format("[mathan] resolving artifact %s from %s", artifact, getRemoteRepos()));
-      ArtifactResult result;
-      try {
-        result = getRepoSystem().resolveArtifact(getRepoSession(), request);
-      } catch (ArtifactResolutionException e) {
-        throw new LatexExecutionException(String.format("Could not resolve artifact %s", artifact), e);
-      }
-      if (result.isResolved()) {
-        try {
-          extractArchive(result.getArtifact().getFile(), workingDirectory);
-        } catch (IOException e) {
-          throw new LatexExecutionException(String.format("Could not copy artifact %s", artifact), e);
-        }
-      } else {
-        throw new LatexExecutionException(String.format("Could not resolve artifact %s", artifact));
-      }
+      return localResult.getFile();
+    }
+    ArtifactRequest request = new ArtifactRequest();
+    request.setArtifact(artifact);
+    request.setRepositories(getRemoteRepos());
+    getLog().info(String.format("[mathan] resolving artifact %s from %s", artifact, getRemoteRepos()));
+    ArtifactResult result;
+    try {
+      result = getRepoSystem().resolveArtifact(getRepoSession(), request);
+    } catch (ArtifactResolutionException e) {
+      throw new LatexExecutionException(String.format("Could not resolve artifact %s", artifact), e);
+    }
+    if (!result.isResolved()) {
+      throw new LatexExecutionException(String.format("Could not resolve artifact %s", artifact));
     }
+    return result.getArtifact().getFile();
+  }
 
+  private void extractArchive(File archive, File workingDirectory) throws LatexExecutionException {
+    try {
+      copyIncludedFiles(archive, workingDirectory);
+    } catch (IOException e) {
+      throw new LatexExecutionException(String.format("Could not copy artifact %s", archive.getName()), e);
+    }
   }
 
-  private void extractArchive(File archive, File workingDirectory) throws IOException {
+  private void copyIncludedFiles(File archive, File workingDirectory) throws IOException {
     File archiveContent = Utils.extractArchive(archive);
     FileSetManager fileSetManager = new FileSetManager();
 
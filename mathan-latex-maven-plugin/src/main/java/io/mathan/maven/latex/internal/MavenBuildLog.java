@@ -57,4 +57,9 @@ public class MavenBuildLog implements BuildLog {
   public void warn(String message, Exception ex) {
     this.log.warn(message, ex);
   }
+
+  @Override
+  public boolean isDebugEnabled() {
+    return this.log.isDebugEnabled();
+  }
 }